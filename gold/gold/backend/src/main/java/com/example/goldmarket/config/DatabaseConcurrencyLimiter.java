@@ -0,0 +1,152 @@
+package com.example.goldmarket.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of requests working against the database at the size of
+ * the connection pool, minus {@code db.limiter.reserved-connections} kept for
+ * background work such as deposit settlement.
+ * <p>
+ * With virtual threads Tomcat no longer limits concurrency, so without this
+ * every request would queue inside the pool and time out after Hikari's 30
+ * seconds. Here excess requests wait in FIFO order for at most
+ * {@code db.limiter.acquire-timeout-ms} and are then rejected with 503, while
+ * requests that never touch the database are not limited at all. A request
+ * that goes asynchronous, such as login, signup or a deposit, keeps its permit
+ * until the async work completes.
+ * <p>
+ * Off by default: on platform threads Tomcat's own thread pool bounds
+ * concurrency. The {@code virtual} profile turns it on.
+ */
+@Component
+public class DatabaseConcurrencyLimiter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseConcurrencyLimiter.class);
+
+    private static final List<String> DATABASE_PATHS = List.of("/api/trade/", "/api/payment/", "/api/orders", "/api/auth/",
+            "/api/public/", "/api/chat/recommendation/me", "/api/alerts", "/api/sip");
+
+    private final boolean enabled;
+    private final int permits;
+    private final long acquireTimeoutMillis;
+    private final Semaphore semaphore;
+
+    public DatabaseConcurrencyLimiter(@Value("${db.limiter.enabled:false}") boolean enabled,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${db.limiter.reserved-connections:2}") int reservedConnections,
+            @Value("${db.limiter.acquire-timeout-ms:1000}") long acquireTimeoutMillis) {
+        this.enabled = enabled;
+        this.permits = Math.max(1, poolSize - reservedConnections);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.semaphore = new Semaphore(permits, true);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        for (String prefix : DATABASE_PATHS) {
+            if (path.startsWith(prefix)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.debug("Rejecting {} {}: no database capacity", request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server busy, please retry\"}");
+            return;
+        }
+        AtomicBoolean held = new AtomicBoolean(true);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(held));
+            } else {
+                release(held);
+            }
+        }
+    }
+
+    private void release(AtomicBoolean held) {
+        if (held.compareAndSet(true, false)) {
+            semaphore.release();
+        }
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public int getAvailablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return semaphore.getQueueLength();
+    }
+
+    // Completion follows a timeout or error too, so that is the one place to release
+    private class ReleaseOnComplete implements AsyncListener {
+
+        private final AtomicBoolean held;
+
+        ReleaseOnComplete(AtomicBoolean held) {
+            this.held = held;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(held);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A restarted async cycle drops its listeners
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
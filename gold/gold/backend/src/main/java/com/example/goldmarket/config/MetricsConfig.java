@@ -0,0 +1,126 @@
+package com.example.goldmarket.config;
+
+import com.example.goldmarket.service.AlertService;
+import com.example.goldmarket.service.IdempotencyService;
+import com.example.goldmarket.service.OrderService;
+import com.example.goldmarket.service.PasswordService;
+import com.example.goldmarket.service.PersonalRecommendationService;
+import com.example.goldmarket.service.PriceTickScheduler;
+import com.example.goldmarket.service.SipScheduler;
+import com.example.goldmarket.service.TradeSettler;
+import com.example.goldmarket.service.journal.WalletJournal;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gauges and counters over state the services already track. These are read
+ * only when the registry is scraped, so they add nothing to the request path.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public QueryCounter queryCounter() {
+        return new QueryCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer(QueryCounter queryCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCounter);
+    }
+
+    @Bean
+    public MeterBinder marketMeters(PriceTickScheduler priceTickScheduler, TradeSettler tradeSettler,
+            OrderService orderService, DatabaseConcurrencyLimiter databaseConcurrencyLimiter,
+            IdempotencyService idempotencyService, QueryCounter queryCounter, PasswordService passwordService,
+            PersonalRecommendationService personalRecommendationService, AlertService alertService,
+            SipScheduler sipScheduler, WalletJournal walletJournal) {
+        return registry -> {
+            TimeGauge.builder("price.tick.age", priceTickScheduler, TimeUnit.MILLISECONDS,
+                    PriceTickScheduler::getPriceAgeMillis)
+                    .description("Time since the published prices were produced")
+                    .register(registry);
+            FunctionCounter.builder("price.ticks", priceTickScheduler, PriceTickScheduler::getTicks)
+                    .register(registry);
+            FunctionCounter.builder("price.ticks.late", priceTickScheduler, PriceTickScheduler::getLateTicks)
+                    .register(registry);
+            FunctionCounter.builder("price.ticks.skipped", priceTickScheduler, PriceTickScheduler::getSkippedTicks)
+                    .register(registry);
+
+            FunctionCounter.builder("trade.settle.batches", tradeSettler, TradeSettler::getBatches)
+                    .register(registry);
+            Gauge.builder("trade.settle.queued", tradeSettler, TradeSettler::getQueued)
+                    .register(registry);
+            Gauge.builder("orders.open", orderService, OrderService::getOpenOrderCount)
+                    .register(registry);
+            Gauge.builder("alerts.active", alertService, AlertService::getActiveAlertCount)
+                    .register(registry);
+            FunctionCounter.builder("alerts.triggered", alertService, AlertService::getTriggered)
+                    .register(registry);
+            FunctionCounter.builder("sip.runs", sipScheduler, SipScheduler::getSucceeded)
+                    .tag("outcome", "succeeded")
+                    .register(registry);
+            FunctionCounter.builder("sip.runs", sipScheduler, SipScheduler::getFailed)
+                    .tag("outcome", "failed")
+                    .description("SIP purchases recorded as failed, e.g. for lack of funds")
+                    .register(registry);
+            FunctionCounter.builder("sip.batches.isolated", sipScheduler, SipScheduler::getIsolatedBatches)
+                    .description("SIP batches that could not commit and were re-run plan by plan")
+                    .register(registry);
+            FunctionCounter.builder("wallet.journal.entries", walletJournal, WalletJournal::getSequence)
+                    .register(registry);
+            FunctionCounter.builder("wallet.journal.fsyncs", walletJournal, WalletJournal::getFsyncs)
+                    .register(registry);
+            FunctionCounter.builder("wallet.journal.snapshots", walletJournal, WalletJournal::getSnapshots)
+                    .register(registry);
+            Gauge.builder("wallet.journal.lag", walletJournal, WalletJournal::getLag)
+                    .description("Committed balance changes not yet written to the journal")
+                    .register(registry);
+            Gauge.builder("wallet.journal.failed", walletJournal, journal -> journal.isFailed() ? 1 : 0)
+                    .register(registry);
+
+            Gauge.builder("db.limiter.available", databaseConcurrencyLimiter,
+                    DatabaseConcurrencyLimiter::getAvailablePermits)
+                    .register(registry);
+            Gauge.builder("db.limiter.waiting", databaseConcurrencyLimiter,
+                    DatabaseConcurrencyLimiter::getQueueLength)
+                    .register(registry);
+            FunctionCounter.builder("db.queries", queryCounter, QueryCounter::getTotal)
+                    .description("SQL statements prepared on any thread")
+                    .register(registry);
+
+            Gauge.builder("idempotency.keys.cached", idempotencyService, IdempotencyService::getCachedKeyCount)
+                    .register(registry);
+
+            Gauge.builder("auth.password.active", passwordService, PasswordService::getActive)
+                    .register(registry);
+            Gauge.builder("auth.password.queued", passwordService, PasswordService::getQueued)
+                    .register(registry);
+            FunctionCounter.builder("auth.password.rejected", passwordService, PasswordService::getRejected)
+                    .description("Logins and signups turned away because the hashing pool was full")
+                    .register(registry);
+            FunctionCounter.builder("auth.password.rehashed", passwordService, PasswordService::getUpgraded)
+                    .description("Stored passwords re-hashed at the current cost on login")
+                    .register(registry);
+
+            FunctionCounter.builder("advice.cache.hits", personalRecommendationService,
+                    PersonalRecommendationService::getHits)
+                    .register(registry);
+            FunctionCounter.builder("advice.cache.misses", personalRecommendationService,
+                    PersonalRecommendationService::getMisses)
+                    .register(registry);
+            FunctionCounter.builder("advice.over.budget", personalRecommendationService,
+                    PersonalRecommendationService::getOverBudget)
+                    .description("Personal recommendations that fell back to the global signal")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.goldmarket.config;
+
+import com.example.goldmarket.service.feed.PriceFeed;
+import com.example.goldmarket.service.feed.ReplayPriceFeed;
+import com.example.goldmarket.service.feed.SimulatedPriceFeed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class PriceFeedConfig {
+
+    /**
+     * Selects the price source with {@code market.feed.type}: {@code simulator}
+     * (default) or {@code replay}, which reads {@code market.feed.replay.file}.
+     */
+    @Bean
+    public PriceFeed priceFeed(ThreadFactories threadFactories, @Value("${market.feed.type:simulator}") String type,
+            @Value("${market.feed.replay.file:}") String replayFile,
+            @Value("${market.feed.replay.speed:1.0}") double replaySpeed,
+            @Value("${market.feed.replay.loop:true}") boolean replayLoop) {
+        if ("replay".equalsIgnoreCase(type)) {
+            if (replayFile.isBlank()) {
+                throw new IllegalStateException("market.feed.replay.file must be set when market.feed.type=replay");
+            }
+            return new ReplayPriceFeed(Path.of(replayFile), replaySpeed, replayLoop,
+                    threadFactories.named("price-feed-replay"));
+        }
+        if (!"simulator".equalsIgnoreCase(type)) {
+            throw new IllegalStateException("Unknown market.feed.type: " + type);
+        }
+        return new SimulatedPriceFeed();
+    }
+}
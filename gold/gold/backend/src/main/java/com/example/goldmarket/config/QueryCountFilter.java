@@ -0,0 +1,64 @@
+package com.example.goldmarket.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each API request ran, grouped by API area.
+ * <p>
+ * Only statements on the request thread are counted. Trades settled by the
+ * batch settler and deposits settled by the gateway callback run elsewhere
+ * and show up in the {@code db.queries} total instead.
+ */
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final String[] AREAS = { "/api/trade/", "/api/payment/", "/api/orders", "/api/auth/",
+            "/api/public/", "/api/market/", "/api/" };
+
+    private final DistributionSummary[] summaries = new DistributionSummary[AREAS.length];
+
+    public QueryCountFilter(MeterRegistry registry) {
+        for (int i = 0; i < AREAS.length; i++) {
+            String area = i == AREAS.length - 1 ? "other" : AREAS[i].substring(5).replace("/", "");
+            summaries[i] = DistributionSummary.builder("db.queries.per.request")
+                    .description("SQL statements run on the request thread")
+                    .tag("area", area)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return area(request.getRequestURI()) < 0;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long before = QueryCounter.currentThreadCount();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            summaries[area(request.getRequestURI())].record(QueryCounter.currentThreadCount() - before);
+        }
+    }
+
+    private static int area(String path) {
+        for (int i = 0; i < AREAS.length; i++) {
+            if (path.startsWith(AREAS[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.goldmarket.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts every SQL statement Hibernate prepares, in total and per thread.
+ * Registered as Hibernate's statement inspector by {@link MetricsConfig};
+ * {@link QueryCountFilter} reads the per-thread count around each request.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    // One long[] per thread, allocated once, so counting never allocates
+    private static final ThreadLocal<long[]> THREAD_COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final LongAdder total = new LongAdder();
+
+    @Override
+    public String inspect(String sql) {
+        THREAD_COUNT.get()[0]++;
+        total.increment();
+        return sql;
+    }
+
+    /**
+     * Statements prepared so far on the calling thread.
+     */
+    public static long currentThreadCount() {
+        return THREAD_COUNT.get()[0];
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+}
@@ -4,15 +4,19 @@ import com.example.goldmarket.model.User;
 import com.example.goldmarket.model.Wallet;
 import com.example.goldmarket.repository.UserRepository;
 import com.example.goldmarket.repository.WalletRepository;
+import com.example.goldmarket.security.JwtAuthenticationFilter;
+import com.example.goldmarket.security.JwtService;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -26,10 +30,12 @@ public class SecurityConfig {
 
     private final UserRepository userRepository;
     private final WalletRepository walletRepository;
+    private final JwtService jwtService;
 
-    public SecurityConfig(UserRepository userRepository, WalletRepository walletRepository) {
+    public SecurityConfig(UserRepository userRepository, WalletRepository walletRepository, JwtService jwtService) {
         this.userRepository = userRepository;
         this.walletRepository = walletRepository;
+        this.jwtService = jwtService;
     }
 
 
@@ -57,12 +63,18 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/", "/login", "/signup", "/error", "/api/public/**", "/api/auth/**", "/h2-console/**", "/oauth2/**", "/login/oauth2/**", "/api/test/**", "/api/chat/**").permitAll()
+                .requestMatchers("/", "/login", "/signup", "/error", "/api/public/**", "/api/auth/**", "/h2-console/**", "/oauth2/**", "/login/oauth2/**", "/api/test/**", "/api/chat/**", "/actuator/health", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated()
             )
             .exceptionHandling(e -> e.authenticationEntryPoint(new org.springframework.security.web.authentication.HttpStatusEntryPoint(org.springframework.http.HttpStatus.UNAUTHORIZED)))
             .headers(headers -> headers.frameOptions(frame -> frame.disable()));
-            
+
+        if (jwtService.isStateless()) {
+            // auth.mode=jwt: every request carries its own token, nothing is kept in an HttpSession
+            http
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class);
+        }
         return http.build();
     }
 
@@ -0,0 +1,42 @@
+package com.example.goldmarket.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts HTTP sessions as the servlet container creates and destroys them.
+ */
+@Component
+public class SessionMetrics implements HttpSessionListener, MeterBinder {
+
+    private final AtomicLong active = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+
+    @Override
+    public void sessionCreated(HttpSessionEvent event) {
+        active.incrementAndGet();
+        created.incrementAndGet();
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent event) {
+        active.decrementAndGet();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("http.sessions.active", active, AtomicLong::get)
+                .description("HTTP sessions currently alive")
+                .register(registry);
+        FunctionCounter.builder("http.sessions.created", created, AtomicLong::get)
+                .description("HTTP sessions created since startup")
+                .register(registry);
+    }
+}
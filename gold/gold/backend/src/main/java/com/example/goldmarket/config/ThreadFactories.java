@@ -0,0 +1,61 @@
+package com.example.goldmarket.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads behind the application's own executors, so they follow
+ * the same mode as Tomcat and Spring's scheduler: virtual threads when
+ * {@code spring.threads.virtual.enabled} is set and the JVM is 21 or newer,
+ * daemon platform threads otherwise.
+ * <p>
+ * Code that runs on these threads must not block while holding a monitor,
+ * since that pins a virtual thread to its carrier; use
+ * {@link java.util.concurrent.locks.ReentrantLock} instead of
+ * {@code synchronized}.
+ */
+@Component
+public class ThreadFactories {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadFactories.class);
+
+    private final boolean virtual;
+
+    public ThreadFactories(@Value("${spring.threads.virtual.enabled:false}") boolean virtualRequested) {
+        this.virtual = virtualRequested && Runtime.version().feature() >= 21;
+        if (virtualRequested && !virtual) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads, using platform threads",
+                    Runtime.version().feature());
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Threads named {@code prefix-1}, {@code prefix-2}, ...
+     */
+    public ThreadFactory named(String prefix) {
+        return virtual ? new VirtualThreadTaskExecutor(prefix + "-").getVirtualThreadFactory() : platform(prefix);
+    }
+
+    /**
+     * Daemon platform threads regardless of mode, for the rare thread that
+     * needs its own carrier.
+     */
+    public static ThreadFactory platform(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
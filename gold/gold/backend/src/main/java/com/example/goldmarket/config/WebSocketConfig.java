@@ -0,0 +1,32 @@
+package com.example.goldmarket.config;
+
+import com.example.goldmarket.service.NotificationHub;
+import com.example.goldmarket.service.PriceBroadcaster;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private static final String[] ALLOWED_ORIGINS = { "http://localhost:5173", "http://localhost:5174",
+            "http://127.0.0.1:5173", "http://127.0.0.1:5174" };
+
+    private final PriceBroadcaster priceBroadcaster;
+    private final NotificationHub notificationHub;
+
+    public WebSocketConfig(PriceBroadcaster priceBroadcaster, NotificationHub notificationHub) {
+        this.priceBroadcaster = priceBroadcaster;
+        this.notificationHub = notificationHub;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Live prices are pushed here; GET /api/market/prices remains as the polling fallback
+        registry.addHandler(priceBroadcaster, "/ws/prices").setAllowedOrigins(ALLOWED_ORIGINS);
+        // Per-user events such as settled deposits; needs the logged-in session
+        registry.addHandler(notificationHub, "/ws/notifications").setAllowedOrigins(ALLOWED_ORIGINS);
+    }
+}
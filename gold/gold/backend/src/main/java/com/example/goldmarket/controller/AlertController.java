@@ -0,0 +1,69 @@
+package com.example.goldmarket.controller;
+
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.PriceAlert;
+import com.example.goldmarket.service.AlertService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/alerts")
+public class AlertController {
+
+    private final AlertService alertService;
+
+    public AlertController(AlertService alertService) {
+        this.alertService = alertService;
+    }
+
+    /**
+     * Creates a price alert, delivered on {@code /ws/notifications} when it fires:
+     * {@code {"symbol":"GOLD_24K","condition":"ABOVE","price":"12800"}} or
+     * {@code {"symbol":"GOLD_24K","condition":"MOVE","percent":"1","windowMinutes":"10"}}.
+     * A MOVE alert compares the current price with the price exactly
+     * {@code windowMinutes} ago, not with the high or low in between: a swing
+     * that reverses within the window does not fire it.
+     */
+    @PostMapping
+    public ResponseEntity<?> createAlert(@AuthenticationPrincipal OAuth2User principal,
+            @RequestBody Map<String, String> payload) {
+        try {
+            String email = principal.getAttribute("email");
+            String price = payload.get("price");
+            String percent = payload.get("percent");
+            String window = payload.get("windowMinutes");
+            PriceAlert alert = alertService.create(email, payload.get("symbol"), payload.get("condition"),
+                    price == null ? null : Money.parse(price, RoundingMode.HALF_UP),
+                    percent == null ? null : new BigDecimal(percent.trim()),
+                    window == null ? null : Integer.valueOf(window.trim()));
+            return ResponseEntity.ok(AlertService.toView(alert));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @GetMapping
+    public List<Map<String, Object>> getAlerts(@AuthenticationPrincipal OAuth2User principal,
+            @RequestParam(defaultValue = "false") boolean all,
+            @RequestParam(defaultValue = "50") int limit) {
+        String email = principal.getAttribute("email");
+        return alertService.getAlerts(email, all, limit).stream().map(AlertService::toView).toList();
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancelAlert(@AuthenticationPrincipal OAuth2User principal, @PathVariable Long id) {
+        try {
+            String email = principal.getAttribute("email");
+            return ResponseEntity.ok(AlertService.toView(alertService.cancel(email, id)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+}
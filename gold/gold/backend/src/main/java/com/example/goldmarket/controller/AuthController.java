@@ -1,61 +1,123 @@
 package com.example.goldmarket.controller;
 
+import com.example.goldmarket.model.Money;
 import com.example.goldmarket.model.User;
 import com.example.goldmarket.model.Wallet;
 import com.example.goldmarket.repository.UserRepository;
 import com.example.goldmarket.repository.WalletRepository;
+import com.example.goldmarket.security.JwtService;
+import com.example.goldmarket.service.PasswordService;
+import com.example.goldmarket.service.WalletRefCache;
+import com.example.goldmarket.service.journal.JournalEntry;
+import com.example.goldmarket.service.journal.WalletJournal;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = { "http://localhost:5173", "http://localhost:5174" }, allowCredentials = "true")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final UserRepository userRepository;
     private final WalletRepository walletRepository;
-
-    public AuthController(UserRepository userRepository, WalletRepository walletRepository) {
+    private final WalletRefCache walletRefCache;
+    private final JwtService jwtService;
+    private final PasswordService passwordService;
+    private final WalletJournal walletJournal;
+    private final TransactionTemplate transactionTemplate;
+    // Where the database work after hashing runs, so the hashing pool only ever hashes
+    private final Executor taskExecutor;
+
+    public AuthController(UserRepository userRepository, WalletRepository walletRepository,
+            WalletRefCache walletRefCache, JwtService jwtService, PasswordService passwordService,
+            WalletJournal walletJournal, PlatformTransactionManager transactionManager,
+            @Qualifier("applicationTaskExecutor") Executor taskExecutor) {
         this.userRepository = userRepository;
         this.walletRepository = walletRepository;
+        this.walletRefCache = walletRefCache;
+        this.jwtService = jwtService;
+        this.passwordService = passwordService;
+        this.walletJournal = walletJournal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
     }
 
+    /**
+     * Hashing the password runs on {@link PasswordService}'s pool, so the
+     * request thread is released while it works; a saturated pool answers 503.
+     * The user and wallet are then saved in one transaction on the
+     * application task executor.
+     */
     @PostMapping("/signup")
-    public ResponseEntity<?> signup(@RequestBody SignupRequest request, HttpSession session) {
-        try {
-            // Check if user already exists
-            if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Email already registered"));
-            }
+    public CompletableFuture<ResponseEntity<?>> signup(@RequestBody SignupRequest request,
+            HttpServletRequest httpRequest) {
+        // Check if user already exists
+        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("error", "Email already registered")));
+        }
+        if (request.getPassword() == null || request.getPassword().isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("error", "Password is required")));
+        }
 
-            // Create new user
-            User user = new User();
-            user.setEmail(request.getEmail());
-            user.setName(request.getName());
-            user.setPassword(request.getPassword()); // Save password
-            user.setProvider("local");
-            user.setOauthProviderId(request.getEmail()); // Use email as ID for local users
-            User savedUser = userRepository.save(user);
-
-            // Create initial wallet
-            Wallet wallet = new Wallet();
-            wallet.setUser(savedUser);
-            wallet.setCurrency("INR");
-            wallet.setBalance(new BigDecimal("10000.00")); // Initial balance
-            walletRepository.save(wallet);
+        CompletableFuture<String> hash;
+        try {
+            hash = passwordService.hash(request.getPassword());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
+        }
+        return hash.<ResponseEntity<?>>thenApplyAsync(passwordHash -> {
+            // User and wallet together, so a failure never leaves a user without a wallet
+            Wallet wallet = transactionTemplate.execute(status -> {
+                // Create new user
+                User user = new User();
+                user.setEmail(request.getEmail());
+                user.setName(request.getName());
+                user.setPassword(passwordHash);
+                user.setProvider("local");
+                user.setOauthProviderId(request.getEmail()); // Use email as ID for local users
+                User created = userRepository.save(user);
+
+                // Create initial wallet
+                Wallet opened = new Wallet();
+                opened.setUser(created);
+                opened.setCurrency("INR");
+                opened.setBalance(Money.ofPaise(10000_00)); // Initial balance
+                walletRepository.save(opened);
+                walletJournal.record(opened.getId(), JournalEntry.Type.OPENING, opened.getBalance().paise(), 0,
+                        created.getId());
+                return opened;
+            });
+            User savedUser = wallet.getUser();
+            walletRefCache.put(savedUser.getEmail(), savedUser.getId(), wallet.getId());
 
             // Set authentication
-            setAuthentication(savedUser, session);
+            setAuthentication(savedUser, httpRequest);
 
             // Return user data
             Map<String, Object> response = new HashMap<>();
@@ -64,32 +126,47 @@ public class AuthController {
                     "id", savedUser.getId(),
                     "email", savedUser.getEmail(),
                     "name", savedUser.getName()));
+            addTokens(response, savedUser);
 
             return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            e.printStackTrace(); // Log to console
-            return ResponseEntity.internalServerError().body(Map.of("error", "Signup failed: " + e.getMessage()));
-        }
+        }, taskExecutor).exceptionally(e -> {
+            log.error("Signup failed", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Signup failed: " + rootCause(e).getMessage()));
+        });
     }
 
+    /**
+     * Verifies the password on {@link PasswordService}'s pool, so a login
+     * storm cannot starve the request threads; a saturated pool answers 503.
+     * The rest runs on the application task executor. Plaintext or
+     * outdated-cost hashes are replaced with a current one on success.
+     */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpSession session) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+        // Find user by email
+        User user = userRepository.findByEmail(request.getEmail())
+                .orElse(null);
+
+        // An unknown user is still checked against a dummy hash, so the response time gives nothing away
+        CompletableFuture<PasswordService.Verification> verification;
         try {
-            // Find user by email
-            User user = userRepository.findByEmail(request.getEmail())
-                    .orElse(null);
-
-            if (user == null) {
+            verification = passwordService.verify(request.getPassword(), user == null ? null : user.getPassword());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
+        }
+        return verification.<ResponseEntity<?>>thenApplyAsync(result -> {
+            if (user == null || !result.matched()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Invalid email or password"));
             }
-
-            // Check password
-            if (user.getPassword() != null && !user.getPassword().equals(request.getPassword())) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Invalid email or password"));
+            if (result.upgradedHash() != null) {
+                userRepository.upgradePassword(user.getId(), user.getPassword(), result.upgradedHash());
             }
 
             // Set authentication
-            setAuthentication(user, session);
+            setAuthentication(user, httpRequest);
+            walletRefCache.get(user.getEmail()); // Warm the cache for the trades that follow
 
             // Return user data
             Map<String, Object> response = new HashMap<>();
@@ -98,17 +175,46 @@ public class AuthController {
                     "id", user.getId(),
                     "email", user.getEmail(),
                     "name", user.getName()));
+            addTokens(response, user);
 
             return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            e.printStackTrace(); // Log to console
-            return ResponseEntity.internalServerError().body(Map.of("error", "Login failed: " + e.getMessage()));
+        }, taskExecutor).exceptionally(e -> {
+            log.error("Login failed", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Login failed: " + rootCause(e).getMessage()));
+        });
+    }
+
+    /**
+     * Exchanges a refresh token for a new access and refresh token pair when
+     * {@code auth.mode=jwt}. The user is looked up so that a deleted account
+     * or a changed name is picked up at the latest when the access token
+     * expires.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest request) {
+        if (!jwtService.isStateless()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Token refresh is only available in jwt mode"));
+        }
+        Claims claims = request.getRefreshToken() == null ? null
+                : jwtService.verify(request.getRefreshToken(), JwtService.REFRESH);
+        if (claims == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired refresh token"));
+        }
+        User user = userRepository.findByEmail(claims.getSubject()).orElse(null);
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
         }
+        return ResponseEntity.ok(jwtService.issue(user));
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpSession session) {
-        session.invalidate();
+    public ResponseEntity<?> logout(HttpServletRequest httpRequest) {
+        // In jwt mode there is nothing to drop server-side; the client discards its tokens
+        HttpSession session = httpRequest.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok(Map.of("success", true));
     }
@@ -119,8 +225,9 @@ public class AuthController {
             OAuth2User principal = (OAuth2User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
             String email = principal.getAttribute("email");
 
-            User user = userRepository.findByEmail(email).orElse(null);
+            User user = userRepository.findById(walletRefCache.get(email).userId()).orElse(null);
             if (user == null) {
+                walletRefCache.evict(email);
                 return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
             }
 
@@ -136,14 +243,16 @@ public class AuthController {
     }
 
     @PostMapping("/update")
-    public ResponseEntity<?> updateProfile(@RequestBody UpdateProfileRequest request, HttpSession session) {
+    public ResponseEntity<?> updateProfile(@RequestBody UpdateProfileRequest request,
+            HttpServletRequest httpRequest) {
         try {
             // Get current user
             OAuth2User principal = (OAuth2User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
             String email = principal.getAttribute("email");
 
-            User user = userRepository.findByEmail(email).orElse(null);
+            User user = userRepository.findById(walletRefCache.get(email).userId()).orElse(null);
             if (user == null) {
+                walletRefCache.evict(email);
                 return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
             }
 
@@ -156,27 +265,50 @@ public class AuthController {
                 user.setBio(request.getBio());
 
             userRepository.save(user);
+            walletRefCache.evict(email);
 
             // Update session if name changed
             if (request.getName() != null) {
-                setAuthentication(user, session);
+                setAuthentication(user, httpRequest);
             }
 
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "user", Map.of(
-                            "id", user.getId(),
-                            "email", user.getEmail(),
-                            "name", user.getName(),
-                            "phone", user.getPhone() != null ? user.getPhone() : "",
-                            "bio", user.getBio() != null ? user.getBio() : "")));
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("user", Map.of(
+                    "id", user.getId(),
+                    "email", user.getEmail(),
+                    "name", user.getName(),
+                    "phone", user.getPhone() != null ? user.getPhone() : "",
+                    "bio", user.getBio() != null ? user.getBio() : ""));
+            if (request.getName() != null) {
+                addTokens(response, user); // Tokens carry the name
+            }
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", "Failed to update profile: " + e.getMessage()));
         }
     }
 
-    private void setAuthentication(User user, HttpSession session) {
+    private static ResponseEntity<?> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1")
+                .body(Map.of("error", "Too many logins right now, please retry"));
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private void addTokens(Map<String, Object> response, User user) {
+        if (jwtService.isStateless()) {
+            response.putAll(jwtService.issue(user));
+        }
+    }
+
+    private void setAuthentication(User user, HttpServletRequest httpRequest) {
+        if (jwtService.isStateless()) {
+            return; // Authentication travels in the issued tokens instead of a session
+        }
         try {
             Map<String, Object> attributes = Map.of(
                     "sub", user.getOauthProviderId(),
@@ -191,12 +323,13 @@ public class AuthController {
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                     principal, null, Collections.emptyList());
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            session.setAttribute("SPRING_SECURITY_CONTEXT", SecurityContextHolder.getContext());
-            System.out.println("Authentication set for user: " + user.getEmail());
+            // Login and signup get here on the password pool, so the context goes to the session, not this thread
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(authentication);
+            httpRequest.getSession().setAttribute("SPRING_SECURITY_CONTEXT", context);
+            log.debug("Authentication set for user {}", user.getEmail());
         } catch (Exception e) {
-            System.err.println("Error setting authentication: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error setting authentication for user {}", user.getEmail(), e);
             throw e;
         }
     }
@@ -253,6 +386,18 @@ public class AuthController {
         }
     }
 
+    static class RefreshRequest {
+        private String refreshToken;
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        public void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
+    }
+
     static class UpdateProfileRequest {
         private String name;
         private String phone;
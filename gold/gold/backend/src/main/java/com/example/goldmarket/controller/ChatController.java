@@ -1,6 +1,10 @@
 package com.example.goldmarket.controller;
 
+import com.example.goldmarket.service.PersonalRecommendationService;
+import com.example.goldmarket.service.RecommendationService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -13,12 +17,33 @@ import java.util.Map;
 @CrossOrigin(origins = { "http://localhost:5173", "http://localhost:5174" }, allowCredentials = "true")
 public class ChatController {
 
+    private final RecommendationService recommendationService;
+    private final PersonalRecommendationService personalRecommendationService;
+
+    public ChatController(RecommendationService recommendationService,
+            PersonalRecommendationService personalRecommendationService) {
+        this.recommendationService = recommendationService;
+        this.personalRecommendationService = personalRecommendationService;
+    }
+
+    /**
+     * The recommendation published on the latest price tick, shared by all
+     * callers.
+     */
     @GetMapping("/recommendation")
     public ResponseEntity<?> getRecommendation() {
-        return ResponseEntity.ok(Map.of(
-            "recommendation", "Based on current market trends, it's a good time to accumulate gold. The price is stable with a bullish outlook.",
-            "action", "BUY",
-            "confidence", "High"
-        ));
+        return ResponseEntity.ok(recommendationService.getLatest());
+    }
+
+    /**
+     * The same signal adjusted to the logged-in user's cash, cost basis and
+     * gold share, with a suggested quantity.
+     */
+    @GetMapping("/recommendation/me")
+    public ResponseEntity<?> getPersonalRecommendation(@AuthenticationPrincipal OAuth2User principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
+        }
+        return ResponseEntity.ok(personalRecommendationService.get(principal.getAttribute("email")));
     }
 }
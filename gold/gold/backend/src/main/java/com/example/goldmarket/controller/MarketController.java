@@ -1,9 +1,19 @@
 package com.example.goldmarket.controller;
 
+import com.example.goldmarket.model.GoldSymbol;
+import com.example.goldmarket.service.CandleInterval;
 import com.example.goldmarket.service.LivePriceService;
+import com.example.goldmarket.service.PriceSnapshot;
+import com.example.goldmarket.service.PriceTickScheduler;
+import com.example.goldmarket.service.TickStore;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Map;
 
@@ -12,13 +22,80 @@ import java.util.Map;
 public class MarketController {
 
     private final LivePriceService livePriceService;
+    private final PriceTickScheduler priceTickScheduler;
+    private final TickStore tickStore;
 
-    public MarketController(LivePriceService livePriceService) {
+    public MarketController(LivePriceService livePriceService, PriceTickScheduler priceTickScheduler,
+            TickStore tickStore) {
         this.livePriceService = livePriceService;
+        this.priceTickScheduler = priceTickScheduler;
+        this.tickStore = tickStore;
     }
 
+    /**
+     * Writes the current snapshot's pre-serialized body as-is. Clients that send
+     * the last ETag back in {@code If-None-Match} get a 304 until the next tick.
+     */
     @GetMapping("/prices")
-    public Map<String, Double> getPrices() {
-        return livePriceService.getCurrentPrices();
+    public ResponseEntity<byte[]> getPrices(WebRequest request) {
+        PriceSnapshot snapshot = livePriceService.getSnapshot();
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(snapshot.getEtag())
+                .body(snapshot.getJson());
+    }
+
+    @GetMapping("/tick-stats")
+    public Map<String, Object> getTickStats() {
+        return priceTickScheduler.getStats();
+    }
+
+    /**
+     * OHLC candles with open time in {@code [from, to)} (epoch millis). Defaults
+     * to the last 100 candles of the requested interval.
+     */
+    @GetMapping("/candles")
+    public ResponseEntity<?> getCandles(@RequestParam String symbol,
+            @RequestParam(defaultValue = "1m") String interval,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to) {
+        GoldSymbol goldSymbol = GoldSymbol.find(symbol);
+        if (goldSymbol == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown symbol: " + symbol));
+        }
+        CandleInterval candleInterval = CandleInterval.find(interval);
+        if (candleInterval == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown interval: " + interval));
+        }
+        long end = to != null ? to : System.currentTimeMillis() + 1;
+        long start = from != null ? from : end - 100 * candleInterval.getMillis();
+        if (start > end) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from must not be after to"));
+        }
+        return ResponseEntity.ok(tickStore.getCandles(goldSymbol, candleInterval, start, end));
+    }
+
+    /**
+     * Raw ticks with timestamp in {@code [from, to)} (epoch millis). Defaults to
+     * the last minute.
+     */
+    @GetMapping("/ticks")
+    public ResponseEntity<?> getTicks(@RequestParam String symbol,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to) {
+        GoldSymbol goldSymbol = GoldSymbol.find(symbol);
+        if (goldSymbol == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown symbol: " + symbol));
+        }
+        long end = to != null ? to : System.currentTimeMillis() + 1;
+        long start = from != null ? from : end - 60_000;
+        if (start > end) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from must not be after to"));
+        }
+        return ResponseEntity.ok(tickStore.getTicks(goldSymbol, start, end));
     }
 }
@@ -0,0 +1,71 @@
+package com.example.goldmarket.controller;
+
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.Order;
+import com.example.goldmarket.model.Weight;
+import com.example.goldmarket.service.OrderService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/orders")
+public class OrderController {
+
+    private final OrderService orderService;
+
+    public OrderController(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    /**
+     * Places a limit or stop order:
+     * {@code {"side":"BUY","type":"LIMIT","symbol":"GOLD_24K","quantity":"1.5","price":"12000"}}.
+     */
+    @PostMapping
+    public ResponseEntity<?> placeOrder(@AuthenticationPrincipal OAuth2User principal,
+            @RequestBody Map<String, String> payload) {
+        try {
+            String email = principal.getAttribute("email");
+            Order order = orderService.place(email, payload.get("side"), payload.get("type"), payload.get("symbol"),
+                    Weight.parse(payload.get("quantity"), RoundingMode.DOWN),
+                    Money.parse(payload.get("price"), RoundingMode.HALF_UP));
+            return ResponseEntity.ok(order);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @GetMapping
+    public List<Order> getOrders(@AuthenticationPrincipal OAuth2User principal,
+            @RequestParam(defaultValue = "false") boolean all,
+            @RequestParam(defaultValue = "50") int limit) {
+        String email = principal.getAttribute("email");
+        return orderService.getOrders(email, all, limit);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getOrder(@AuthenticationPrincipal OAuth2User principal, @PathVariable Long id) {
+        try {
+            String email = principal.getAttribute("email");
+            return ResponseEntity.ok(orderService.getOrder(email, id));
+        } catch (Exception e) {
+            return ResponseEntity.status(404).body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancelOrder(@AuthenticationPrincipal OAuth2User principal, @PathVariable Long id) {
+        try {
+            String email = principal.getAttribute("email");
+            return ResponseEntity.ok(orderService.cancel(email, id));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+}
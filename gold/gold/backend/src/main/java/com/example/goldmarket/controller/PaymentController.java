@@ -1,69 +1,86 @@
 package com.example.goldmarket.controller;
 
-import com.example.goldmarket.model.User;
-import com.example.goldmarket.model.Wallet;
-import com.example.goldmarket.repository.UserRepository;
-import com.example.goldmarket.repository.WalletRepository;
+import com.example.goldmarket.model.Deposit;
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.service.DepositService;
+import com.example.goldmarket.service.IdempotencyService;
+import com.example.goldmarket.service.WalletRefCache;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-import java.util.HashMap;
+import java.math.RoundingMode;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/payment")
 public class PaymentController {
 
-    private final UserRepository userRepository;
-    private final WalletRepository walletRepository;
+    private final DepositService depositService;
+    private final IdempotencyService idempotencyService;
+    private final WalletRefCache walletRefCache;
 
-    public PaymentController(UserRepository userRepository, WalletRepository walletRepository) {
-        this.userRepository = userRepository;
-        this.walletRepository = walletRepository;
+    public PaymentController(DepositService depositService, IdempotencyService idempotencyService,
+            WalletRefCache walletRefCache) {
+        this.depositService = depositService;
+        this.idempotencyService = idempotencyService;
+        this.walletRefCache = walletRefCache;
     }
 
+    /**
+     * Accepts a deposit and returns at once with its id; the wallet is credited
+     * when the payment settles, which is pushed on {@code /ws/notifications}
+     * and can be polled at {@code GET /api/payment/deposits/{id}}. Retries that
+     * repeat the {@code Idempotency-Key} header get the original deposit back.
+     */
     @PostMapping("/mock-deposit")
-    public ResponseEntity<?> mockDeposit(@AuthenticationPrincipal OAuth2User principal,
+    public CompletableFuture<ResponseEntity<?>> mockDeposit(@AuthenticationPrincipal OAuth2User principal,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody Map<String, Object> data) {
         try {
             String email = principal.getAttribute("email");
-            BigDecimal amount = new BigDecimal(data.get("amount").toString());
-
-            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Amount must be greater than 0"));
-            }
-
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            Wallet wallet = walletRepository.findByUserId(user.getId())
-                    .orElseThrow(() -> new RuntimeException("Wallet not found"));
-
-            // Simulate payment processing delay
-            Thread.sleep(1000);
+            Money amount = Money.parse(data.get("amount").toString(), RoundingMode.UNNECESSARY);
+            return idempotencyService.execute(walletRefCache.get(email).walletId(), idempotencyKey, "deposit",
+                    amount.toString(),
+                    () -> CompletableFuture.completedFuture(deposit(email, amount)));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage()))));
+        }
+    }
 
-            // Add money to wallet
-            wallet.setBalance(wallet.getBalance().add(amount));
-            walletRepository.save(wallet);
+    private ResponseEntity<?> deposit(String email, Money amount) {
+        try {
+            Deposit deposit = depositService.submit(email, amount);
 
-            Map<String, Object> response = new HashMap<>();
+            Map<String, Object> response = DepositService.toView(deposit);
             response.put("success", true);
-            response.put("message", "Payment successful! ₹" + amount + " added to wallet");
-            response.put("newBalance", wallet.getBalance());
-            response.put("transactionId", "MOCK_" + System.currentTimeMillis());
+            response.put("message", "Payment of ₹" + amount + " is being processed");
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @GetMapping("/deposits/{id}")
+    public ResponseEntity<?> getDeposit(@AuthenticationPrincipal OAuth2User principal, @PathVariable Long id) {
+        try {
+            String email = principal.getAttribute("email");
+            return ResponseEntity.ok(DepositService.toView(depositService.getDeposit(email, id)));
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", String.valueOf(e.getMessage())));
         }
     }
 
     @PostMapping("/confirm")
-    public ResponseEntity<?> confirmPayment(@AuthenticationPrincipal OAuth2User principal,
+    public CompletableFuture<ResponseEntity<?>> confirmPayment(@AuthenticationPrincipal OAuth2User principal,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody Map<String, Object> data) {
         // Legacy endpoint for compatibility
-        return mockDeposit(principal, data);
+        return mockDeposit(principal, idempotencyKey, data);
     }
 }
@@ -1,11 +1,17 @@
 package com.example.goldmarket.controller;
 
+import com.example.goldmarket.model.Money;
 import com.example.goldmarket.model.User;
 import com.example.goldmarket.model.Wallet;
 import com.example.goldmarket.repository.UserRepository;
 import com.example.goldmarket.repository.WalletRepository;
+import com.example.goldmarket.service.PasswordService;
+import com.example.goldmarket.service.journal.JournalEntry;
+import com.example.goldmarket.service.journal.WalletJournal;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,7 +25,6 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import jakarta.servlet.http.HttpServletRequest;
 
-import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.Map;
 
@@ -28,17 +33,24 @@ import java.util.Map;
 @CrossOrigin(origins = { "http://localhost:5173", "http://localhost:5174" }, allowCredentials = "true")
 public class PublicController {
 
+    private static final Logger log = LoggerFactory.getLogger(PublicController.class);
+
     private final UserRepository userRepository;
     private final WalletRepository walletRepository;
+    private final PasswordService passwordService;
+    private final WalletJournal walletJournal;
 
-    public PublicController(UserRepository userRepository, WalletRepository walletRepository) {
+    public PublicController(UserRepository userRepository, WalletRepository walletRepository,
+            PasswordService passwordService, WalletJournal walletJournal) {
         this.userRepository = userRepository;
         this.walletRepository = walletRepository;
+        this.passwordService = passwordService;
+        this.walletJournal = walletJournal;
     }
 
     @GetMapping("/demo-login")
     public ResponseEntity<?> demoLogin() {
-        System.out.println("DEBUG: demoLogin endpoint called");
+        log.debug("Demo login requested");
         String email = "demo@example.com";
         String name = "Demo User";
         String password = "demo123";
@@ -48,7 +60,7 @@ public class PublicController {
             User newUser = new User();
             newUser.setEmail(email);
             newUser.setName(name);
-            newUser.setPassword(password);
+            newUser.setPassword(passwordService.encode(password));
             newUser.setProvider("local"); // Changed to local to allow password login
             newUser.setOauthProviderId("demo-123");
             User savedUser = userRepository.save(newUser);
@@ -57,15 +69,18 @@ public class PublicController {
             Wallet wallet = new Wallet();
             wallet.setUser(savedUser);
             wallet.setCurrency("INR");
-            wallet.setBalance(new BigDecimal("50000.00"));
+            wallet.setBalance(Money.ofPaise(50000_00));
             walletRepository.save(wallet);
+            walletJournal.record(wallet.getId(), JournalEntry.Type.OPENING, wallet.getBalance().paise(), 0,
+                    savedUser.getId());
 
             return savedUser;
         });
         
         // Ensure password is set if user already existed
-        if (user.getPassword() == null || !user.getPassword().equals(password)) {
-            user.setPassword(password);
+        PasswordService.Verification check = passwordService.verifyNow(password, user.getPassword());
+        if (!check.matched() || check.upgradedHash() != null) {
+            user.setPassword(check.upgradedHash() != null ? check.upgradedHash() : passwordService.encode(password));
             userRepository.save(user);
         }
 
@@ -78,7 +93,7 @@ public class PublicController {
             long count = userRepository.count();
             return ResponseEntity.ok(Map.of("status", "ok", "userCount", count, "db", "connected"));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Database ping failed", e);
             return ResponseEntity.internalServerError().body(Map.of("status", "error", "message", e.getMessage()));
         }
     }
@@ -0,0 +1,67 @@
+package com.example.goldmarket.controller;
+
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.SipPlan;
+import com.example.goldmarket.service.SipService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/sip")
+public class SipController {
+
+    private final SipService sipService;
+
+    public SipController(SipService sipService) {
+        this.sipService = sipService;
+    }
+
+    /**
+     * Starts a plan: {@code {"symbol":"GOLD_24K","amount":"500","frequency":"DAILY"}}.
+     */
+    @PostMapping
+    public ResponseEntity<?> createPlan(@AuthenticationPrincipal OAuth2User principal,
+            @RequestBody Map<String, String> payload) {
+        try {
+            String email = principal.getAttribute("email");
+            SipPlan plan = sipService.create(email, payload.get("symbol"),
+                    Money.parse(payload.get("amount"), RoundingMode.HALF_UP), payload.get("frequency"));
+            return ResponseEntity.ok(plan);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @GetMapping
+    public List<SipPlan> getPlans(@AuthenticationPrincipal OAuth2User principal) {
+        String email = principal.getAttribute("email");
+        return sipService.getPlans(email);
+    }
+
+    @GetMapping("/{id}/runs")
+    public ResponseEntity<?> getRuns(@AuthenticationPrincipal OAuth2User principal, @PathVariable Long id,
+            @RequestParam(defaultValue = "30") int limit) {
+        try {
+            String email = principal.getAttribute("email");
+            return ResponseEntity.ok(sipService.getRuns(email, id, limit));
+        } catch (Exception e) {
+            return ResponseEntity.status(404).body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancelPlan(@AuthenticationPrincipal OAuth2User principal, @PathVariable Long id) {
+        try {
+            String email = principal.getAttribute("email");
+            return ResponseEntity.ok(sipService.cancel(email, id));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+}
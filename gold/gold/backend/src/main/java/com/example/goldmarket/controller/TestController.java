@@ -1,5 +1,7 @@
 package com.example.goldmarket.controller;
 
+import com.example.goldmarket.config.DatabaseConcurrencyLimiter;
+import com.example.goldmarket.config.ThreadFactories;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -10,15 +12,33 @@ import java.util.Map;
 @RequestMapping("/api/test")
 public class TestController {
 
+    private final ThreadFactories threadFactories;
+    private final DatabaseConcurrencyLimiter databaseConcurrencyLimiter;
+
+    public TestController(ThreadFactories threadFactories, DatabaseConcurrencyLimiter databaseConcurrencyLimiter) {
+        this.threadFactories = threadFactories;
+        this.databaseConcurrencyLimiter = databaseConcurrencyLimiter;
+    }
+
     @GetMapping("/hello")
     public Map<String, String> hello() {
-        System.out.println("TEST CONTROLLER: /api/test/hello was called!");
         return Map.of("message", "Hello from Spring Boot!", "status", "working");
     }
 
     @GetMapping("/ping")
     public Map<String, String> ping() {
-        System.out.println("TEST CONTROLLER: /api/test/ping was called!");
         return Map.of("status", "ok", "message", "Test controller is working");
     }
+
+    /**
+     * Which threading mode this instance actually runs in, for load tests.
+     */
+    @GetMapping("/runtime")
+    public Map<String, Object> runtime() {
+        return Map.of(
+                "javaVersion", Runtime.version().toString(),
+                "virtualThreads", threadFactories.isVirtual(),
+                "requestThread", Thread.currentThread().toString(),
+                "dbPermits", databaseConcurrencyLimiter.getPermits());
+    }
 }
@@ -1,24 +1,30 @@
 package com.example.goldmarket.controller;
 
-import com.example.goldmarket.model.Transaction;
+import com.example.goldmarket.model.TransactionView;
 import com.example.goldmarket.model.Wallet;
+import com.example.goldmarket.model.Weight;
+import com.example.goldmarket.service.IdempotencyService;
 import com.example.goldmarket.service.UserService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/trade")
 public class TradeController {
 
     private final UserService userService;
+    private final IdempotencyService idempotencyService;
 
-    public TradeController(UserService userService) {
+    public TradeController(UserService userService, IdempotencyService idempotencyService) {
         this.userService = userService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping("/wallet")
@@ -28,18 +34,37 @@ public class TradeController {
     }
 
     @GetMapping("/history")
-    public List<Transaction> getHistory(@AuthenticationPrincipal OAuth2User principal) {
+    public List<TransactionView> getHistory(@AuthenticationPrincipal OAuth2User principal,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "50") int limit) {
         String email = principal.getAttribute("email");
-        return userService.getHistory(email);
+        return userService.getHistory(email, before, since, limit);
     }
 
+    @GetMapping("/portfolio")
+    public Map<String, Object> getPortfolio(@AuthenticationPrincipal OAuth2User principal) {
+        String email = principal.getAttribute("email");
+        return userService.getPortfolio(email);
+    }
+
+    /**
+     * Completes asynchronously once the trade's settlement batch has committed,
+     * so no request thread waits on the database. Retries that repeat the
+     * {@code Idempotency-Key} header get the original response back. Amounts
+     * are in grams and rounded down to the milligram.
+     */
     @PostMapping("/execute")
-    public Transaction executeTrade(@AuthenticationPrincipal OAuth2User principal, @RequestBody Map<String, String> payload) {
+    public CompletableFuture<ResponseEntity<?>> executeTrade(@AuthenticationPrincipal OAuth2User principal,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody Map<String, String> payload) {
         String email = principal.getAttribute("email");
         String type = payload.get("type");
         String symbol = payload.get("symbol");
-        BigDecimal amount = new BigDecimal(payload.get("amount"));
-        
-        return userService.trade(email, type, symbol, amount);
+        Weight amount = Weight.parse(payload.get("amount"), RoundingMode.DOWN);
+
+        return idempotencyService.execute(userService.getWalletId(email), idempotencyKey, "trade",
+                type + "|" + symbol + "|" + amount,
+                () -> userService.tradeAsync(email, type, symbol, amount).thenApply(ResponseEntity::ok));
     }
 }
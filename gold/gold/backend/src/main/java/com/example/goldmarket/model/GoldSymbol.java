@@ -0,0 +1,31 @@
+package com.example.goldmarket.model;
+
+/**
+ * Tradable gold purities. {@code GOLD} is accepted as an alias for 24K.
+ */
+public enum GoldSymbol {
+    GOLD_24K,
+    GOLD_22K,
+    GOLD_18K;
+
+    private static final GoldSymbol[] VALUES = values();
+
+    /**
+     * Resolves a client supplied symbol, or returns {@code null} if it is not
+     * a gold symbol we price.
+     */
+    public static GoldSymbol find(String code) {
+        if (code == null) {
+            return null;
+        }
+        if ("GOLD".equalsIgnoreCase(code)) {
+            return GOLD_24K;
+        }
+        for (GoldSymbol symbol : VALUES) {
+            if (symbol.name().equalsIgnoreCase(code)) {
+                return symbol;
+            }
+        }
+        return null;
+    }
+}
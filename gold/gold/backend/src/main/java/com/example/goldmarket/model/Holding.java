@@ -0,0 +1,117 @@
+package com.example.goldmarket.model;
+
+import jakarta.persistence.*;
+
+import java.math.RoundingMode;
+
+/**
+ * Grams of one gold symbol held by one wallet. Updated in the same transaction
+ * as every trade, so it always agrees with the transaction history.
+ * <p>
+ * The cost basis and realized P&L are kept incrementally with the average-cost
+ * method, so neither ever needs a scan of the history.
+ */
+@Entity
+@Table(name = "holdings", uniqueConstraints = @UniqueConstraint(name = "uk_holding_wallet_symbol",
+        columnNames = { "wallet_id", "symbol" }))
+public class Holding {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "holdings_seq")
+    @SequenceGenerator(name = "holdings_seq", sequenceName = "holdings_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+
+    @Column(nullable = false)
+    private String symbol; // GOLD_24K, GOLD_22K, GOLD_18K
+
+    @Column(nullable = false)
+    private Weight quantity; // Available to sell, stored in milligrams
+
+    @Column(nullable = false)
+    private Weight reserved = Weight.ZERO; // Held for open SELL orders
+
+    @Column(nullable = false)
+    private Money costBasis = Money.ZERO; // What the grams held, available plus reserved, cost
+
+    @Column(nullable = false)
+    private Money realizedPnl = Money.ZERO; // Sale proceeds less the cost basis of the grams sold
+
+    /**
+     * Adds a purchase to the cost basis.
+     */
+    public void addCost(Money cost) {
+        costBasis = costBasis.plus(cost);
+    }
+
+    /**
+     * Takes the average cost of {@code sold} grams out of the basis and books
+     * the gain or loss against {@code proceeds}. Call while the sold grams are
+     * still counted in the quantity or reserved.
+     */
+    public void removeCost(Weight sold, Money proceeds) {
+        long held = quantity.milligrams() + reserved.milligrams();
+        Money released = sold.milligrams() >= held ? costBasis
+                : costBasis.scale(sold.milligrams(), held, RoundingMode.HALF_UP);
+        costBasis = costBasis.minus(released);
+        realizedPnl = realizedPnl.plus(proceeds.minus(released));
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public Weight getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Weight quantity) {
+        this.quantity = quantity;
+    }
+
+    public Weight getReserved() {
+        return reserved;
+    }
+
+    public void setReserved(Weight reserved) {
+        this.reserved = reserved;
+    }
+
+    public Money getCostBasis() {
+        return costBasis;
+    }
+
+    public void setCostBasis(Money costBasis) {
+        this.costBasis = costBasis;
+    }
+
+    public Money getRealizedPnl() {
+        return realizedPnl;
+    }
+
+    public void setRealizedPnl(Money realizedPnl) {
+        this.realizedPnl = realizedPnl;
+    }
+}
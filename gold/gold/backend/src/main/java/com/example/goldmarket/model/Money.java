@@ -0,0 +1,148 @@
+package com.example.goldmarket.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An exact amount of rupees held as a whole number of paise. Used for
+ * balances, prices per gram and trade values alike.
+ * <p>
+ * Addition and subtraction are exact. Anything that can produce a fraction of
+ * a paisa takes an explicit {@link RoundingMode}, and long overflow throws
+ * instead of wrapping. Serialized to JSON as a plain rupee number with two
+ * decimals, and stored as {@code BIGINT} paise through {@link MoneyConverter}.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private final long paise;
+
+    private Money(long paise) {
+        this.paise = paise;
+    }
+
+    public static Money ofPaise(long paise) {
+        return paise == 0 ? ZERO : new Money(paise);
+    }
+
+    /**
+     * Converts a rupee amount, rounding sub-paisa digits with {@code rounding}
+     * ({@link RoundingMode#UNNECESSARY} rejects them).
+     */
+    public static Money of(BigDecimal rupees, RoundingMode rounding) {
+        try {
+            return ofPaise(rupees.setScale(2, rounding).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Not a valid amount in paise: " + rupees.toPlainString());
+        }
+    }
+
+    public static Money parse(String rupees, RoundingMode rounding) {
+        try {
+            return of(new BigDecimal(rupees.trim()), rounding);
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException("Not a valid amount: " + rupees);
+        }
+    }
+
+    /**
+     * Value of {@code weight} at this price per gram.
+     */
+    public Money times(Weight weight, RoundingMode rounding) {
+        return ofPaise(costPaise(paise, weight.milligrams(), rounding));
+    }
+
+    /**
+     * Paise for {@code milligrams} at {@code pricePaise} per gram, without
+     * allocating.
+     */
+    public static long costPaise(long pricePaise, long milligrams, RoundingMode rounding) {
+        return divide(Math.multiplyExact(pricePaise, milligrams), Weight.MILLIGRAMS_PER_GRAM, rounding);
+    }
+
+    /**
+     * This amount scaled by {@code numerator / denominator}, e.g. 9167/10000.
+     */
+    public Money scale(long numerator, long denominator, RoundingMode rounding) {
+        return ofPaise(divide(Math.multiplyExact(paise, numerator), denominator, rounding));
+    }
+
+    public Money plus(Money other) {
+        return ofPaise(Math.addExact(paise, other.paise));
+    }
+
+    public Money minus(Money other) {
+        return ofPaise(Math.subtractExact(paise, other.paise));
+    }
+
+    public long paise() {
+        return paise;
+    }
+
+    public int signum() {
+        return Long.signum(paise);
+    }
+
+    public boolean isLessThan(Money other) {
+        return paise < other.paise;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    public double toDouble() {
+        return paise / 100.0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(paise, other.paise);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && other.paise == paise;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(paise);
+    }
+
+    /**
+     * Rupees with exactly two decimals, e.g. {@code 12426.50}.
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    /**
+     * {@code dividend / divisor} for a positive divisor, rounded with {@code rounding}.
+     */
+    static long divide(long dividend, long divisor, RoundingMode rounding) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = dividend < 0 ? -1 : 1;
+        long twice = Math.abs(remainder) * 2;
+        boolean awayFromZero = switch (rounding) {
+            case DOWN -> false;
+            case UP -> true;
+            case FLOOR -> sign < 0;
+            case CEILING -> sign > 0;
+            case HALF_UP -> twice >= divisor;
+            case HALF_DOWN -> twice > divisor;
+            case HALF_EVEN -> twice > divisor || (twice == divisor && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+        return awayFromZero ? quotient + sign : quotient;
+    }
+}
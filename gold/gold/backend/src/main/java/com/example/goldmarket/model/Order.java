@@ -0,0 +1,193 @@
+package com.example.goldmarket.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resting limit or stop order. While {@code OPEN} its funds (BUY) or grams
+ * (SELL) are held in the wallet's or holding's reserved amount; it leaves
+ * {@code OPEN} exactly once, when it is filled, cancelled or rejected.
+ */
+@Entity
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status", columnList = "status"),
+        @Index(name = "idx_orders_wallet_id", columnList = "wallet_id, id") })
+public class Order {
+
+    public enum Side {
+        BUY, SELL
+    }
+
+    public enum Type {
+        LIMIT, // BUY at or below the price, SELL at or above it
+        STOP // BUY once the price rises to it, SELL once it falls to it
+    }
+
+    public enum Status {
+        OPEN, FILLED, CANCELLED, REJECTED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+
+    @Column(nullable = false)
+    private String symbol; // GOLD_24K, GOLD_22K, GOLD_18K
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Side side;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Type type;
+
+    @Column(nullable = false)
+    private Weight quantity; // Stored in milligrams
+
+    @Column(nullable = false)
+    private Money price; // Limit or stop level per gram, stored in paise
+
+    @Column(nullable = false)
+    private Money reservedAmount; // Cash held for a BUY, zero for a SELL
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    private Money fillPrice;
+
+    private Long transactionId;
+
+    private String rejectReason;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime closedAt;
+
+    /**
+     * Whether the order triggers when the price falls to its level (limit BUY,
+     * stop SELL) rather than when it rises to it (limit SELL, stop BUY).
+     */
+    public boolean triggersOnFall() {
+        return (side == Side.BUY) == (type == Type.LIMIT);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public Side getSide() {
+        return side;
+    }
+
+    public void setSide(Side side) {
+        this.side = side;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Weight getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Weight quantity) {
+        this.quantity = quantity;
+    }
+
+    public Money getPrice() {
+        return price;
+    }
+
+    public void setPrice(Money price) {
+        this.price = price;
+    }
+
+    public Money getReservedAmount() {
+        return reservedAmount;
+    }
+
+    public void setReservedAmount(Money reservedAmount) {
+        this.reservedAmount = reservedAmount;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Money getFillPrice() {
+        return fillPrice;
+    }
+
+    public void setFillPrice(Money fillPrice) {
+        this.fillPrice = fillPrice;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getRejectReason() {
+        return rejectReason;
+    }
+
+    public void setRejectReason(String rejectReason) {
+        this.rejectReason = rejectReason;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getClosedAt() {
+        return closedAt;
+    }
+
+    public void setClosedAt(LocalDateTime closedAt) {
+        this.closedAt = closedAt;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.goldmarket.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user-defined price alert. While {@code ACTIVE} it sits in the in-memory
+ * alert book for its symbol; it leaves {@code ACTIVE} exactly once, when it
+ * fires or is cancelled.
+ */
+@Entity
+@Table(name = "price_alerts", indexes = {
+        @Index(name = "idx_price_alerts_status", columnList = "status"),
+        @Index(name = "idx_price_alerts_wallet_id", columnList = "wallet_id, id") })
+public class PriceAlert {
+
+    public enum Condition {
+        ABOVE, // Price rises to or above the level
+        BELOW, // Price falls to or below the level
+        MOVE // Price moves by at least the percentage, either way, within the window
+    }
+
+    public enum Status {
+        ACTIVE, TRIGGERED, CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+
+    @Column(nullable = false)
+    private String email; // Where the notification is pushed, so firing needs no join
+
+    @Column(nullable = false)
+    private String symbol; // GOLD_24K, GOLD_22K, GOLD_18K
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alert_condition", nullable = false, length = 8)
+    private Condition condition;
+
+    private Money price; // ABOVE/BELOW level per gram, stored in paise
+
+    private Integer moveBasisPoints; // MOVE threshold, 100 = 1%
+
+    private Integer windowMinutes; // MOVE window
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    private Money triggerPrice;
+
+    private Money referencePrice; // MOVE: the price windowMinutes before it fired
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime triggeredAt;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public Condition getCondition() {
+        return condition;
+    }
+
+    public void setCondition(Condition condition) {
+        this.condition = condition;
+    }
+
+    public Money getPrice() {
+        return price;
+    }
+
+    public void setPrice(Money price) {
+        this.price = price;
+    }
+
+    public Integer getMoveBasisPoints() {
+        return moveBasisPoints;
+    }
+
+    public void setMoveBasisPoints(Integer moveBasisPoints) {
+        this.moveBasisPoints = moveBasisPoints;
+    }
+
+    public Integer getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    public void setWindowMinutes(Integer windowMinutes) {
+        this.windowMinutes = windowMinutes;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Money getTriggerPrice() {
+        return triggerPrice;
+    }
+
+    public void setTriggerPrice(Money triggerPrice) {
+        this.triggerPrice = triggerPrice;
+    }
+
+    public Money getReferencePrice() {
+        return referencePrice;
+    }
+
+    public void setReferencePrice(Money referencePrice) {
+        this.referencePrice = referencePrice;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getTriggeredAt() {
+        return triggeredAt;
+    }
+
+    public void setTriggeredAt(LocalDateTime triggeredAt) {
+        this.triggeredAt = triggeredAt;
+    }
+}
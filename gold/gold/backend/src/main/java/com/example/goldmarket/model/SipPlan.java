@@ -0,0 +1,137 @@
+package com.example.goldmarket.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A systematic investment plan: buy {@code amount} rupees of one symbol every
+ * day, week or month. {@code nextRunAt} is when the next purchase is due; it
+ * moves on in the same transaction as each run, so a plan is never bought
+ * twice for the same period.
+ */
+@Entity
+@Table(name = "sip_plans", indexes = {
+        @Index(name = "idx_sip_plans_due", columnList = "status, next_run_at"),
+        @Index(name = "idx_sip_plans_wallet_id", columnList = "wallet_id, id") })
+public class SipPlan {
+
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY;
+
+        public LocalDateTime after(LocalDateTime runAt) {
+            return switch (this) {
+                case DAILY -> runAt.plusDays(1);
+                case WEEKLY -> runAt.plusWeeks(1);
+                case MONTHLY -> runAt.plusMonths(1);
+            };
+        }
+    }
+
+    public enum Status {
+        ACTIVE, CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sip_plans_seq")
+    @SequenceGenerator(name = "sip_plans_seq", sequenceName = "sip_plans_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+
+    @Column(nullable = false)
+    private String symbol; // GOLD_24K, GOLD_22K, GOLD_18K
+
+    @Column(nullable = false)
+    private Money amount; // Spent per run, stored in paise
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Frequency frequency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt;
+
+    private LocalDateTime lastRunAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(Frequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.goldmarket.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One execution of a {@link SipPlan}: the purchase it made, or why it could
+ * not. At most one per plan and due time.
+ */
+@Entity
+@Table(name = "sip_runs", indexes = @Index(name = "idx_sip_runs_plan_id", columnList = "plan_id, id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_sip_run_plan_due", columnNames = { "plan_id", "due_at" }))
+public class SipRun {
+
+    public enum Status {
+        SUCCEEDED, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sip_runs_seq")
+    @SequenceGenerator(name = "sip_runs_seq", sequenceName = "sip_runs_seq", allocationSize = 50)
+    private Long id; // Sequence, not IDENTITY, so a batch of runs is one JDBC batch
+
+    @Column(name = "plan_id", nullable = false)
+    private Long planId;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    @Column(nullable = false)
+    private LocalDateTime executedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private Money price; // Per gram, from the snapshot the batch ran against
+
+    private Weight quantity;
+
+    private Money cost;
+
+    private Long transactionId;
+
+    private String failureReason;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPlanId() {
+        return planId;
+    }
+
+    public void setPlanId(Long planId) {
+        this.planId = planId;
+    }
+
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public void setDueAt(LocalDateTime dueAt) {
+        this.dueAt = dueAt;
+    }
+
+    public LocalDateTime getExecutedAt() {
+        return executedAt;
+    }
+
+    public void setExecutedAt(LocalDateTime executedAt) {
+        this.executedAt = executedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Money getPrice() {
+        return price;
+    }
+
+    public void setPrice(Money price) {
+        this.price = price;
+    }
+
+    public Weight getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Weight quantity) {
+        this.quantity = quantity;
+    }
+
+    public Money getCost() {
+        return cost;
+    }
+
+    public void setCost(Money cost) {
+        this.cost = cost;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+}
@@ -2,17 +2,18 @@ package com.example.goldmarket.model;
 
 import jakarta.persistence.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = @Index(name = "idx_transactions_wallet_ts_id",
+        columnList = "wallet_id, timestamp, id"))
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
+    private Long id; // Sequence, not IDENTITY, so settlement batches can be JDBC-batched
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "wallet_id", nullable = false)
     private Wallet wallet;
 
@@ -23,10 +24,10 @@ public class Transaction {
     private String symbol; // GOLD, AAPL
 
     @Column(nullable = false)
-    private BigDecimal amount; // Quantity
+    private Weight amount; // Quantity, stored in milligrams
 
     @Column(nullable = false)
-    private BigDecimal price; // Price per unit
+    private Money price; // Price per gram, stored in paise
 
     @Column(nullable = false)
     private LocalDateTime timestamp;
@@ -64,19 +65,19 @@ public class Transaction {
         this.symbol = symbol;
     }
 
-    public BigDecimal getAmount() {
+    public Weight getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Weight amount) {
         this.amount = amount;
     }
 
-    public BigDecimal getPrice() {
+    public Money getPrice() {
         return price;
     }
 
-    public void setPrice(BigDecimal price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
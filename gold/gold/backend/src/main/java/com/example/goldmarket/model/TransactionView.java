@@ -0,0 +1,11 @@
+package com.example.goldmarket.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a {@link Transaction} for history listings. Selected
+ * column by column, so the wallet and user are never loaded or serialized.
+ */
+public record TransactionView(Long id, String type, String symbol, Weight amount, Money price,
+        LocalDateTime timestamp) {
+}
@@ -2,8 +2,6 @@ package com.example.goldmarket.model;
 
 import jakarta.persistence.*;
 
-import java.math.BigDecimal;
-
 @Entity
 @Table(name = "wallets")
 public class Wallet {
@@ -19,7 +17,13 @@ public class Wallet {
     private String currency; // USD, EUR, etc.
 
     @Column(nullable = false)
-    private BigDecimal balance;
+    private Money balance; // Available to spend, stored in paise
+
+    @Column(nullable = false)
+    private Money reservedBalance = Money.ZERO; // Held for open BUY orders
+
+    @Version
+    private Long version; // Optimistic lock; concurrent balance writes fail instead of overwriting
 
     // Getters and Setters
     public Long getId() {
@@ -46,11 +50,27 @@ public class Wallet {
         this.currency = currency;
     }
 
-    public BigDecimal getBalance() {
+    public Money getBalance() {
         return balance;
     }
 
-    public void setBalance(BigDecimal balance) {
+    public void setBalance(Money balance) {
         this.balance = balance;
     }
+
+    public Money getReservedBalance() {
+        return reservedBalance;
+    }
+
+    public void setReservedBalance(Money reservedBalance) {
+        this.reservedBalance = reservedBalance;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
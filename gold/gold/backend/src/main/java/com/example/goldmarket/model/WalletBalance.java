@@ -0,0 +1,7 @@
+package com.example.goldmarket.model;
+
+/**
+ * A wallet's available and reserved cash, without loading the wallet.
+ */
+public record WalletBalance(Long walletId, Money balance, Money reservedBalance) {
+}
@@ -0,0 +1,7 @@
+package com.example.goldmarket.model;
+
+/**
+ * The ids needed to act on a user's wallet, resolved from their email.
+ */
+public record WalletRef(Long userId, Long walletId) {
+}
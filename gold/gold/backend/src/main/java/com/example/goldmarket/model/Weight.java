@@ -0,0 +1,95 @@
+package com.example.goldmarket.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An exact quantity of gold held as a whole number of milligrams.
+ * Serialized to JSON as grams with three decimals, and stored as
+ * {@code BIGINT} milligrams through {@link WeightConverter}.
+ */
+public final class Weight implements Comparable<Weight> {
+
+    public static final long MILLIGRAMS_PER_GRAM = 1000;
+    public static final Weight ZERO = new Weight(0);
+
+    private final long milligrams;
+
+    private Weight(long milligrams) {
+        this.milligrams = milligrams;
+    }
+
+    public static Weight ofMilligrams(long milligrams) {
+        return milligrams == 0 ? ZERO : new Weight(milligrams);
+    }
+
+    /**
+     * Converts grams, rounding sub-milligram digits with {@code rounding}
+     * ({@link RoundingMode#UNNECESSARY} rejects them).
+     */
+    public static Weight ofGrams(BigDecimal grams, RoundingMode rounding) {
+        try {
+            return ofMilligrams(grams.setScale(3, rounding).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Not a valid weight in milligrams: " + grams.toPlainString());
+        }
+    }
+
+    public static Weight parse(String grams, RoundingMode rounding) {
+        try {
+            return ofGrams(new BigDecimal(grams.trim()), rounding);
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException("Not a valid weight: " + grams);
+        }
+    }
+
+    public Weight plus(Weight other) {
+        return ofMilligrams(Math.addExact(milligrams, other.milligrams));
+    }
+
+    public Weight minus(Weight other) {
+        return ofMilligrams(Math.subtractExact(milligrams, other.milligrams));
+    }
+
+    public long milligrams() {
+        return milligrams;
+    }
+
+    public int signum() {
+        return Long.signum(milligrams);
+    }
+
+    public boolean isLessThan(Weight other) {
+        return milligrams < other.milligrams;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(milligrams, 3);
+    }
+
+    @Override
+    public int compareTo(Weight other) {
+        return Long.compare(milligrams, other.milligrams);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Weight other && other.milligrams == milligrams;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(milligrams);
+    }
+
+    /**
+     * Grams with exactly three decimals, e.g. {@code 1.250}.
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.goldmarket.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link Weight} as a {@code BIGINT} number of milligrams.
+ */
+@Converter(autoApply = true)
+public class WeightConverter implements AttributeConverter<Weight, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Weight weight) {
+        return weight == null ? null : weight.milligrams();
+    }
+
+    @Override
+    public Weight convertToEntityAttribute(Long milligrams) {
+        return milligrams == null ? null : Weight.ofMilligrams(milligrams);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.goldmarket.repository;
+
+import com.example.goldmarket.model.Deposit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DepositRepository extends JpaRepository<Deposit, Long> {
+    List<Deposit> findByStatus(Deposit.Status status);
+}
@@ -0,0 +1,18 @@
+package com.example.goldmarket.repository;
+
+import com.example.goldmarket.model.Holding;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HoldingRepository extends JpaRepository<Holding, Long> {
+    Optional<Holding> findByWalletIdAndSymbol(Long walletId, String symbol);
+
+    List<Holding> findByWalletId(Long walletId);
+
+    List<Holding> findByWalletIdIn(Collection<Long> walletIds);
+}
@@ -0,0 +1,17 @@
+package com.example.goldmarket.repository;
+
+import com.example.goldmarket.model.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderRepository extends JpaRepository<Order, Long> {
+    List<Order> findByStatus(Order.Status status);
+
+    List<Order> findByWalletIdAndStatusOrderByIdDesc(Long walletId, Order.Status status);
+
+    List<Order> findByWalletIdOrderByIdDesc(Long walletId, Pageable pageable);
+}
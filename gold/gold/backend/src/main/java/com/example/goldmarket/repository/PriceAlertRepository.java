@@ -0,0 +1,19 @@
+package com.example.goldmarket.repository;
+
+import com.example.goldmarket.model.PriceAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PriceAlertRepository extends JpaRepository<PriceAlert, Long> {
+    List<PriceAlert> findByStatus(PriceAlert.Status status);
+
+    List<PriceAlert> findByWalletIdAndStatusOrderByIdDesc(Long walletId, PriceAlert.Status status);
+
+    List<PriceAlert> findByWalletIdOrderByIdDesc(Long walletId, Pageable pageable);
+
+    long countByWalletIdAndStatus(Long walletId, PriceAlert.Status status);
+}
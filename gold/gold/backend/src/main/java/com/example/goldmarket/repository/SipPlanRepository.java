@@ -0,0 +1,19 @@
+package com.example.goldmarket.repository;
+
+import com.example.goldmarket.model.SipPlan;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SipPlanRepository extends JpaRepository<SipPlan, Long> {
+    List<SipPlan> findByStatusAndNextRunAtLessThanEqualOrderByNextRunAt(SipPlan.Status status, LocalDateTime now,
+            Pageable pageable);
+
+    List<SipPlan> findByWalletIdAndStatusOrderByIdDesc(Long walletId, SipPlan.Status status);
+
+    long countByWalletIdAndStatus(Long walletId, SipPlan.Status status);
+}
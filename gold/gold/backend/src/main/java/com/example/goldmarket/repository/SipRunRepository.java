@@ -0,0 +1,13 @@
+package com.example.goldmarket.repository;
+
+import com.example.goldmarket.model.SipRun;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SipRunRepository extends JpaRepository<SipRun, Long> {
+    List<SipRun> findByPlanIdOrderByIdDesc(Long planId, Pageable pageable);
+}
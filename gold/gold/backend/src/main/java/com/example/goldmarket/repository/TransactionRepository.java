@@ -1,12 +1,39 @@
 package com.example.goldmarket.repository;
 
 import com.example.goldmarket.model.Transaction;
+import com.example.goldmarket.model.TransactionView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
+/**
+ * History reads are keyset-paginated on {@code (timestamp, id)} and served by
+ * the {@code (wallet_id, timestamp, id)} index. A cursor is a transaction id;
+ * its timestamp is looked up in the same statement.
+ */
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByWalletIdOrderByTimestampDesc(Long walletId);
+
+    @Query("select new com.example.goldmarket.model.TransactionView(t.id, t.type, t.symbol, t.amount, t.price, t.timestamp) "
+            + "from Transaction t where t.wallet.id = :walletId "
+            + "order by t.timestamp desc, t.id desc")
+    List<TransactionView> findLatest(@Param("walletId") Long walletId, Pageable page);
+
+    @Query("select new com.example.goldmarket.model.TransactionView(t.id, t.type, t.symbol, t.amount, t.price, t.timestamp) "
+            + "from Transaction t where t.wallet.id = :walletId "
+            + "and (t.timestamp < (select c.timestamp from Transaction c where c.id = :cursor) "
+            + "or (t.timestamp = (select c.timestamp from Transaction c where c.id = :cursor) and t.id < :cursor)) "
+            + "order by t.timestamp desc, t.id desc")
+    List<TransactionView> findBefore(@Param("walletId") Long walletId, @Param("cursor") Long cursor, Pageable page);
+
+    @Query("select new com.example.goldmarket.model.TransactionView(t.id, t.type, t.symbol, t.amount, t.price, t.timestamp) "
+            + "from Transaction t where t.wallet.id = :walletId "
+            + "and (t.timestamp > (select c.timestamp from Transaction c where c.id = :cursor) "
+            + "or (t.timestamp = (select c.timestamp from Transaction c where c.id = :cursor) and t.id > :cursor)) "
+            + "order by t.timestamp asc, t.id asc")
+    List<TransactionView> findSince(@Param("walletId") Long walletId, @Param("cursor") Long cursor, Pageable page);
 }
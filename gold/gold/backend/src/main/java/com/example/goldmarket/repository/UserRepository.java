@@ -2,11 +2,21 @@ package com.example.goldmarket.repository;
 
 import com.example.goldmarket.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    // Only replaces the hash it was computed from, so a concurrent password change wins
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :hash where u.id = :id and u.password = :previous")
+    int upgradePassword(@Param("id") Long id, @Param("previous") String previous, @Param("hash") String hash);
 }
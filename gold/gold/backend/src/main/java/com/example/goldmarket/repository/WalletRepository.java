@@ -1,12 +1,23 @@
 package com.example.goldmarket.repository;
 
 import com.example.goldmarket.model.Wallet;
+import com.example.goldmarket.model.WalletBalance;
+import com.example.goldmarket.model.WalletRef;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
     Optional<Wallet> findByUserId(Long userId);
+
+    @Query("select new com.example.goldmarket.model.WalletRef(w.user.id, w.id) from Wallet w where w.user.email = :email")
+    Optional<WalletRef> findRefByEmail(@Param("email") String email);
+
+    @Query("select new com.example.goldmarket.model.WalletBalance(w.id, w.balance, w.reservedBalance) from Wallet w")
+    List<WalletBalance> findAllBalances();
 }
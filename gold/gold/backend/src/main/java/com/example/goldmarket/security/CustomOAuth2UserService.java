@@ -1,16 +1,19 @@
 package com.example.goldmarket.security;
 
+import com.example.goldmarket.model.Money;
 import com.example.goldmarket.model.User;
 import com.example.goldmarket.model.Wallet;
 import com.example.goldmarket.repository.UserRepository;
 import com.example.goldmarket.repository.WalletRepository;
+import com.example.goldmarket.service.WalletRefCache;
+import com.example.goldmarket.service.journal.JournalEntry;
+import com.example.goldmarket.service.journal.WalletJournal;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.Optional;
 
 @Service
@@ -18,10 +21,15 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
 
     private final UserRepository userRepository;
     private final WalletRepository walletRepository;
+    private final WalletRefCache walletRefCache;
+    private final WalletJournal walletJournal;
 
-    public CustomOAuth2UserService(UserRepository userRepository, WalletRepository walletRepository) {
+    public CustomOAuth2UserService(UserRepository userRepository, WalletRepository walletRepository,
+            WalletRefCache walletRefCache, WalletJournal walletJournal) {
         this.userRepository = userRepository;
         this.walletRepository = walletRepository;
+        this.walletRefCache = walletRefCache;
+        this.walletJournal = walletJournal;
     }
 
     @Override
@@ -46,10 +54,14 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
             Wallet wallet = new Wallet();
             wallet.setUser(user);
             wallet.setCurrency("INR");
-            wallet.setBalance(new BigDecimal("10000.00")); // Initial balance
+            wallet.setBalance(Money.ofPaise(10000_00)); // Initial balance
             walletRepository.save(wallet);
+            walletJournal.record(wallet.getId(), JournalEntry.Type.OPENING, wallet.getBalance().paise(), 0,
+                    user.getId());
+            walletRefCache.put(email, user.getId(), wallet.getId());
         } else {
             user = userOptional.get();
+            walletRefCache.get(email); // Warm the cache for the trades that follow
         }
 
         return oauth2User;
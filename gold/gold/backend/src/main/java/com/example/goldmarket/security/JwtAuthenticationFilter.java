@@ -0,0 +1,68 @@
+package com.example.goldmarket.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates a request from its {@code Authorization: Bearer} access token.
+ * Nothing is looked up: a valid signature and expiry are enough, and the
+ * principal is rebuilt from the claims. Requests without a valid token go on
+ * unauthenticated and are turned away by the usual entry point.
+ * <p>
+ * Browsers cannot set headers on a WebSocket handshake, so {@code /ws/}
+ * paths also accept the token as an {@code access_token} query parameter.
+ * <p>
+ * Created by {@link com.example.goldmarket.config.SecurityConfig} rather than
+ * registered as a bean, so it only runs inside the security filter chain.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtService jwtService;
+
+    public JwtAuthenticationFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = tokenOf(request);
+        if (token != null) {
+            Claims claims = jwtService.verify(token, JwtService.ACCESS);
+            if (claims != null) {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(jwtService.toAuthentication(claims));
+                SecurityContextHolder.setContext(context);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    // Async controllers (trades, deposits) are dispatched again once their future completes; with no session to
+    // reload the context from, that dispatch has to be authenticated from the token as well
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private static String tokenOf(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return header.substring(BEARER.length()).trim();
+        }
+        if (request.getRequestURI().startsWith("/ws/")) {
+            return request.getParameter("access_token");
+        }
+        return null;
+    }
+}
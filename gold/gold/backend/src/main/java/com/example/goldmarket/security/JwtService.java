@@ -0,0 +1,197 @@
+package com.example.goldmarket.security;
+
+import com.example.goldmarket.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Issues and verifies the signed tokens used when {@code auth.mode=jwt}.
+ * <p>
+ * Access tokens are short-lived and carry everything needed to rebuild the
+ * principal, so a request is authenticated from the token alone, without a
+ * session or a database lookup. Refresh tokens live longer and are only
+ * accepted by {@code POST /api/auth/refresh}.
+ * <p>
+ * Keys are decoded once at startup and looked up by key id, so verifying a
+ * token never re-parses key material. {@code auth.jwt.secret} signs new
+ * tokens; secrets listed in {@code auth.jwt.previous-secrets} are still
+ * accepted, which lets a secret be rotated without logging everybody out.
+ * Every instance behind a load balancer must share the same secrets.
+ */
+@Component
+public class JwtService {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtService.class);
+
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
+    private static final String TYPE_CLAIM = "typ";
+    private static final String NAME_CLAIM = "name";
+
+    private final boolean stateless;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+    private final String signingKeyId;
+    private final SecretKey signingKey;
+    private final Map<String, SecretKey> keys = new LinkedHashMap<>();
+    private final JwtParser parser;
+
+    public JwtService(@Value("${auth.mode:session}") String mode,
+            @Value("${auth.jwt.secret:}") String secret,
+            @Value("${auth.jwt.previous-secrets:}") String[] previousSecrets,
+            @Value("${auth.jwt.access-ttl-seconds:900}") long accessTtlSeconds,
+            @Value("${auth.jwt.refresh-ttl-seconds:1209600}") long refreshTtlSeconds) {
+        if (!mode.equalsIgnoreCase("session") && !mode.equalsIgnoreCase("jwt")) {
+            throw new IllegalArgumentException("auth.mode must be session or jwt, got " + mode);
+        }
+        if (accessTtlSeconds <= 0 || refreshTtlSeconds <= 0) {
+            throw new IllegalArgumentException("auth.jwt token lifetimes must be positive");
+        }
+        this.stateless = mode.equalsIgnoreCase("jwt");
+        this.accessTtl = Duration.ofSeconds(accessTtlSeconds);
+        this.refreshTtl = Duration.ofSeconds(refreshTtlSeconds);
+
+        byte[] signing;
+        if (secret.isBlank()) {
+            signing = new byte[32];
+            new SecureRandom().nextBytes(signing);
+            if (stateless) {
+                log.warn("auth.jwt.secret is not set; using a random key, tokens will not survive a restart "
+                        + "or work across instances");
+            }
+        } else {
+            signing = Decoders.BASE64.decode(secret.trim());
+        }
+        this.signingKey = Keys.hmacShaKeyFor(signing);
+        this.signingKeyId = keyId(signing);
+        keys.put(signingKeyId, signingKey);
+        for (String previous : previousSecrets) {
+            if (!previous.isBlank()) {
+                byte[] bytes = Decoders.BASE64.decode(previous.trim());
+                keys.putIfAbsent(keyId(bytes), Keys.hmacShaKeyFor(bytes));
+            }
+        }
+        this.parser = Jwts.parser()
+                .keyLocator(this::locateKey)
+                .clockSkewSeconds(30)
+                .build();
+    }
+
+    /**
+     * True when requests are authenticated by bearer token instead of the
+     * HTTP session.
+     */
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    /**
+     * Issues an access and a refresh token for the user, in the shape the
+     * login and signup responses return them.
+     */
+    public Map<String, Object> issue(User user) {
+        Map<String, Object> tokens = new LinkedHashMap<>();
+        tokens.put("accessToken", token(user, ACCESS, accessTtl));
+        tokens.put("refreshToken", token(user, REFRESH, refreshTtl));
+        tokens.put("tokenType", "Bearer");
+        tokens.put("expiresIn", accessTtl.toSeconds());
+        return tokens;
+    }
+
+    /**
+     * Verifies signature, expiry and token type.
+     *
+     * @return the claims, or null if the token is not a valid token of that type
+     */
+    public Claims verify(String token, String type) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            return type.equals(claims.get(TYPE_CLAIM, String.class)) ? claims : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected {} token: {}", type, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Builds the same principal the session login stores, from verified claims.
+     */
+    public Authentication toAuthentication(Claims claims) {
+        return authentication(claims.getSubject(), claims.get(NAME_CLAIM, String.class));
+    }
+
+    /**
+     * The authenticated principal used throughout the API: an
+     * {@link org.springframework.security.oauth2.core.user.OAuth2User} whose
+     * {@code email} attribute identifies the user.
+     */
+    public static Authentication authentication(String email, String name) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("sub", email);
+        attributes.put("email", email);
+        if (name != null) {
+            attributes.put("name", name);
+        }
+        DefaultOAuth2User principal = new DefaultOAuth2User(Collections.emptyList(), attributes, "email");
+        return new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList());
+    }
+
+    private String token(User user, String type, Duration ttl) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .header().keyId(signingKeyId).and()
+                .subject(user.getEmail())
+                .claim(NAME_CLAIM, user.getName())
+                .claim(TYPE_CLAIM, type)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttl.toMillis()))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    private Key locateKey(Header header) {
+        if (header instanceof ProtectedHeader protectedHeader) {
+            SecretKey key = keys.get(protectedHeader.getKeyId());
+            if (key != null) {
+                return key;
+            }
+        }
+        throw new JwtException("Unknown signing key");
+    }
+
+    private static String keyId(byte[] secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.goldmarket.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Active price alerts for one symbol.
+ * <p>
+ * Level alerts are kept the way {@link OrderBook} keeps orders: BELOW alerts
+ * are due once {@code level >= price}, ABOVE alerts once {@code level <= price},
+ * stored as {@code -level >= -price}. Move alerts have one index per window,
+ * keyed by the negated threshold in basis points, so the alerts due are those
+ * with {@code -threshold >= -move}. Every check is a suffix of a
+ * {@link PriceLevelIndex}: a tick costs a binary search per index plus the
+ * alerts it actually fires, however many are resting.
+ */
+class AlertBook {
+
+    @FunctionalInterface
+    interface Sink {
+        /**
+         * @param referencePaise for a move alert, the price its window started
+         *                       at; 0 for a level alert
+         */
+        void fired(long alertId, long referencePaise);
+    }
+
+    // window is 0 for level alerts
+    private record Slot(int window, long key) {
+    }
+
+    private final PriceLevelIndex below = new PriceLevelIndex();
+    private final PriceLevelIndex above = new PriceLevelIndex();
+    private final TreeMap<Integer, PriceLevelIndex> moves = new TreeMap<>();
+    private final Map<Long, Slot> slots = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    void addLevel(long alertId, boolean triggersOnFall, long levelPaise) {
+        add(alertId, new Slot(0, triggersOnFall ? levelPaise : -levelPaise));
+    }
+
+    void addMove(long alertId, int windowMinutes, long basisPoints) {
+        add(alertId, new Slot(windowMinutes, -basisPoints));
+    }
+
+    private void add(long alertId, Slot slot) {
+        lock.lock();
+        try {
+            if (slots.putIfAbsent(alertId, slot) == null) {
+                index(slot, true).add(slot.key(), alertId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return {@code false} if the alert is no longer resting, i.e. it has
+     *         already fired
+     */
+    boolean remove(long alertId) {
+        lock.lock();
+        try {
+            Slot slot = slots.remove(alertId);
+            if (slot == null) {
+                return false;
+            }
+            PriceLevelIndex index = index(slot, false);
+            boolean removed = index != null && index.remove(slot.key(), alertId);
+            if (slot.window() > 0 && index != null && index.size() == 0) {
+                moves.remove(slot.window());
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every alert fired at {@code pricePaise} and passes it to
+     * {@code sink}. {@code referenceAt} gives the price a window of that many
+     * minutes ago, or 0 when the history does not reach back that far, in
+     * which case that window's alerts wait.
+     */
+    int match(long pricePaise, IntToLongFunction referenceAt, Sink sink) {
+        lock.lock();
+        try {
+            if (slots.isEmpty()) {
+                return 0;
+            }
+            int fired = below.drainFrom(pricePaise, id -> fire(id, 0, sink))
+                    + above.drainFrom(-pricePaise, id -> fire(id, 0, sink));
+            Iterator<Map.Entry<Integer, PriceLevelIndex>> windows = moves.entrySet().iterator();
+            while (windows.hasNext()) {
+                Map.Entry<Integer, PriceLevelIndex> window = windows.next();
+                long reference = referenceAt.applyAsLong(window.getKey());
+                if (reference <= 0) {
+                    continue;
+                }
+                long moveBasisPoints = Math.abs(pricePaise - reference) * 10_000 / reference;
+                PriceLevelIndex index = window.getValue();
+                fired += index.drainFrom(-moveBasisPoints, id -> fire(id, reference, sink));
+                if (index.size() == 0) {
+                    windows.remove();
+                }
+            }
+            return fired;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fire(long alertId, long reference, Sink sink) {
+        slots.remove(alertId);
+        sink.fired(alertId, reference);
+    }
+
+    private PriceLevelIndex index(Slot slot, boolean create) {
+        if (slot.window() == 0) {
+            return slot.key() >= 0 ? below : above;
+        }
+        return create ? moves.computeIfAbsent(slot.window(), w -> new PriceLevelIndex()) : moves.get(slot.window());
+    }
+}
@@ -0,0 +1,377 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.config.ThreadFactories;
+import com.example.goldmarket.model.GoldSymbol;
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.PriceAlert;
+import com.example.goldmarket.repository.PriceAlertRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Price alerts: "24K above ₹12,800", "22K below ₹11,000", or "24K moves 1% in
+ * 10 minutes".
+ * <p>
+ * Active alerts live in an in-memory {@link AlertBook} per symbol, so a tick
+ * only touches the alerts it fires, however many are resting. Fired alerts are
+ * handed to the alert-fire thread, which marks them triggered in batches and
+ * pushes each one to its owner over {@link NotificationHub}; nothing on the
+ * tick thread waits for the database or a socket. Alerts fire once. One whose
+ * condition already holds fires on the next tick, and a move alert waits until
+ * the price history covers its window. Alerts whose batch fails to commit are
+ * armed again, to fire on a later tick. Active alerts are read back into the
+ * books on startup.
+ * <p>
+ * A move is measured endpoint to endpoint: each tick's price against the
+ * sample taken {@code windowMinutes} before it, never against the window's
+ * high or low, so a move that reverses inside the window does not fire.
+ */
+@Service
+public class AlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertService.class);
+
+    private static final int MAX_ALERTS_PAGE = 200;
+
+    private final PriceAlertRepository alertRepository;
+    private final WalletTransactions walletTransactions;
+    private final WalletRefCache walletRefCache;
+    private final NotificationHub notificationHub;
+    private final MarketMetrics marketMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPerUser;
+    private final int maxWindowMinutes;
+    private final int batchSize;
+    private final AlertBook[] books = new AlertBook[GoldSymbol.values().length];
+    private final PriceSamples samples;
+    private final ExecutorService dispatcher;
+    // Alerts handed out by a book and not yet through deliver
+    private final Set<Long> firing = ConcurrentHashMap.newKeySet();
+    private final LongAdder triggered = new LongAdder();
+
+    public AlertService(PriceAlertRepository alertRepository, WalletTransactions walletTransactions,
+            WalletRefCache walletRefCache, NotificationHub notificationHub, MarketMetrics marketMetrics,
+            PlatformTransactionManager transactionManager, ThreadFactories threadFactories,
+            @Value("${market.alerts.max-per-user:50}") int maxPerUser,
+            @Value("${market.alerts.max-window-minutes:60}") int maxWindowMinutes,
+            @Value("${market.alerts.fire-batch-size:500}") int batchSize) {
+        if (maxWindowMinutes <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("market.alerts window and batch sizes must be positive");
+        }
+        this.alertRepository = alertRepository;
+        this.walletTransactions = walletTransactions;
+        this.walletRefCache = walletRefCache;
+        this.notificationHub = notificationHub;
+        this.marketMetrics = marketMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxPerUser = maxPerUser;
+        this.maxWindowMinutes = maxWindowMinutes;
+        this.batchSize = batchSize;
+        for (GoldSymbol symbol : GoldSymbol.values()) {
+            books[symbol.ordinal()] = new AlertBook();
+        }
+        this.samples = new PriceSamples(maxWindowMinutes);
+        this.dispatcher = Executors.newSingleThreadExecutor(threadFactories.named("alert-fire"));
+    }
+
+    /**
+     * Creates an alert. ABOVE and BELOW need {@code price}; MOVE needs
+     * {@code percent} and {@code windowMinutes}.
+     */
+    public PriceAlert create(String email, String symbol, String condition, Money price, BigDecimal percent,
+            Integer windowMinutes) {
+        GoldSymbol goldSymbol = GoldSymbol.find(symbol);
+        if (goldSymbol == null) {
+            throw new IllegalArgumentException("Unknown symbol: " + symbol);
+        }
+        PriceAlert.Condition alertCondition;
+        try {
+            alertCondition = PriceAlert.Condition.valueOf(condition.trim().toUpperCase());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid condition: " + condition);
+        }
+
+        PriceAlert alert = new PriceAlert();
+        alert.setSymbol(goldSymbol.name());
+        alert.setCondition(alertCondition);
+        if (alertCondition == PriceAlert.Condition.MOVE) {
+            if (percent == null || percent.signum() <= 0 || percent.compareTo(BigDecimal.valueOf(100)) > 0) {
+                throw new IllegalArgumentException("Percent must be between 0.01 and 100");
+            }
+            int basisPoints = percent.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValue();
+            if (basisPoints == 0) {
+                throw new IllegalArgumentException("Percent must be between 0.01 and 100");
+            }
+            if (windowMinutes == null || windowMinutes <= 0 || windowMinutes > maxWindowMinutes) {
+                throw new IllegalArgumentException("Window must be between 1 and " + maxWindowMinutes + " minutes");
+            }
+            alert.setMoveBasisPoints(basisPoints);
+            alert.setWindowMinutes(windowMinutes);
+        } else {
+            if (price == null || price.signum() <= 0) {
+                throw new IllegalArgumentException("Price must be greater than 0");
+            }
+            alert.setPrice(price);
+        }
+
+        Long walletId = walletRefCache.get(email).walletId();
+        alert.setWalletId(walletId);
+        alert.setEmail(email);
+        alert.setStatus(PriceAlert.Status.ACTIVE);
+        alert.setCreatedAt(LocalDateTime.now());
+        // Under the wallet's lock so concurrent requests cannot both slip under the limit
+        PriceAlert saved = walletTransactions.execute(walletId, status -> {
+            if (alertRepository.countByWalletIdAndStatus(walletId, PriceAlert.Status.ACTIVE) >= maxPerUser) {
+                throw new RuntimeException("At most " + maxPerUser + " alerts can be active");
+            }
+            return alertRepository.save(alert);
+        });
+        // Only after commit, so the book never holds an alert the database doesn't
+        arm(saved);
+        return saved;
+    }
+
+    public PriceAlert cancel(String email, Long alertId) {
+        PriceAlert alert = getAlert(email, alertId);
+        if (alert.getStatus() != PriceAlert.Status.ACTIVE) {
+            throw new RuntimeException("Alert is already " + alert.getStatus().name().toLowerCase());
+        }
+        // Not resting and not firing means it fell out of its book, so the database decides
+        if (!book(GoldSymbol.valueOf(alert.getSymbol())).remove(alertId) && firing.contains(alertId)) {
+            throw new RuntimeException("Alert has already fired");
+        }
+        PriceAlert current = alertRepository.findById(alertId).orElseThrow();
+        if (current.getStatus() != PriceAlert.Status.ACTIVE) {
+            throw new RuntimeException("Alert is already " + current.getStatus().name().toLowerCase());
+        }
+        current.setStatus(PriceAlert.Status.CANCELLED);
+        return alertRepository.save(current);
+    }
+
+    public PriceAlert getAlert(String email, Long alertId) {
+        Long walletId = walletRefCache.get(email).walletId();
+        return alertRepository.findById(alertId)
+                .filter(alert -> alert.getWalletId().equals(walletId))
+                .orElseThrow(() -> new RuntimeException("Alert not found"));
+    }
+
+    /**
+     * Active alerts, or with {@code all} the latest alerts in any state; newest first.
+     */
+    public List<PriceAlert> getAlerts(String email, boolean all, int limit) {
+        Long walletId = walletRefCache.get(email).walletId();
+        if (all) {
+            return alertRepository.findByWalletIdOrderByIdDesc(walletId,
+                    PageRequest.of(0, Math.max(1, Math.min(limit, MAX_ALERTS_PAGE))));
+        }
+        return alertRepository.findByWalletIdAndStatusOrderByIdDesc(walletId, PriceAlert.Status.ACTIVE);
+    }
+
+    public int getActiveAlertCount() {
+        return Arrays.stream(books).mapToInt(AlertBook::size).sum();
+    }
+
+    public long getTriggered() {
+        return triggered.sum();
+    }
+
+    @EventListener
+    public void onPriceTick(PriceTickEvent event) {
+        long start = System.nanoTime();
+        PriceSnapshot snapshot = event.getSnapshot();
+        long now = snapshot.getTimestamp();
+        samples.record(snapshot);
+        Fired fired = new Fired();
+        for (GoldSymbol symbol : GoldSymbol.values()) {
+            long price = snapshot.getPricePaise(symbol);
+            book(symbol).match(price, window -> samples.at(symbol, now - window * 60_000L),
+                    (alertId, reference) -> {
+                        firing.add(alertId);
+                        fired.add(alertId, price, reference);
+                    });
+        }
+        marketMetrics.recordAlertEvaluation(start);
+        if (fired.size > 0) {
+            triggered.add(fired.size);
+            dispatcher.execute(() -> deliver(fired));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverActiveAlerts() {
+        List<PriceAlert> active = alertRepository.findByStatus(PriceAlert.Status.ACTIVE);
+        active.forEach(this::arm);
+        if (!active.isEmpty()) {
+            log.info("Recovered {} active alert(s)", active.size());
+        }
+    }
+
+    private void arm(PriceAlert alert) {
+        AlertBook book = book(GoldSymbol.valueOf(alert.getSymbol()));
+        switch (alert.getCondition()) {
+            case ABOVE -> book.addLevel(alert.getId(), false, alert.getPrice().paise());
+            case BELOW -> book.addLevel(alert.getId(), true, alert.getPrice().paise());
+            case MOVE -> book.addMove(alert.getId(), alert.getWindowMinutes(), alert.getMoveBasisPoints());
+        }
+    }
+
+    private void deliver(Fired fired) {
+        for (int start = 0; start < fired.size; start += batchSize) {
+            int from = start;
+            int to = Math.min(fired.size, start + batchSize);
+            try {
+                List<PriceAlert> alerts = transactionTemplate.execute(status -> markTriggered(fired, from, to));
+                for (PriceAlert alert : alerts) {
+                    notificationHub.send(alert.getEmail(), toNotification(alert));
+                }
+            } catch (RuntimeException e) {
+                log.error("Could not record {} fired alert(s)", to - from, e);
+                rearm(fired, from, to);
+            } finally {
+                for (int i = from; i < to; i++) {
+                    firing.remove(fired.ids[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts the alerts of a batch that did not commit back into their books if
+     * they are still ACTIVE, so a later tick fires them again.
+     */
+    private void rearm(Fired fired, int from, int to) {
+        List<Long> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(fired.ids[i]);
+        }
+        try {
+            for (PriceAlert alert : alertRepository.findAllById(ids)) {
+                if (alert.getStatus() == PriceAlert.Status.ACTIVE) {
+                    arm(alert);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Still cancellable, and armed again on the next restart
+            log.error("Could not re-arm {} fired alert(s)", ids.size(), e);
+        }
+    }
+
+    private List<PriceAlert> markTriggered(Fired fired, int from, int to) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            positions.put(fired.ids[i], i);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<PriceAlert> alerts = new ArrayList<>();
+        for (PriceAlert alert : alertRepository.findAllById(positions.keySet())) {
+            if (alert.getStatus() != PriceAlert.Status.ACTIVE) {
+                continue;
+            }
+            int i = positions.get(alert.getId());
+            alert.setStatus(PriceAlert.Status.TRIGGERED);
+            alert.setTriggerPrice(Money.ofPaise(fired.prices[i]));
+            if (fired.references[i] > 0) {
+                alert.setReferencePrice(Money.ofPaise(fired.references[i]));
+            }
+            alert.setTriggeredAt(now);
+            alerts.add(alert);
+        }
+        return alertRepository.saveAll(alerts);
+    }
+
+    private AlertBook book(GoldSymbol symbol) {
+        return books[symbol.ordinal()];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    public static Map<String, Object> toView(PriceAlert alert) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("alertId", alert.getId());
+        view.put("symbol", alert.getSymbol());
+        view.put("condition", alert.getCondition().name());
+        view.put("price", alert.getPrice());
+        view.put("percent", alert.getMoveBasisPoints() == null ? null
+                : BigDecimal.valueOf(alert.getMoveBasisPoints(), 2));
+        view.put("windowMinutes", alert.getWindowMinutes());
+        view.put("status", alert.getStatus().name());
+        view.put("triggerPrice", alert.getTriggerPrice());
+        view.put("referencePrice", alert.getReferencePrice());
+        view.put("createdAt", alert.getCreatedAt());
+        view.put("triggeredAt", alert.getTriggeredAt());
+        return view;
+    }
+
+    private static Map<String, Object> toNotification(PriceAlert alert) {
+        Map<String, Object> notification = new LinkedHashMap<>();
+        notification.put("type", "PRICE_ALERT");
+        notification.put("message", describe(alert));
+        notification.putAll(toView(alert));
+        return notification;
+    }
+
+    private static String describe(PriceAlert alert) {
+        Money now = alert.getTriggerPrice();
+        return switch (alert.getCondition()) {
+            case ABOVE -> String.format(Locale.ROOT, "%s is at ₹%s, at or above your alert at ₹%s",
+                    alert.getSymbol(), now, alert.getPrice());
+            case BELOW -> String.format(Locale.ROOT, "%s is at ₹%s, at or below your alert at ₹%s",
+                    alert.getSymbol(), now, alert.getPrice());
+            case MOVE -> {
+                Money from = alert.getReferencePrice();
+                yield String.format(Locale.ROOT, "%s moved %+.2f%% in %d minutes, from ₹%s to ₹%s",
+                        alert.getSymbol(), (now.toDouble() - from.toDouble()) / from.toDouble() * 100,
+                        alert.getWindowMinutes(), from, now);
+            }
+        };
+    }
+
+    // Alerts fired by one tick, handed to the dispatcher in one piece
+    private static final class Fired {
+        // Empty until something fires, which is most ticks
+        long[] ids = new long[0];
+        long[] prices = new long[0];
+        long[] references = new long[0];
+        int size;
+
+        void add(long id, long price, long reference) {
+            if (size == ids.length) {
+                int capacity = Math.max(16, size * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                references = Arrays.copyOf(references, capacity);
+            }
+            ids[size] = id;
+            prices[size] = price;
+            references[size] = reference;
+            size++;
+        }
+    }
+}
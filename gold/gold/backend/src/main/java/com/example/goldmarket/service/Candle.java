@@ -0,0 +1,8 @@
+package com.example.goldmarket.service;
+
+/**
+ * One OHLC bar. {@code time} is the bar's open time in epoch millis and
+ * {@code ticks} the number of price ticks aggregated into it.
+ */
+public record Candle(long time, double open, double high, double low, double close, int ticks) {
+}
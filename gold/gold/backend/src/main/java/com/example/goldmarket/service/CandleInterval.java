@@ -0,0 +1,43 @@
+package com.example.goldmarket.service;
+
+/**
+ * Candle widths kept by {@link TickStore}, with how many candles of each are
+ * retained in memory.
+ */
+public enum CandleInterval {
+    SECOND_1("1s", 1_000L, 3_600),      // last hour
+    MINUTE_1("1m", 60_000L, 1_440),     // last day
+    MINUTE_5("5m", 300_000L, 2_016),    // last week
+    HOUR_1("1h", 3_600_000L, 2_160);    // last 90 days
+
+    private final String label;
+    private final long millis;
+    private final int capacity;
+
+    CandleInterval(String label, long millis, int capacity) {
+        this.label = label;
+        this.millis = millis;
+        this.capacity = capacity;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public static CandleInterval find(String label) {
+        for (CandleInterval interval : values()) {
+            if (interval.label.equalsIgnoreCase(label)) {
+                return interval;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.goldmarket.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * OHLC candles of one width for one symbol, aggregated incrementally as ticks
+ * arrive and kept in a fixed-capacity ring of primitive arrays. Buckets with no
+ * ticks produce no candle. One writer (the tick thread), many readers.
+ */
+class CandleSeries {
+
+    private final long width;
+    private final long[] openTimes;
+    private final double[] opens;
+    private final double[] highs;
+    private final double[] lows;
+    private final double[] closes;
+    private final int[] ticks;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int head; // next slot to write
+    private int size;
+
+    CandleSeries(long width, int capacity) {
+        this.width = width;
+        this.openTimes = new long[capacity];
+        this.opens = new double[capacity];
+        this.highs = new double[capacity];
+        this.lows = new double[capacity];
+        this.closes = new double[capacity];
+        this.ticks = new int[capacity];
+    }
+
+    void update(long timestamp, double price) {
+        long bucket = timestamp - Math.floorMod(timestamp, width);
+        lock.writeLock().lock();
+        try {
+            if (size > 0) {
+                int last = slot(size - 1);
+                if (openTimes[last] == bucket) {
+                    if (price > highs[last]) {
+                        highs[last] = price;
+                    }
+                    if (price < lows[last]) {
+                        lows[last] = price;
+                    }
+                    closes[last] = price;
+                    ticks[last]++;
+                    return;
+                }
+                if (bucket < openTimes[last]) {
+                    return; // late tick for a closed candle
+                }
+            }
+            openTimes[head] = bucket;
+            opens[head] = price;
+            highs[head] = price;
+            lows[head] = price;
+            closes[head] = price;
+            ticks[head] = 1;
+            head = (head + 1) % openTimes.length;
+            if (size < openTimes.length) {
+                size++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Candles whose open time falls in {@code [from, to)}, oldest first.
+     */
+    List<Candle> range(long from, long to) {
+        lock.readLock().lock();
+        try {
+            int first = lowerBound(from - Math.floorMod(from, width));
+            int last = lowerBound(to);
+            List<Candle> candles = new ArrayList<>(Math.max(0, last - first));
+            for (int i = first; i < last; i++) {
+                int slot = slot(i);
+                candles.add(new Candle(openTimes[slot], opens[slot], highs[slot], lows[slot], closes[slot],
+                        ticks[slot]));
+            }
+            return candles;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Logical index 0 is the oldest retained candle
+    private int slot(int index) {
+        return (head - size + index + openTimes.length) % openTimes.length;
+    }
+
+    // First logical index whose open time is >= value
+    private int lowerBound(long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (openTimes[slot(mid)] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
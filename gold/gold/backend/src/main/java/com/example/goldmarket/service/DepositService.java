@@ -0,0 +1,169 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.model.Deposit;
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.Wallet;
+import com.example.goldmarket.repository.DepositRepository;
+import com.example.goldmarket.repository.WalletRepository;
+import com.example.goldmarket.service.journal.JournalEntry;
+import com.example.goldmarket.service.journal.WalletJournal;
+import com.example.goldmarket.service.payment.PaymentGateway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Deposits are accepted immediately and settled later: {@link #submit} records
+ * a pending deposit and hands it to the {@link PaymentGateway}, and the wallet
+ * is credited from the gateway's callback. Settling is idempotent, so a
+ * duplicate or replayed callback can never credit a deposit twice.
+ */
+@Service
+public class DepositService {
+
+    private static final Logger log = LoggerFactory.getLogger(DepositService.class);
+
+    private final DepositRepository depositRepository;
+    private final WalletRepository walletRepository;
+    private final WalletTransactions walletTransactions;
+    private final WalletJournal walletJournal;
+    private final WalletRefCache walletRefCache;
+    private final PaymentGateway paymentGateway;
+    private final NotificationHub notificationHub;
+    private final MarketMetrics marketMetrics;
+
+    public DepositService(DepositRepository depositRepository, WalletRepository walletRepository,
+            WalletTransactions walletTransactions, WalletJournal walletJournal, WalletRefCache walletRefCache,
+            PaymentGateway paymentGateway, NotificationHub notificationHub, MarketMetrics marketMetrics) {
+        this.depositRepository = depositRepository;
+        this.walletRepository = walletRepository;
+        this.walletTransactions = walletTransactions;
+        this.walletJournal = walletJournal;
+        this.walletRefCache = walletRefCache;
+        this.paymentGateway = paymentGateway;
+        this.notificationHub = notificationHub;
+        this.marketMetrics = marketMetrics;
+    }
+
+    public Deposit submit(String email, Money amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than 0");
+        }
+        Deposit deposit = new Deposit();
+        deposit.setWalletId(walletRefCache.get(email).walletId());
+        deposit.setAmount(amount);
+        deposit.setStatus(Deposit.Status.PENDING);
+        deposit.setCreatedAt(LocalDateTime.now());
+        deposit = depositRepository.save(deposit);
+        charge(deposit, email);
+        return deposit;
+    }
+
+    public Deposit getDeposit(String email, Long depositId) {
+        Long walletId = walletRefCache.get(email).walletId();
+        return depositRepository.findById(depositId)
+                .filter(deposit -> deposit.getWalletId().equals(walletId))
+                .orElseThrow(() -> new RuntimeException("Deposit not found"));
+    }
+
+    /**
+     * Re-submits deposits that were still pending when the application last
+     * stopped; the gateway recognises a repeated charge for the same deposit.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        for (Deposit deposit : depositRepository.findByStatus(Deposit.Status.PENDING)) {
+            walletRepository.findById(deposit.getWalletId())
+                    .ifPresent(wallet -> charge(deposit, wallet.getUser().getEmail()));
+        }
+    }
+
+    private void charge(Deposit deposit, String email) {
+        Long depositId = deposit.getId();
+        long start = System.nanoTime();
+        paymentGateway.charge(depositId, deposit.getAmount()).whenComplete((reference, error) -> {
+            Deposit result;
+            try {
+                result = error == null ? settle(depositId, reference) : fail(depositId, error.toString());
+            } catch (RuntimeException e) {
+                // Stays PENDING and is picked up again by resumePending()
+                log.error("Could not settle deposit {}", depositId, e);
+                return;
+            }
+            marketMetrics.recordDeposit(result.getStatus() == Deposit.Status.SETTLED, start);
+            try {
+                notificationHub.send(email, toNotification(result));
+            } catch (RuntimeException e) {
+                // Settled either way; the user sees it the next time they fetch it
+                log.warn("Could not notify {} about deposit {}", email, depositId, e);
+            }
+        });
+    }
+
+    /**
+     * Credits the wallet and marks the deposit settled, unless it already left
+     * {@code PENDING}. Runs under the wallet's lock, so two callbacks for the
+     * same deposit cannot both see it pending.
+     */
+    Deposit settle(Long depositId, String reference) {
+        Deposit deposit = depositRepository.findById(depositId)
+                .orElseThrow(() -> new RuntimeException("Deposit not found"));
+        return walletTransactions.execute(deposit.getWalletId(), status -> {
+            Deposit current = depositRepository.findById(depositId).orElseThrow();
+            if (current.getStatus() != Deposit.Status.PENDING) {
+                return current;
+            }
+            Wallet wallet = walletRepository.findById(current.getWalletId())
+                    .orElseThrow(() -> new RuntimeException("Wallet not found"));
+            wallet.setBalance(wallet.getBalance().plus(current.getAmount()));
+            walletRepository.save(wallet);
+            walletJournal.record(wallet.getId(), JournalEntry.Type.DEPOSIT, current.getAmount().paise(), 0,
+                    depositId);
+            current.setStatus(Deposit.Status.SETTLED);
+            current.setGatewayReference(reference);
+            current.setSettledAt(LocalDateTime.now());
+            return depositRepository.save(current);
+        });
+    }
+
+    Deposit fail(Long depositId, String reason) {
+        Deposit deposit = depositRepository.findById(depositId)
+                .orElseThrow(() -> new RuntimeException("Deposit not found"));
+        return walletTransactions.execute(deposit.getWalletId(), status -> {
+            Deposit current = depositRepository.findById(depositId).orElseThrow();
+            if (current.getStatus() != Deposit.Status.PENDING) {
+                return current;
+            }
+            log.warn("Deposit {} declined by {} gateway: {}", depositId, paymentGateway.getName(), reason);
+            current.setStatus(Deposit.Status.FAILED);
+            current.setFailureReason(reason);
+            current.setSettledAt(LocalDateTime.now());
+            return depositRepository.save(current);
+        });
+    }
+
+    public static Map<String, Object> toView(Deposit deposit) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("depositId", deposit.getId());
+        view.put("amount", deposit.getAmount());
+        view.put("status", deposit.getStatus().name());
+        view.put("createdAt", deposit.getCreatedAt());
+        view.put("settledAt", deposit.getSettledAt());
+        view.put("transactionId", deposit.getGatewayReference());
+        view.put("failureReason", deposit.getFailureReason());
+        return view;
+    }
+
+    private static Map<String, Object> toNotification(Deposit deposit) {
+        Map<String, Object> notification = new LinkedHashMap<>();
+        notification.put("type", "DEPOSIT");
+        notification.putAll(toView(deposit));
+        return notification;
+    }
+}
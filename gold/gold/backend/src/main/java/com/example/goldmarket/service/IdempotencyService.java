@@ -0,0 +1,278 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.config.ThreadFactories;
+import com.example.goldmarket.model.IdempotencyRecord;
+import com.example.goldmarket.repository.IdempotencyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Makes retried requests safe: a request carrying an {@code Idempotency-Key}
+ * runs at most once per wallet, and every repeat gets the first response back.
+ * <p>
+ * Outcomes are kept in a bounded in-memory map for
+ * {@code idempotency.ttl-hours}, so a retry is answered without touching the
+ * database. The key is also claimed in the {@code idempotency_keys} table
+ * before the request runs; its unique constraint catches repeats after a
+ * restart. A request that fails with a server error releases its key so it
+ * can be retried. A request that was still running when the process died
+ * keeps its claim, and repeats get 409 rather than risk running twice.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService completer;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Insertion order is age order, so expiry only ever looks at the head
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyService(IdempotencyRepository repository, ObjectMapper objectMapper,
+            ThreadFactories threadFactories,
+            @Value("${idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${idempotency.cache-size:100000}") int maxEntries) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttlMillis = TimeUnit.HOURS.toMillis(ttlHours);
+        this.maxEntries = maxEntries;
+        this.completer = Executors.newFixedThreadPool(2, threadFactories.named("idempotency"));
+    }
+
+    /**
+     * Runs {@code action} unless this wallet already used {@code key}. Without
+     * a key the action simply runs.
+     *
+     * @param endpoint short name of the operation, e.g. {@code trade}
+     * @param request  the request parameters; a key reused with different
+     *                 parameters is rejected with 422
+     */
+    public CompletableFuture<ResponseEntity<?>> execute(Long walletId, String key, String endpoint, String request,
+            Supplier<CompletableFuture<ResponseEntity<?>>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return CompletableFuture.completedFuture(error(HttpStatus.BAD_REQUEST,
+                    HEADER + " must be at most " + MAX_KEY_LENGTH + " characters"));
+        }
+        String cacheKey = walletId + ":" + key;
+        String requestHash = sha256(endpoint + "\n" + request);
+
+        Entry existing;
+        lock.lock();
+        try {
+            evictExpired(System.currentTimeMillis());
+            existing = entries.get(cacheKey);
+            if (existing == null) {
+                entries.put(cacheKey, Entry.inFlight(endpoint, requestHash));
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (existing != null) {
+            return CompletableFuture.completedFuture(respond(existing, endpoint, requestHash));
+        }
+
+        Long recordId;
+        try {
+            recordId = claim(walletId, key, endpoint, requestHash);
+        } catch (DataIntegrityViolationException e) {
+            // Claimed before a restart; the database has the outcome, if there is one
+            return CompletableFuture.completedFuture(fromDatabase(cacheKey, walletId, key, endpoint, requestHash));
+        } catch (RuntimeException e) {
+            forget(cacheKey);
+            throw e;
+        }
+
+        CompletableFuture<ResponseEntity<?>> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.handleAsync((response, error) -> {
+            if (error != null || response.getStatusCode().is5xxServerError()) {
+                release(cacheKey, recordId);
+                if (error != null) {
+                    throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                }
+                return response;
+            }
+            String body = serialize(response.getBody());
+            repository.complete(recordId, response.getStatusCode().value(), body);
+            remember(cacheKey, Entry.completed(endpoint, requestHash, response.getStatusCode().value(), body));
+            return response;
+        }, completer);
+    }
+
+    private Long claim(Long walletId, String key, String endpoint, String requestHash) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setWalletId(walletId);
+        record.setIdempotencyKey(key);
+        record.setEndpoint(endpoint);
+        record.setRequestHash(requestHash);
+        record.setCreatedAt(LocalDateTime.now());
+        return repository.saveAndFlush(record).getId();
+    }
+
+    private ResponseEntity<?> fromDatabase(String cacheKey, Long walletId, String key, String endpoint,
+            String requestHash) {
+        Optional<IdempotencyRecord> stored = repository.findByWalletIdAndIdempotencyKey(walletId, key);
+        if (stored.isEmpty() || stored.get().getStatusCode() == null) {
+            forget(cacheKey);
+            return error(HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress");
+        }
+        IdempotencyRecord record = stored.get();
+        Entry entry = Entry.completed(record.getEndpoint(), record.getRequestHash(), record.getStatusCode(),
+                record.getResponseBody());
+        remember(cacheKey, entry);
+        return respond(entry, endpoint, requestHash);
+    }
+
+    private static ResponseEntity<?> respond(Entry entry, String endpoint, String requestHash) {
+        if (!entry.endpoint.equals(endpoint) || !entry.requestHash.equals(requestHash)) {
+            return error(HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used for a different request");
+        }
+        if (entry.status == 0) {
+            return error(HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress");
+        }
+        return ResponseEntity.status(entry.status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotent-Replayed", "true")
+                .body(entry.body);
+    }
+
+    private void release(String cacheKey, Long recordId) {
+        try {
+            repository.deleteById(recordId);
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key {}: {}", cacheKey, e.toString());
+        }
+        forget(cacheKey);
+    }
+
+    private void remember(String cacheKey, Entry entry) {
+        lock.lock();
+        try {
+            // Re-inserting keeps the age order: the entry moves to the tail with its new timestamp
+            entries.remove(cacheKey);
+            entries.put(cacheKey, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void forget(String cacheKey) {
+        lock.lock();
+        try {
+            entries.remove(cacheKey);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private void evictExpired(long now) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry eldest = it.next();
+            if (entries.size() <= maxEntries && now - eldest.createdAt < ttlMillis) {
+                break;
+            }
+            it.remove();
+        }
+    }
+
+    /**
+     * Drops stored outcomes that are past the dedupe window.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = repository.deleteCreatedBefore(LocalDateTime.now().minusNanos(
+                TimeUnit.MILLISECONDS.toNanos(ttlMillis)));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    public int getCachedKeyCount() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        completer.shutdown();
+    }
+
+    private String serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store response for replay", e);
+        }
+    }
+
+    private static ResponseEntity<?> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Map.of("error", message));
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(String endpoint, String requestHash, int status, String body, long createdAt) {
+
+        static Entry inFlight(String endpoint, String requestHash) {
+            return new Entry(endpoint, requestHash, 0, null, System.currentTimeMillis());
+        }
+
+        static Entry completed(String endpoint, String requestHash, int status, String body) {
+            return new Entry(endpoint, requestHash, status, body, System.currentTimeMillis());
+        }
+    }
+}
@@ -1,90 +1,115 @@
 package com.example.goldmarket.service;
 
-import org.springframework.scheduling.annotation.Scheduled;
+import com.example.goldmarket.model.GoldSymbol;
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.service.feed.PriceFeed;
+import com.example.goldmarket.service.feed.PriceQuote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class LivePriceService {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private static final Logger log = LoggerFactory.getLogger(LivePriceService.class);
 
-    // Current India gold prices per gram (as of user's data)
-    private BigDecimal gold24K = new BigDecimal("12426.00"); // ₹12,426 per gram for 24K
-    private BigDecimal gold22K = new BigDecimal("11390.00"); // ₹11,390 per gram for 22K
-    private BigDecimal gold18K = new BigDecimal("9319.00"); // ₹9,319 per gram for 18K
+    private final PriceFeed priceFeed;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long fetchTimeoutMillis;
+    private final AtomicBoolean fetchInFlight = new AtomicBoolean();
 
-    private final Random random = new Random();
+    // Current India gold prices per gram (as of user's data), replaced wholesale on every tick
+    private volatile PriceSnapshot snapshot = new PriceSnapshot(0, System.currentTimeMillis(),
+            Money.ofPaise(12426_00), // ₹12,426 per gram for 24K
+            Money.ofPaise(11390_00), // ₹11,390 per gram for 22K
+            Money.ofPaise(9319_00)); // ₹9,319 per gram for 18K
 
-    public LivePriceService() {
-        updatePrices(); // Initial fetch
+    public LivePriceService(PriceFeed priceFeed, ApplicationEventPublisher eventPublisher,
+            @Value("${market.feed.timeout-ms:2000}") long fetchTimeoutMillis) {
+        this.priceFeed = priceFeed;
+        this.eventPublisher = eventPublisher;
+        this.fetchTimeoutMillis = fetchTimeoutMillis;
     }
 
     /**
-     * Fetch live prices every 10 seconds for real-time updates
+     * Fetch live prices; called by {@link PriceTickScheduler} on every tick.
+     * <p>
+     * Never blocks: the feed completes the fetch on its own thread and the new
+     * snapshot is published from there. If the previous fetch is still running
+     * the tick is skipped, and a failed or timed out fetch keeps the last good
+     * prices.
+     *
+     * @return {@code false} if the tick was skipped because the feed was busy
      */
-    @Scheduled(fixedRate = 10000)
-    public void updatePrices() {
-        // Simulate realistic price movements for India gold
-        simulatePriceMovement();
-        System.out.println("Updated India Gold Prices - 24K: ₹" + gold24K + "/gram, 22K: ₹" + gold22K + "/gram, 18K: ₹"
-                + gold18K + "/gram");
+    public boolean updatePrices() {
+        if (!fetchInFlight.compareAndSet(false, true)) {
+            log.debug("Price fetch from {} still in flight, skipping tick", priceFeed.getName());
+            return false;
+        }
+        PriceSnapshot previous = snapshot;
+        CompletableFuture<PriceQuote> fetch;
+        try {
+            fetch = priceFeed.fetch(toQuote(previous));
+        } catch (RuntimeException e) {
+            fetchInFlight.set(false);
+            log.warn("Price feed {} failed, keeping last good prices: {}", priceFeed.getName(), e.toString());
+            return true;
+        }
+        fetch.orTimeout(fetchTimeoutMillis, TimeUnit.MILLISECONDS).whenComplete((quote, error) -> {
+            try {
+                if (error != null || quote == null) {
+                    log.warn("Price feed {} failed, keeping last good prices: {}", priceFeed.getName(),
+                            error != null ? error.toString() : "no quote");
+                    return;
+                }
+                publish(previous, quote);
+            } finally {
+                fetchInFlight.set(false);
+            }
+        });
+        return true;
     }
 
-    private void simulatePriceMovement() {
-        // Simulate realistic price movement for India gold prices
-        double changePercent = (random.nextDouble() - 0.5) * 0.002; // +/- 0.1%
-
-        // Update 24K gold
-        BigDecimal change24K = gold24K.multiply(BigDecimal.valueOf(changePercent));
-        gold24K = gold24K.add(change24K).setScale(2, RoundingMode.HALF_UP);
-
-        // 22K is approximately 91.67% of 24K
-        gold22K = gold24K.multiply(new BigDecimal("0.9167")).setScale(2, RoundingMode.HALF_UP);
-
-        // 18K is approximately 75% of 24K
-        gold18K = gold24K.multiply(new BigDecimal("0.75")).setScale(2, RoundingMode.HALF_UP);
+    private void publish(PriceSnapshot previous, PriceQuote quote) {
+        PriceSnapshot next = new PriceSnapshot(previous.getSequence() + 1, System.currentTimeMillis(),
+                quote.gold24K(), quote.gold22K(), quote.gold18K());
+        snapshot = next;
+        log.debug("Updated India gold prices - 24K: ₹{}/gram, 22K: ₹{}/gram, 18K: ₹{}/gram", quote.gold24K(),
+                quote.gold22K(), quote.gold18K());
+        // Publish once per tick; subscribers share the event instead of polling
+        eventPublisher.publishEvent(new PriceTickEvent(next));
+    }
 
-        // Keep prices within realistic bounds
-        if (gold24K.compareTo(new BigDecimal("13500")) > 0) {
-            gold24K = new BigDecimal("13400.00");
-        } else if (gold24K.compareTo(new BigDecimal("11500")) < 0) {
-            gold24K = new BigDecimal("11600.00");
-        }
+    private static PriceQuote toQuote(PriceSnapshot snapshot) {
+        return new PriceQuote(snapshot.getPrice(GoldSymbol.GOLD_24K), snapshot.getPrice(GoldSymbol.GOLD_22K),
+                snapshot.getPrice(GoldSymbol.GOLD_18K));
+    }
 
-        // Recalculate 22K and 18K based on adjusted 24K
-        gold22K = gold24K.multiply(new BigDecimal("0.9167")).setScale(2, RoundingMode.HALF_UP);
-        gold18K = gold24K.multiply(new BigDecimal("0.75")).setScale(2, RoundingMode.HALF_UP);
+    /**
+     * The most recent consistent set of prices.
+     */
+    public PriceSnapshot getSnapshot() {
+        return snapshot;
     }
 
-    public Map<String, Double> getLatestPrices() {
-        Map<String, Double> prices = new HashMap<>();
-        prices.put("GOLD", gold24K.doubleValue()); // Default to 24K
-        prices.put("GOLD_24K", gold24K.doubleValue());
-        prices.put("GOLD_22K", gold22K.doubleValue());
-        prices.put("GOLD_18K", gold18K.doubleValue());
-        return prices;
+    public Map<String, Money> getLatestPrices() {
+        return snapshot.asMap();
     }
 
-    public BigDecimal getPrice(String symbol) {
-        if ("GOLD".equalsIgnoreCase(symbol) || "GOLD_24K".equalsIgnoreCase(symbol)) {
-            return gold24K;
-        } else if ("GOLD_22K".equalsIgnoreCase(symbol)) {
-            return gold22K;
-        } else if ("GOLD_18K".equalsIgnoreCase(symbol)) {
-            return gold18K;
-        }
-        return BigDecimal.ZERO;
+    public Money getPrice(String symbol) {
+        GoldSymbol goldSymbol = GoldSymbol.find(symbol);
+        return goldSymbol != null ? snapshot.getPrice(goldSymbol) : Money.ZERO;
     }
 
     // Alias method for compatibility
-    public Map<String, Double> getCurrentPrices() {
+    public Map<String, Money> getCurrentPrices() {
         return getLatestPrices();
     }
 }
@@ -0,0 +1,100 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.model.GoldSymbol;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters recorded on the trade, deposit and price-alert paths. Every tagged combination is
+ * registered up front and looked up by index, so recording is a plain
+ * {@code Timer.record(nanos)} or {@code Counter.increment()} with no tag or
+ * {@code Sample} allocation per call.
+ */
+@Component
+public class MarketMetrics {
+
+    public static final String INSUFFICIENT_FUNDS = "Insufficient funds";
+
+    /**
+     * Where an insufficient-funds rejection came from.
+     */
+    public enum FundsSource {
+        TRADE, ORDER_PLACE, ORDER_FILL, SIP
+    }
+
+    private static final String[] SIDES = { "BUY", "SELL" };
+
+    // [side][symbol][0 = success, 1 = rejected]
+    private final Timer[][][] trades = new Timer[SIDES.length][GoldSymbol.values().length][2];
+    private final Counter[] insufficientFunds = new Counter[FundsSource.values().length];
+    private final Timer depositsSettled;
+    private final Timer depositsFailed;
+    private final Timer alertEvaluation;
+
+    public MarketMetrics(MeterRegistry registry) {
+        for (int side = 0; side < SIDES.length; side++) {
+            for (GoldSymbol symbol : GoldSymbol.values()) {
+                for (int outcome = 0; outcome < 2; outcome++) {
+                    trades[side][symbol.ordinal()][outcome] = Timer.builder("trade.execution")
+                            .description("Market trades from request to committed settlement")
+                            .tag("side", SIDES[side])
+                            .tag("symbol", symbol.name())
+                            .tag("outcome", outcome == 0 ? "success" : "rejected")
+                            .publishPercentiles(0.5, 0.9, 0.99)
+                            .publishPercentileHistogram()
+                            .register(registry);
+                }
+            }
+        }
+        for (FundsSource source : FundsSource.values()) {
+            insufficientFunds[source.ordinal()] = Counter.builder("wallet.insufficient.funds")
+                    .description("Trades, orders and SIP runs rejected for lack of cash")
+                    .tag("source", source.name().toLowerCase())
+                    .register(registry);
+        }
+        depositsSettled = depositTimer(registry, "settled");
+        depositsFailed = depositTimer(registry, "failed");
+        alertEvaluation = Timer.builder("alerts.evaluation")
+                .description("Time each price tick spends matching price alerts")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Timer depositTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("deposit.settlement")
+                .description("Deposits from submission until the gateway settles or declines them")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Records a market trade that started at {@code startNanos}; unknown sides
+     * are not timed.
+     */
+    public void recordTrade(String side, GoldSymbol symbol, boolean success, long startNanos) {
+        int sideIndex = "BUY".equalsIgnoreCase(side) ? 0 : "SELL".equalsIgnoreCase(side) ? 1 : -1;
+        if (sideIndex >= 0) {
+            trades[sideIndex][symbol.ordinal()][success ? 0 : 1].record(System.nanoTime() - startNanos,
+                    TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordInsufficientFunds(FundsSource source) {
+        insufficientFunds[source.ordinal()].increment();
+    }
+
+    public void recordDeposit(boolean settled, long startNanos) {
+        (settled ? depositsSettled : depositsFailed).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAlertEvaluation(long startNanos) {
+        alertEvaluation.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
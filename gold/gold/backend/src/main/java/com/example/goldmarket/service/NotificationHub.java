@@ -0,0 +1,116 @@
+package com.example.goldmarket.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes per-user events (deposit settled, and so on) to WebSocket
+ * subscribers on {@code /ws/notifications}. Sessions are keyed by the email
+ * of the logged-in user; a user with no open socket simply misses the push
+ * and sees the result the next time they fetch it.
+ */
+@Component
+public class NotificationHub extends TextWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationHub.class);
+
+    private static final int SEND_TIME_LIMIT_MS = 5000;
+    private static final int BUFFER_SIZE_LIMIT = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Set<WebSocketSession>> sessions = new ConcurrentHashMap<>();
+
+    public NotificationHub(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Sends {@code payload} as JSON to every open socket of the user. Never
+     * blocks on a slow client beyond the decorator's send limits, and never
+     * throws: a socket that fails, or is over those limits, is dropped and the
+     * rest still get the push.
+     */
+    public void send(String email, Map<String, Object> payload) {
+        Set<WebSocketSession> userSessions = sessions.get(email);
+        if (userSessions == null || userSessions.isEmpty()) {
+            return;
+        }
+        TextMessage message;
+        try {
+            message = new TextMessage(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize notification for {}", email, e);
+            return;
+        }
+        for (WebSocketSession session : userSessions) {
+            try {
+                session.sendMessage(message);
+            } catch (IOException | RuntimeException e) {
+                // Includes the decorator's SessionLimitExceededException for a slow client
+                log.debug("Dropping notification subscriber {}: {}", session.getId(), e.getMessage());
+                remove(email, session);
+            }
+        }
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        String email = emailOf(session);
+        if (email == null) {
+            session.close(CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+        session.getAttributes().put("email", email);
+        sessions.computeIfAbsent(email, k -> ConcurrentHashMap.newKeySet())
+                .add(new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, BUFFER_SIZE_LIMIT));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        remove((String) session.getAttributes().get("email"), session);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        remove((String) session.getAttributes().get("email"), session);
+    }
+
+    public int getSubscriberCount() {
+        return sessions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void remove(String email, WebSocketSession session) {
+        if (email == null) {
+            return;
+        }
+        sessions.computeIfPresent(email, (k, userSessions) -> {
+            userSessions.removeIf(s -> s.getId().equals(session.getId()));
+            return userSessions.isEmpty() ? null : userSessions;
+        });
+    }
+
+    private static String emailOf(WebSocketSession session) {
+        Principal principal = session.getPrincipal();
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof OAuth2User user) {
+            return user.getAttribute("email");
+        }
+        return null;
+    }
+}
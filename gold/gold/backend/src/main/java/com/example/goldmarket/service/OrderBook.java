@@ -0,0 +1,79 @@
+package com.example.goldmarket.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Resting orders for one symbol, indexed by trigger level in paise.
+ * <p>
+ * Orders that trigger when the price falls to their level are due once
+ * {@code level >= price}; those that trigger when it rises are due once
+ * {@code level <= price}, which is stored as {@code -level >= -price}. Both
+ * are suffixes of a {@link PriceLevelIndex}, so a tick only touches the orders
+ * it triggers.
+ */
+class OrderBook {
+
+    private final PriceLevelIndex onFall = new PriceLevelIndex();
+    private final PriceLevelIndex onRise = new PriceLevelIndex();
+    // Order id to its index key; the sign tells which index holds it
+    private final Map<Long, Long> keys = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    void add(long orderId, boolean triggersOnFall, long levelPaise) {
+        long key = triggersOnFall ? levelPaise : -levelPaise;
+        lock.lock();
+        try {
+            if (keys.putIfAbsent(orderId, key) == null) {
+                (key >= 0 ? onFall : onRise).add(key, orderId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return {@code false} if the order is no longer resting, i.e. it has
+     *         already been handed out for filling
+     */
+    boolean remove(long orderId) {
+        lock.lock();
+        try {
+            Long key = keys.remove(orderId);
+            return key != null && (key >= 0 ? onFall : onRise).remove(key, orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every order triggered at {@code pricePaise} and passes its id to
+     * {@code sink}.
+     */
+    int match(long pricePaise, LongConsumer sink) {
+        lock.lock();
+        try {
+            if (keys.isEmpty()) {
+                return 0;
+            }
+            LongConsumer removing = orderId -> {
+                keys.remove(orderId);
+                sink.accept(orderId);
+            };
+            return onFall.drainFrom(pricePaise, removing) + onRise.drainFrom(-pricePaise, removing);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return keys.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.config.ThreadFactories;
+import com.example.goldmarket.model.GoldSymbol;
+import com.example.goldmarket.model.Holding;
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.Order;
+import com.example.goldmarket.model.Transaction;
+import com.example.goldmarket.model.Wallet;
+import com.example.goldmarket.model.Weight;
+import com.example.goldmarket.repository.HoldingRepository;
+import com.example.goldmarket.repository.OrderRepository;
+import com.example.goldmarket.repository.TransactionRepository;
+import com.example.goldmarket.repository.WalletRepository;
+import com.example.goldmarket.service.journal.JournalEntry;
+import com.example.goldmarket.service.journal.WalletJournal;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Limit and stop orders.
+ * <p>
+ * Placing an order moves its funds (BUY) or grams (SELL) from available to
+ * reserved and adds it to the in-memory {@link OrderBook} for its symbol. On
+ * every price tick each book hands out only the orders that the new price
+ * triggers, and those are filled at the tick price on the order-fill thread,
+ * off the tick thread. An order whose fill fails goes back into its book, to
+ * be tried again on a later tick. Open orders are read back into the books on
+ * startup.
+ * <p>
+ * A BUY reserves, and is charged, its value rounded up to the paisa; a SELL is
+ * credited its proceeds rounded down.
+ */
+@Service
+public class OrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
+    private static final int MAX_ORDERS_PAGE = 200;
+
+    private final OrderRepository orderRepository;
+    private final WalletRepository walletRepository;
+    private final HoldingRepository holdingRepository;
+    private final TransactionRepository transactionRepository;
+    private final WalletTransactions walletTransactions;
+    private final WalletJournal walletJournal;
+    private final WalletRefCache walletRefCache;
+    private final MarketMetrics marketMetrics;
+    private final OrderBook[] books = new OrderBook[GoldSymbol.values().length];
+    // Orders handed out by a book and not yet through fillQuietly
+    private final Set<Long> filling = ConcurrentHashMap.newKeySet();
+    private final ExecutorService filler;
+
+    public OrderService(OrderRepository orderRepository, WalletRepository walletRepository,
+            HoldingRepository holdingRepository, TransactionRepository transactionRepository,
+            WalletTransactions walletTransactions, WalletJournal walletJournal, WalletRefCache walletRefCache,
+            MarketMetrics marketMetrics, ThreadFactories threadFactories) {
+        this.orderRepository = orderRepository;
+        this.walletRepository = walletRepository;
+        this.holdingRepository = holdingRepository;
+        this.transactionRepository = transactionRepository;
+        this.walletTransactions = walletTransactions;
+        this.walletJournal = walletJournal;
+        this.walletRefCache = walletRefCache;
+        this.marketMetrics = marketMetrics;
+        for (GoldSymbol symbol : GoldSymbol.values()) {
+            books[symbol.ordinal()] = new OrderBook();
+        }
+        this.filler = Executors.newSingleThreadExecutor(threadFactories.named("order-fill"));
+    }
+
+    public Order place(String email, String side, String type, String symbol, Weight quantity, Money price) {
+        GoldSymbol goldSymbol = GoldSymbol.find(symbol);
+        if (goldSymbol == null) {
+            throw new IllegalArgumentException("Unknown symbol: " + symbol);
+        }
+        if (quantity == null || quantity.signum() <= 0) {
+            throw new IllegalArgumentException("Quantity must be at least 0.001 grams");
+        }
+        if (price == null || price.signum() <= 0) {
+            throw new IllegalArgumentException("Price must be greater than 0");
+        }
+        Order.Side orderSide = parse(Order.Side.class, side, "side");
+        Order.Type orderType = parse(Order.Type.class, type, "order type");
+
+        Long walletId = walletRefCache.get(email).walletId();
+        // Built inside the callback so a retried transaction starts from a fresh entity
+        Order saved = walletTransactions.execute(walletId,
+                status -> reserve(newOrder(walletId, orderSide, orderType, goldSymbol, quantity, price)));
+        // Only after commit, so the book never holds an order the database doesn't
+        book(goldSymbol).add(saved.getId(), saved.triggersOnFall(), saved.getPrice().paise());
+        return saved;
+    }
+
+    private static Order newOrder(Long walletId, Order.Side side, Order.Type type, GoldSymbol symbol,
+            Weight quantity, Money price) {
+        Order order = new Order();
+        order.setWalletId(walletId);
+        order.setSide(side);
+        order.setType(type);
+        order.setSymbol(symbol.name());
+        order.setQuantity(quantity);
+        order.setPrice(price);
+        order.setStatus(Order.Status.OPEN);
+        order.setCreatedAt(LocalDateTime.now());
+        return order;
+    }
+
+    private Order reserve(Order order) {
+        if (order.getSide() == Order.Side.BUY) {
+            Wallet wallet = walletRepository.findById(order.getWalletId())
+                    .orElseThrow(() -> new RuntimeException("Wallet not found"));
+            Money reserve = order.getPrice().times(order.getQuantity(), RoundingMode.UP);
+            if (wallet.getBalance().isLessThan(reserve)) {
+                marketMetrics.recordInsufficientFunds(MarketMetrics.FundsSource.ORDER_PLACE);
+                throw new RuntimeException(MarketMetrics.INSUFFICIENT_FUNDS);
+            }
+            wallet.setBalance(wallet.getBalance().minus(reserve));
+            wallet.setReservedBalance(wallet.getReservedBalance().plus(reserve));
+            walletRepository.save(wallet);
+            order.setReservedAmount(reserve);
+            Order saved = orderRepository.save(order);
+            walletJournal.record(wallet.getId(), JournalEntry.Type.RESERVE, -reserve.paise(), reserve.paise(),
+                    saved.getId());
+            return saved;
+        } else {
+            Holding holding = holdingRepository.findByWalletIdAndSymbol(order.getWalletId(), order.getSymbol())
+                    .orElse(null);
+            if (holding == null || holding.getQuantity().isLessThan(order.getQuantity())) {
+                throw new RuntimeException("Insufficient holdings");
+            }
+            holding.setQuantity(holding.getQuantity().minus(order.getQuantity()));
+            holding.setReserved(holding.getReserved().plus(order.getQuantity()));
+            holdingRepository.save(holding);
+            order.setReservedAmount(Money.ZERO);
+        }
+        return orderRepository.save(order);
+    }
+
+    public Order cancel(String email, Long orderId) {
+        Order order = getOrder(email, orderId);
+        if (order.getStatus() != Order.Status.OPEN) {
+            throw new RuntimeException("Order is already " + order.getStatus().name().toLowerCase());
+        }
+        // Not resting and not being filled means it fell out of its book, so the database decides
+        if (!book(GoldSymbol.valueOf(order.getSymbol())).remove(orderId) && filling.contains(orderId)) {
+            throw new RuntimeException("Order is being filled");
+        }
+        return walletTransactions.execute(order.getWalletId(), status -> {
+            Order current = orderRepository.findById(orderId).orElseThrow();
+            if (current.getStatus() != Order.Status.OPEN) {
+                return current;
+            }
+            release(current);
+            current.setStatus(Order.Status.CANCELLED);
+            current.setClosedAt(LocalDateTime.now());
+            return orderRepository.save(current);
+        });
+    }
+
+    public Order getOrder(String email, Long orderId) {
+        Long walletId = walletRefCache.get(email).walletId();
+        return orderRepository.findById(orderId)
+                .filter(order -> order.getWalletId().equals(walletId))
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+    }
+
+    /**
+     * Open orders, or with {@code all} the latest orders in any state; newest first.
+     */
+    public List<Order> getOrders(String email, boolean all, int limit) {
+        Long walletId = walletRefCache.get(email).walletId();
+        if (all) {
+            return orderRepository.findByWalletIdOrderByIdDesc(walletId,
+                    PageRequest.of(0, Math.max(1, Math.min(limit, MAX_ORDERS_PAGE))));
+        }
+        return orderRepository.findByWalletIdAndStatusOrderByIdDesc(walletId, Order.Status.OPEN);
+    }
+
+    public int getOpenOrderCount() {
+        return Arrays.stream(books).mapToInt(OrderBook::size).sum();
+    }
+
+    @EventListener
+    public void onPriceTick(PriceTickEvent event) {
+        PriceSnapshot snapshot = event.getSnapshot();
+        for (GoldSymbol symbol : GoldSymbol.values()) {
+            Money price = snapshot.getPrice(symbol);
+            book(symbol).match(price.paise(), orderId -> {
+                filling.add(orderId);
+                filler.execute(() -> fillQuietly(orderId, price));
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOpenOrders() {
+        List<Order> open = orderRepository.findByStatus(Order.Status.OPEN);
+        for (Order order : open) {
+            book(GoldSymbol.valueOf(order.getSymbol())).add(order.getId(), order.triggersOnFall(),
+                    order.getPrice().paise());
+        }
+        if (!open.isEmpty()) {
+            log.info("Recovered {} open order(s)", open.size());
+        }
+    }
+
+    private void fillQuietly(long orderId, Money price) {
+        try {
+            Order order = orderRepository.findById(orderId).orElse(null);
+            if (order != null) {
+                Order result = walletTransactions.execute(order.getWalletId(), status -> fill(orderId, price));
+                if (result.getStatus() == Order.Status.REJECTED) {
+                    marketMetrics.recordInsufficientFunds(MarketMetrics.FundsSource.ORDER_FILL);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not fill order {}", orderId, e);
+            restore(orderId);
+        } finally {
+            filling.remove(orderId);
+        }
+    }
+
+    /**
+     * Puts an order whose fill failed back into its book if it is still OPEN,
+     * so a later tick tries again and it can still be cancelled.
+     */
+    private void restore(long orderId) {
+        try {
+            orderRepository.findById(orderId)
+                    .filter(order -> order.getStatus() == Order.Status.OPEN)
+                    .ifPresent(order -> book(GoldSymbol.valueOf(order.getSymbol())).add(order.getId(),
+                            order.triggersOnFall(), order.getPrice().paise()));
+        } catch (RuntimeException e) {
+            // Still cancellable, and read back into its book on the next restart
+            log.error("Could not put order {} back into its book", orderId, e);
+        }
+    }
+
+    private Order fill(long orderId, Money price) {
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        if (order.getStatus() != Order.Status.OPEN) {
+            return order;
+        }
+        Wallet wallet = walletRepository.findById(order.getWalletId())
+                .orElseThrow(() -> new RuntimeException("Wallet not found"));
+        Holding holding = holdingRepository.findByWalletIdAndSymbol(order.getWalletId(), order.getSymbol())
+                .orElse(null);
+        Weight quantity = order.getQuantity();
+        long cashDelta;
+
+        if (order.getSide() == Order.Side.BUY) {
+            Money cost = price.times(quantity, RoundingMode.UP);
+            wallet.setReservedBalance(wallet.getReservedBalance().minus(order.getReservedAmount()));
+            wallet.setBalance(wallet.getBalance().plus(order.getReservedAmount()));
+            walletJournal.record(wallet.getId(), JournalEntry.Type.RELEASE, order.getReservedAmount().paise(),
+                    -order.getReservedAmount().paise(), orderId);
+            // A stop BUY fills above its level and may cost more than was reserved
+            if (wallet.getBalance().isLessThan(cost)) {
+                walletRepository.save(wallet);
+                order.setStatus(Order.Status.REJECTED);
+                order.setRejectReason("Insufficient funds at fill price");
+                order.setClosedAt(LocalDateTime.now());
+                return orderRepository.save(order);
+            }
+            wallet.setBalance(wallet.getBalance().minus(cost));
+            cashDelta = -cost.paise();
+            if (holding == null) {
+                holding = new Holding();
+                holding.setWalletId(order.getWalletId());
+                holding.setSymbol(order.getSymbol());
+                holding.setQuantity(Weight.ZERO);
+            }
+            holding.setQuantity(holding.getQuantity().plus(quantity));
+            holding.addCost(cost);
+        } else {
+            Money proceeds = price.times(quantity, RoundingMode.DOWN);
+            holding.removeCost(quantity, proceeds);
+            holding.setReserved(holding.getReserved().minus(quantity));
+            wallet.setBalance(wallet.getBalance().plus(proceeds));
+            cashDelta = proceeds.paise();
+        }
+        walletRepository.save(wallet);
+        holdingRepository.save(holding);
+
+        Transaction transaction = new Transaction();
+        transaction.setWallet(wallet);
+        transaction.setType(order.getSide().name());
+        transaction.setSymbol(order.getSymbol());
+        transaction.setAmount(quantity);
+        transaction.setPrice(price);
+        transaction.setTimestamp(LocalDateTime.now());
+        transaction = transactionRepository.save(transaction);
+        walletJournal.record(wallet.getId(), JournalEntry.Type.valueOf(order.getSide().name()), cashDelta, 0,
+                transaction.getId());
+
+        order.setStatus(Order.Status.FILLED);
+        order.setFillPrice(price);
+        order.setTransactionId(transaction.getId());
+        order.setClosedAt(LocalDateTime.now());
+        return orderRepository.save(order);
+    }
+
+    // Returns the order's reservation to available funds or grams
+    private void release(Order order) {
+        if (order.getSide() == Order.Side.BUY) {
+            Wallet wallet = walletRepository.findById(order.getWalletId())
+                    .orElseThrow(() -> new RuntimeException("Wallet not found"));
+            wallet.setReservedBalance(wallet.getReservedBalance().minus(order.getReservedAmount()));
+            wallet.setBalance(wallet.getBalance().plus(order.getReservedAmount()));
+            walletRepository.save(wallet);
+            walletJournal.record(wallet.getId(), JournalEntry.Type.RELEASE, order.getReservedAmount().paise(),
+                    -order.getReservedAmount().paise(), order.getId());
+        } else {
+            Holding holding = holdingRepository.findByWalletIdAndSymbol(order.getWalletId(), order.getSymbol())
+                    .orElseThrow(() -> new RuntimeException("Holding not found"));
+            holding.setReserved(holding.getReserved().minus(order.getQuantity()));
+            holding.setQuantity(holding.getQuantity().plus(order.getQuantity()));
+            holdingRepository.save(holding);
+        }
+    }
+
+    private OrderBook book(GoldSymbol symbol) {
+        return books[symbol.ordinal()];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        filler.shutdown();
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, String what) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + value);
+        }
+    }
+}
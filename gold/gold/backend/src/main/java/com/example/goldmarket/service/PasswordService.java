@@ -0,0 +1,168 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.config.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hashes and verifies passwords with BCrypt on a dedicated, bounded pool, so a
+ * login storm queues here instead of tying up the request threads that serve
+ * trades.
+ * <p>
+ * The pool has {@code auth.password.threads} platform threads (default: one
+ * per core, BCrypt is pure CPU) and a queue of {@code auth.password.queue-size}.
+ * When the queue is full, {@link #verify} and {@link #hash} throw
+ * {@link RejectedExecutionException} straight away and the caller answers 503.
+ * <p>
+ * A successful verification also reports a fresh hash when the stored one was
+ * made with a different {@code auth.password.bcrypt-cost}, or is a plaintext
+ * password from before hashing, so credentials move to the current cost on
+ * the user's next login.
+ */
+@Service
+public class PasswordService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordService.class);
+
+    /**
+     * Outcome of a verification. {@code upgradedHash} is non-null when the
+     * password matched and the stored value should be replaced with it.
+     */
+    public record Verification(boolean matched, String upgradedHash) {
+    }
+
+    private final int cost;
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor pool;
+    // Verified against when the user does not exist, so a wrong email costs as much as a wrong password
+    private final String dummyHash;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder upgraded = new LongAdder();
+
+    public PasswordService(@Value("${auth.password.bcrypt-cost:10}") int cost,
+            @Value("${auth.password.threads:0}") int threads,
+            @Value("${auth.password.queue-size:64}") int queueSize) {
+        if (cost < 4 || cost > 31) {
+            throw new IllegalArgumentException("auth.password.bcrypt-cost must be between 4 and 31");
+        }
+        if (queueSize <= 0) {
+            throw new IllegalArgumentException("auth.password.queue-size must be positive");
+        }
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.cost = cost;
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.pool = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), ThreadFactories.platform("password"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.dummyHash = encoder.encode("not-a-password");
+        log.info("Password hashing: BCrypt cost {}, {} thread(s), queue {}", cost, poolSize, queueSize);
+    }
+
+    /**
+     * Checks {@code raw} against the stored value on the hashing pool.
+     * {@code stored} may be null (unknown user, or an OAuth-only account), which
+     * never matches but takes as long as a real check.
+     *
+     * @throws RejectedExecutionException if the pool is saturated
+     */
+    public CompletableFuture<Verification> verify(String raw, String stored) {
+        return submit(() -> verifyNow(raw, stored));
+    }
+
+    /**
+     * Hashes a new password on the hashing pool.
+     *
+     * @throws RejectedExecutionException if the pool is saturated
+     */
+    public CompletableFuture<String> hash(String raw) {
+        return submit(() -> encoder.encode(raw));
+    }
+
+    /**
+     * Hashes on the calling thread, for rare paths such as seeding the demo user.
+     */
+    public String encode(String raw) {
+        return encoder.encode(raw);
+    }
+
+    /**
+     * Verifies on the calling thread. Same rules as {@link #verify}.
+     */
+    public Verification verifyNow(String raw, String stored) {
+        if (raw == null) {
+            return new Verification(false, null);
+        }
+        if (stored == null) {
+            encoder.matches(raw, dummyHash);
+            return new Verification(false, null);
+        }
+        if (!isBcrypt(stored)) {
+            // Plaintext from before passwords were hashed
+            boolean matched = MessageDigest.isEqual(raw.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+            return new Verification(matched, matched ? upgrade(raw) : null);
+        }
+        boolean matched = encoder.matches(raw, stored);
+        return new Verification(matched, matched && costOf(stored) != cost ? upgrade(raw) : null);
+    }
+
+    public int getQueued() {
+        return pool.getQueue().size();
+    }
+
+    public int getActive() {
+        return pool.getActiveCount();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getUpgraded() {
+        return upgraded.sum();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, pool);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    private String upgrade(String raw) {
+        upgraded.increment();
+        return encoder.encode(raw);
+    }
+
+    // $2a$10$... (also $2b$ and $2y$)
+    private static boolean isBcrypt(String stored) {
+        return stored.length() == 60 && stored.startsWith("$2") && stored.charAt(3) == '$'
+                && stored.charAt(6) == '$';
+    }
+
+    private static int costOf(String hash) {
+        return Integer.parseInt(hash, 4, 6, 10);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.model.GoldSymbol;
+import com.example.goldmarket.model.Holding;
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.Wallet;
+import com.example.goldmarket.model.Weight;
+import com.example.goldmarket.repository.HoldingRepository;
+import com.example.goldmarket.repository.WalletRepository;
+import com.example.goldmarket.service.signal.Recommendation;
+import com.example.goldmarket.service.signal.SignalEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The global signal from {@link RecommendationService} adjusted to one
+ * user's position: cash, cost basis, unrealized P&L and how much of the
+ * portfolio is already in gold.
+ * <p>
+ * Everything comes from the wallet row and at most one holding row per
+ * symbol, whose cost basis is maintained on every trade, so the work is
+ * constant whatever the length of the trade history. Results are kept in a
+ * bounded LRU cache keyed by wallet and are valid until the next price tick
+ * or until {@link WalletTransactions} has run anything for the wallet.
+ * <p>
+ * A miss is given {@code market.advice.cpu-budget-ms} of CPU time on the
+ * request thread. One that loads its position over budget still finishes and
+ * caches its result, but for the next second further misses skip the
+ * database and get the global signal, marked as not personalized, so a slow
+ * database is not loaded with reads whose results are thrown away.
+ */
+@Service
+public class PersonalRecommendationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonalRecommendationService.class);
+
+    private static final double LARGE_MOVE_PERCENT = 5.0;
+    private static final long SHED_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private record Entry(Recommendation signal, long generation, Map<String, Object> body) {
+    }
+
+    private final WalletRepository walletRepository;
+    private final HoldingRepository holdingRepository;
+    private final WalletRefCache walletRefCache;
+    private final WalletTransactions walletTransactions;
+    private final LivePriceService livePriceService;
+    private final RecommendationService recommendationService;
+    private final long budgetNanos;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTime;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+    // Until when misses are answered without reading the database, in System.nanoTime()
+    private volatile long shedUntil = System.nanoTime();
+
+    public PersonalRecommendationService(WalletRepository walletRepository, HoldingRepository holdingRepository,
+            WalletRefCache walletRefCache, WalletTransactions walletTransactions,
+            LivePriceService livePriceService, RecommendationService recommendationService,
+            @Value("${market.advice.cache-size:10000}") int maxEntries,
+            @Value("${market.advice.cpu-budget-ms:5}") long budgetMillis) {
+        this.walletRepository = walletRepository;
+        this.holdingRepository = holdingRepository;
+        this.walletRefCache = walletRefCache;
+        this.walletTransactions = walletTransactions;
+        this.livePriceService = livePriceService;
+        this.recommendationService = recommendationService;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.cpuTime = threads.isCurrentThreadCpuTimeSupported();
+        if (!cpuTime) {
+            log.warn("Thread CPU time is not available, the advice budget falls back to wall-clock time");
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Map<String, Object> get(String email) {
+        Long walletId = walletRefCache.get(email).walletId();
+        // All read before the wallet, so a change that lands meanwhile makes the entry stale, never wrong.
+        // A new signal is published on every tick, right after the prices.
+        Recommendation signal = recommendationService.getLatest();
+        PriceSnapshot snapshot = livePriceService.getSnapshot();
+        long generation = walletTransactions.generation(walletId);
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(walletId);
+        } finally {
+            lock.unlock();
+        }
+        if (entry != null && entry.signal() == signal && entry.generation() == generation) {
+            hits.increment();
+            return entry.body();
+        }
+        misses.increment();
+        if (System.nanoTime() - shedUntil < 0) {
+            overBudget.increment();
+            return global(signal);
+        }
+
+        long started = now();
+        Wallet wallet = walletRepository.findById(walletId)
+                .orElseThrow(() -> new RuntimeException("Wallet not found"));
+        List<Holding> holdings = holdingRepository.findByWalletId(walletId);
+        if (now() - started > budgetNanos) {
+            // Already paid for, so finish this one and spare the ones that follow
+            shedUntil = System.nanoTime() + SHED_NANOS;
+        }
+
+        Map<String, Object> body = Collections.unmodifiableMap(personalize(signal, snapshot, wallet, holdings));
+        lock.lock();
+        try {
+            entries.put(walletId, new Entry(signal, generation, body));
+        } finally {
+            lock.unlock();
+        }
+        return body;
+    }
+
+    private Map<String, Object> personalize(Recommendation signal, PriceSnapshot snapshot, Wallet wallet,
+            List<Holding> holdings) {
+        Money cash = wallet.getBalance();
+        Money goldValue = Money.ZERO;
+        Money costBasis = Money.ZERO;
+        Money realized = Money.ZERO;
+        long heldMilligrams = 0;
+        Holding largest = null;
+        Money largestValue = Money.ZERO;
+        List<Map<String, Object>> positions = new ArrayList<>();
+        for (Holding holding : holdings) {
+            Weight quantity = holding.getQuantity().plus(holding.getReserved());
+            realized = realized.plus(holding.getRealizedPnl());
+            if (quantity.signum() == 0) {
+                continue;
+            }
+            Money price = snapshot.getPrice(GoldSymbol.valueOf(holding.getSymbol()));
+            Money value = price.times(quantity, RoundingMode.HALF_UP);
+            goldValue = goldValue.plus(value);
+            costBasis = costBasis.plus(holding.getCostBasis());
+            heldMilligrams += quantity.milligrams();
+            if (largest == null || largestValue.isLessThan(value)) {
+                largest = holding;
+                largestValue = value;
+            }
+            Map<String, Object> position = new LinkedHashMap<>();
+            position.put("symbol", holding.getSymbol());
+            position.put("quantity", quantity);
+            position.put("averageCost", holding.getCostBasis().scale(Weight.MILLIGRAMS_PER_GRAM,
+                    quantity.milligrams(), RoundingMode.HALF_UP));
+            position.put("price", price);
+            position.put("value", value);
+            position.put("unrealizedPnl", value.minus(holding.getCostBasis()));
+            positions.add(position);
+        }
+        Money unrealized = goldValue.minus(costBasis);
+        double unrealizedPercent = costBasis.signum() == 0 ? 0 : unrealized.toDouble() / costBasis.toDouble() * 100;
+        double total = goldValue.toDouble() + cash.toDouble() + wallet.getReservedBalance().toDouble();
+        double concentration = total == 0 ? 0 : goldValue.toDouble() / total;
+        Money price24K = snapshot.getPrice(GoldSymbol.GOLD_24K);
+
+        // Lean against piling further into gold, and against selling what isn't there
+        double score = signal.score();
+        String reason;
+        if (score > 0) {
+            score *= 1 - concentration;
+            reason = concentration > 0.5
+                    ? String.format(Locale.ROOT,
+                            "Gold is already %.0f%% of your portfolio, so the buy signal is scaled down.",
+                            concentration * 100)
+                    : "You have room in your portfolio to add gold.";
+            if (cash.isLessThan(price24K.scale(1, 10, RoundingMode.UP))) {
+                score = 0;
+                reason = "You have less cash than a tenth of a gram costs; deposit funds to act on buy signals.";
+            }
+        } else if (score < 0) {
+            if (heldMilligrams == 0) {
+                score = 0;
+                reason = "You hold no gold, so there is nothing to sell.";
+            } else if (unrealizedPercent <= -LARGE_MOVE_PERCENT) {
+                score *= 0.5;
+                reason = String.format(Locale.ROOT, "Selling now would lock in a %.1f%% loss on your position.",
+                        -unrealizedPercent);
+            } else if (unrealizedPercent >= LARGE_MOVE_PERCENT) {
+                score = Math.max(-1, score * 1.25);
+                reason = String.format(Locale.ROOT,
+                        "You are up %.1f%% on your position; taking some profit is reasonable.", unrealizedPercent);
+            } else {
+                reason = "The market signal leans towards reducing your position.";
+            }
+        } else {
+            reason = "No clear market direction right now.";
+        }
+        String action = SignalEngine.action(score);
+
+        // Up to a quarter of the cash, or half of the largest position's free grams, scaled by the score
+        String suggestedSymbol = null;
+        long suggestedMilligrams = 0;
+        if (action.equals("BUY")) {
+            suggestedSymbol = GoldSymbol.GOLD_24K.name();
+            suggestedMilligrams = (long) (cash.paise() * Math.abs(score) * 0.25) * Weight.MILLIGRAMS_PER_GRAM
+                    / price24K.paise();
+        } else if (action.equals("SELL") && largest != null) {
+            suggestedSymbol = largest.getSymbol();
+            suggestedMilligrams = (long) (largest.getQuantity().milligrams() * Math.abs(score) * 0.5);
+        }
+        Map<String, Object> suggestion = null;
+        if (suggestedMilligrams > 0) {
+            suggestion = new LinkedHashMap<>();
+            suggestion.put("side", action);
+            suggestion.put("symbol", suggestedSymbol);
+            suggestion.put("quantity", Weight.ofMilligrams(suggestedMilligrams));
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT,
+                "%s for you: the market signal is %s (%+.2f), adjusted to %+.2f for your position.", action,
+                signal.action(), signal.score(), score));
+        lines.add(heldMilligrams == 0 ? "You hold no gold yet."
+                : String.format(Locale.ROOT, "You hold %s g worth ₹%s against a cost of ₹%s: %s₹%s (%+.1f%%).",
+                        Weight.ofMilligrams(heldMilligrams), goldValue, costBasis, unrealized.signum() < 0 ? "-" : "+",
+                        Money.ofPaise(Math.abs(unrealized.paise())), unrealizedPercent));
+        lines.add(String.format(Locale.ROOT, "Gold is %.0f%% of your portfolio; ₹%s cash available.",
+                concentration * 100, cash));
+        lines.add(reason);
+        if (suggestion != null) {
+            lines.add(String.format(Locale.ROOT, "Suggested: %s %s g of %s.", action.toLowerCase(Locale.ROOT),
+                    Weight.ofMilligrams(suggestedMilligrams), suggestedSymbol));
+        }
+
+        Map<String, Object> position = new LinkedHashMap<>();
+        position.put("cash", cash);
+        position.put("goldValue", goldValue);
+        position.put("costBasis", costBasis);
+        position.put("unrealizedPnl", unrealized);
+        position.put("unrealizedPnlPercent", unrealizedPercent);
+        position.put("realizedPnl", realized);
+        position.put("goldShare", concentration);
+        position.put("holdings", positions);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("action", action);
+        body.put("confidence", SignalEngine.confidence(score));
+        body.put("score", score);
+        body.put("recommendation", String.join("\n", lines));
+        body.put("personalized", true);
+        body.put("signal", Map.of("action", signal.action(), "confidence", signal.confidence(),
+                "score", signal.score()));
+        body.put("position", position);
+        body.put("suggestion", suggestion);
+        body.put("priceSeq", snapshot.getSequence());
+        body.put("timestamp", snapshot.getTimestamp());
+        return body;
+    }
+
+    private static Map<String, Object> global(Recommendation signal) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("action", signal.action());
+        body.put("confidence", signal.confidence());
+        body.put("score", signal.score());
+        body.put("recommendation", signal.recommendation());
+        body.put("personalized", false);
+        body.put("timestamp", signal.timestamp());
+        return body;
+    }
+
+    private long now() {
+        return cpuTime ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getOverBudget() {
+        return overBudget.sum();
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.config.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes live prices to WebSocket subscribers on {@code /ws/prices}.
+ * <p>
+ * Each tick's pre-serialized {@link PriceSnapshot} body is wrapped once into a
+ * single {@link TextMessage} that is shared by every session. Sessions never
+ * queue: a subscriber that is still busy sending the previous frame simply has
+ * it replaced by the newest one, so a slow consumer always catches up to the
+ * latest price instead of falling behind.
+ * <p>
+ * Frames go out as asynchronous sends, so a stalled client never holds a
+ * sender thread: the sender threads only start sends, and the next frame
+ * follows when the previous one completes. A send that has not completed
+ * within {@value #SEND_TIME_LIMIT_MS} ms drops the subscriber.
+ */
+@Component
+public class PriceBroadcaster extends TextWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceBroadcaster.class);
+
+    private static final int SEND_TIME_LIMIT_MS = 5000;
+
+    private final LivePriceService livePriceService;
+    private final ExecutorService sender;
+    private final Map<String, ConflatingSession> sessions = new ConcurrentHashMap<>();
+
+    private volatile TextMessage lastFrame;
+
+    public PriceBroadcaster(LivePriceService livePriceService, ThreadFactories threadFactories,
+            @Value("${market.ws.sender-threads:2}") int senderThreads) {
+        this.livePriceService = livePriceService;
+        this.sender = Executors.newFixedThreadPool(senderThreads, threadFactories.named("price-ws"));
+    }
+
+    @EventListener
+    public void onPriceTick(PriceTickEvent event) {
+        TextMessage frame = new TextMessage(event.getSnapshot().getJson());
+        lastFrame = frame;
+        for (ConflatingSession session : sessions.values()) {
+            session.offer(frame);
+        }
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        ConflatingSession subscriber = new ConflatingSession(session);
+        sessions.put(session.getId(), subscriber);
+        TextMessage frame = lastFrame;
+        subscriber.offer(frame != null ? frame : new TextMessage(livePriceService.getSnapshot().getJson()));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sessions.remove(session.getId());
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        sessions.remove(session.getId());
+    }
+
+    public int getSubscriberCount() {
+        return sessions.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * Holds at most one pending frame per session and at most one in-flight send.
+     */
+    private class ConflatingSession {
+
+        private final WebSocketSession session;
+        // Null for a session without a standard WebSocket underneath, which is sent to blocking
+        private final RemoteEndpoint.Async remote;
+        private final AtomicReference<TextMessage> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        ConflatingSession(WebSocketSession session) {
+            this.session = session;
+            Session nativeSession = session instanceof NativeWebSocketSession standard
+                    ? standard.getNativeSession(Session.class) : null;
+            this.remote = nativeSession != null ? nativeSession.getAsyncRemote() : null;
+            if (remote != null) {
+                remote.setSendTimeout(SEND_TIME_LIMIT_MS);
+            }
+        }
+
+        void offer(TextMessage frame) {
+            pending.set(frame);
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                TextMessage frame = pending.getAndSet(null);
+                if (frame == null) {
+                    draining.set(false);
+                    // A frame may have arrived between the empty read and the flag reset
+                    if (pending.get() == null || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                if (!session.isOpen()) {
+                    sessions.remove(session.getId());
+                    draining.set(false);
+                    return;
+                }
+                try {
+                    if (remote != null) {
+                        // Resumes draining from the completion callback
+                        remote.sendText(frame.getPayload(), this::sent);
+                        return;
+                    }
+                    session.sendMessage(frame);
+                } catch (IOException | IllegalStateException e) {
+                    drop(e);
+                    return;
+                }
+            }
+        }
+
+        private void sent(SendResult result) {
+            if (result.isOK()) {
+                drain();
+            } else {
+                drop(result.getException());
+            }
+        }
+
+        private void drop(Throwable cause) {
+            log.debug("Dropping price subscriber {}: {}", session.getId(), cause == null ? null : cause.getMessage());
+            sessions.remove(session.getId());
+            closeQuietly();
+            draining.set(false);
+        }
+
+        private void closeQuietly() {
+            try {
+                session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException ignored) {
+                // Session is already gone
+            }
+        }
+    }
+}
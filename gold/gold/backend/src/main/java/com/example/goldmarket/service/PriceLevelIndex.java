@@ -0,0 +1,134 @@
+package com.example.goldmarket.service;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Ids grouped by price level, with levels kept sorted in a primitive array.
+ * Ids that share a level are kept in insertion order.
+ * <p>
+ * Levels are stored as keys in ascending order and {@link #drainFrom} removes
+ * every key at or above a bound. That is always a suffix of the array, so it
+ * costs O(log n + k) for k drained ids and never touches the levels left
+ * behind. Callers that need "at or below" semantics store negated levels.
+ * Adding a new level shifts the array once; adding to an existing level does
+ * not. Not thread-safe.
+ */
+class PriceLevelIndex {
+
+    private static final int INITIAL_LEVELS = 16;
+    private static final int INITIAL_IDS = 4;
+
+    private long[] keys = new long[INITIAL_LEVELS];
+    private long[][] ids = new long[INITIAL_LEVELS][];
+    private int[] counts = new int[INITIAL_LEVELS];
+    private int levels;
+    private int size;
+
+    void add(long key, long id) {
+        int i = lowerBound(key);
+        if (i == levels || keys[i] != key) {
+            insertLevel(i, key);
+        }
+        long[] level = ids[i];
+        if (counts[i] == level.length) {
+            level = ids[i] = Arrays.copyOf(level, level.length * 2);
+        }
+        level[counts[i]++] = id;
+        size++;
+    }
+
+    boolean remove(long key, long id) {
+        int i = lowerBound(key);
+        if (i == levels || keys[i] != key) {
+            return false;
+        }
+        long[] level = ids[i];
+        int count = counts[i];
+        for (int j = 0; j < count; j++) {
+            if (level[j] == id) {
+                System.arraycopy(level, j + 1, level, j, count - j - 1);
+                counts[i] = count - 1;
+                size--;
+                if (count == 1) {
+                    removeLevel(i);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes every id whose key is {@code >= bound} and passes it to
+     * {@code sink}, lowest key first.
+     *
+     * @return the number of ids drained
+     */
+    int drainFrom(long bound, LongConsumer sink) {
+        int first = lowerBound(bound);
+        int drained = 0;
+        for (int i = first; i < levels; i++) {
+            long[] level = ids[i];
+            for (int j = 0; j < counts[i]; j++) {
+                sink.accept(level[j]);
+            }
+            drained += counts[i];
+            ids[i] = null;
+            counts[i] = 0;
+        }
+        levels = first;
+        size -= drained;
+        return drained;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int levels() {
+        return levels;
+    }
+
+    private void insertLevel(int i, long key) {
+        if (levels == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        int tail = levels - i;
+        System.arraycopy(keys, i, keys, i + 1, tail);
+        System.arraycopy(ids, i, ids, i + 1, tail);
+        System.arraycopy(counts, i, counts, i + 1, tail);
+        keys[i] = key;
+        ids[i] = new long[INITIAL_IDS];
+        counts[i] = 0;
+        levels++;
+    }
+
+    private void removeLevel(int i) {
+        int tail = levels - i - 1;
+        System.arraycopy(keys, i + 1, keys, i, tail);
+        System.arraycopy(ids, i + 1, ids, i, tail);
+        System.arraycopy(counts, i + 1, counts, i, tail);
+        levels--;
+        ids[levels] = null;
+        counts[levels] = 0;
+    }
+
+    // First level with key >= the given key
+    private int lowerBound(long key) {
+        int lo = 0;
+        int hi = levels;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.model.GoldSymbol;
+
+/**
+ * Prices of every symbol sampled at most once a second, in a ring sized for
+ * the longest alert window, so "the price n minutes ago" is a binary search
+ * whatever the tick rate. Written and read only on the tick thread.
+ */
+class PriceSamples {
+
+    private static final long SAMPLE_MILLIS = 1000;
+
+    private final long[] timestamps;
+    private final long[][] prices;
+    private int head; // next slot to write
+    private int size;
+
+    PriceSamples(int maxWindowMinutes) {
+        int capacity = maxWindowMinutes * 60 + 2;
+        this.timestamps = new long[capacity];
+        this.prices = new long[GoldSymbol.values().length][capacity];
+    }
+
+    void record(PriceSnapshot snapshot) {
+        long timestamp = snapshot.getTimestamp();
+        if (size > 0 && timestamp < timestamps[slot(size - 1)] + SAMPLE_MILLIS) {
+            return;
+        }
+        timestamps[head] = timestamp;
+        for (GoldSymbol symbol : GoldSymbol.values()) {
+            prices[symbol.ordinal()][head] = snapshot.getPricePaise(symbol);
+        }
+        head = (head + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+    }
+
+    /**
+     * The last sample taken at or before {@code timestamp}, or 0 if there is
+     * none that old.
+     */
+    long at(GoldSymbol symbol, long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[slot(mid)] <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low == 0 ? 0 : prices[symbol.ordinal()][slot(low - 1)];
+    }
+
+    // Logical index 0 is the oldest retained sample
+    private int slot(int index) {
+        return (head - size + index + timestamps.length) % timestamps.length;
+    }
+}
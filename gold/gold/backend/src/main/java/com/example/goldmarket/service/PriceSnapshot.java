@@ -0,0 +1,89 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.model.GoldSymbol;
+import com.example.goldmarket.model.Money;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of all gold prices at one tick. A new snapshot is built and
+ * published atomically by {@link LivePriceService} on every tick, so readers
+ * never observe a mix of old and new prices.
+ * <p>
+ * The JSON body and ETag are computed once here and reused by every reader of
+ * {@code /api/market/prices} and every WebSocket subscriber. Prices are exact
+ * paise and are written to JSON as two-decimal rupee numbers.
+ */
+public final class PriceSnapshot {
+
+    // Distinguishes ETags across restarts, where the sequence starts over
+    private static final String EPOCH = Long.toHexString(System.currentTimeMillis());
+
+    private final long sequence;
+    private final long timestamp;
+    private final Money[] prices;
+    private final Map<String, Money> priceMap;
+    private final byte[] json;
+    private final String etag;
+
+    public PriceSnapshot(long sequence, long timestamp, Money gold24K, Money gold22K, Money gold18K) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.prices = new Money[GoldSymbol.values().length];
+        prices[GoldSymbol.GOLD_24K.ordinal()] = gold24K;
+        prices[GoldSymbol.GOLD_22K.ordinal()] = gold22K;
+        prices[GoldSymbol.GOLD_18K.ordinal()] = gold18K;
+
+        Map<String, Money> map = new LinkedHashMap<>();
+        map.put("GOLD", gold24K); // Default to 24K
+        map.put("GOLD_24K", gold24K);
+        map.put("GOLD_22K", gold22K);
+        map.put("GOLD_18K", gold18K);
+        this.priceMap = Collections.unmodifiableMap(map);
+
+        this.json = ("{\"GOLD\":" + gold24K
+                + ",\"GOLD_24K\":" + gold24K
+                + ",\"GOLD_22K\":" + gold22K
+                + ",\"GOLD_18K\":" + gold18K
+                + ",\"seq\":" + sequence
+                + ",\"timestamp\":" + timestamp + "}").getBytes(StandardCharsets.UTF_8);
+        this.etag = "\"" + EPOCH + "-" + sequence + "\"";
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Money getPrice(GoldSymbol symbol) {
+        return prices[symbol.ordinal()];
+    }
+
+    public long getPricePaise(GoldSymbol symbol) {
+        return prices[symbol.ordinal()].paise();
+    }
+
+    /**
+     * Prices keyed by symbol, including the {@code GOLD} alias. Shared and read-only.
+     */
+    public Map<String, Money> asMap() {
+        return priceMap;
+    }
+
+    /**
+     * Pre-serialized JSON body. Shared across callers; must not be modified.
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.goldmarket.service;
+
+/**
+ * Published by {@link LivePriceService} once per price tick. Listeners run on
+ * the thread that delivered the tick, so they must hand any slow work off to
+ * their own executor.
+ */
+public class PriceTickEvent {
+
+    private final PriceSnapshot snapshot;
+
+    public PriceTickEvent(PriceSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public PriceSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
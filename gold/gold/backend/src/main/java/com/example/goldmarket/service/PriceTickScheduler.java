@@ -0,0 +1,173 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.config.ThreadFactories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives {@link LivePriceService#updatePrices()} from its own thread at
+ * {@code market.tick.interval-ms}, independent of Spring's shared scheduler.
+ * <p>
+ * Ticks are aligned to a fixed grid. A tick that starts late is recorded as
+ * jitter; if a tick overruns one or more grid slots those slots are skipped
+ * rather than fired back to back, so a stall never turns into a burst of stale
+ * ticks.
+ */
+@Component
+public class PriceTickScheduler implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceTickScheduler.class);
+
+    private final LivePriceService livePriceService;
+    private final ThreadFactories threadFactories;
+    private final long intervalNanos;
+    private final long lateThresholdNanos;
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    // Written only by the tick thread, read by monitoring
+    private volatile long ticks;
+    private volatile long lateTicks;
+    private volatile long skippedTicks;
+    private volatile long feedBusyTicks;
+    private volatile long lastJitterNanos;
+    private volatile long maxJitterNanos;
+    private volatile long totalJitterNanos;
+    private volatile long lastDurationNanos;
+    private volatile long maxDurationNanos;
+
+    public PriceTickScheduler(LivePriceService livePriceService, ThreadFactories threadFactories,
+            @Value("${market.tick.interval-ms:1000}") long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("market.tick.interval-ms must be positive");
+        }
+        this.livePriceService = livePriceService;
+        this.threadFactories = threadFactories;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        // A tick is late once it starts more than 10% of the interval after its slot
+        this.lateThresholdNanos = intervalNanos / 10;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(threadFactories.named("price-tick"));
+        running = true;
+        long first = System.nanoTime();
+        executor.schedule(() -> tick(first), 0, TimeUnit.NANOSECONDS);
+        log.info("Price ticks every {} ms", TimeUnit.NANOSECONDS.toMillis(intervalNanos));
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void tick(long slot) {
+        if (!running) {
+            return;
+        }
+        long started = System.nanoTime();
+        long jitter = Math.max(0, started - slot);
+        try {
+            if (!livePriceService.updatePrices()) {
+                feedBusyTicks++;
+            }
+        } catch (RuntimeException e) {
+            log.error("Price tick failed", e);
+        }
+        long finished = System.nanoTime();
+        record(jitter, finished - started);
+
+        long next = slot + intervalNanos;
+        if (next <= finished) {
+            long missed = (finished - next) / intervalNanos + 1;
+            skippedTicks += missed;
+            next += missed * intervalNanos;
+            log.warn("Price tick overran by {} ms, skipped {} tick(s)",
+                    TimeUnit.NANOSECONDS.toMillis(finished - slot - intervalNanos), missed);
+        }
+        long nextSlot = next;
+        if (running) {
+            executor.schedule(() -> tick(nextSlot), nextSlot - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void record(long jitterNanos, long durationNanos) {
+        ticks++;
+        if (jitterNanos > lateThresholdNanos) {
+            lateTicks++;
+        }
+        lastJitterNanos = jitterNanos;
+        totalJitterNanos += jitterNanos;
+        if (jitterNanos > maxJitterNanos) {
+            maxJitterNanos = jitterNanos;
+        }
+        lastDurationNanos = durationNanos;
+        if (durationNanos > maxDurationNanos) {
+            maxDurationNanos = durationNanos;
+        }
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getLateTicks() {
+        return lateTicks;
+    }
+
+    public long getSkippedTicks() {
+        return skippedTicks;
+    }
+
+    public long getFeedBusyTicks() {
+        return feedBusyTicks;
+    }
+
+    public long getLastJitterNanos() {
+        return lastJitterNanos;
+    }
+
+    /**
+     * Milliseconds since the currently published prices were produced.
+     */
+    public long getPriceAgeMillis() {
+        return System.currentTimeMillis() - livePriceService.getSnapshot().getTimestamp();
+    }
+
+    public Map<String, Object> getStats() {
+        long count = ticks;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("intervalMs", TimeUnit.NANOSECONDS.toMillis(intervalNanos));
+        stats.put("ticks", count);
+        stats.put("lateTicks", lateTicks);
+        stats.put("skippedTicks", skippedTicks);
+        stats.put("feedBusyTicks", feedBusyTicks);
+        stats.put("lastJitterMicros", TimeUnit.NANOSECONDS.toMicros(lastJitterNanos));
+        stats.put("meanJitterMicros", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalJitterNanos / count));
+        stats.put("maxJitterMicros", TimeUnit.NANOSECONDS.toMicros(maxJitterNanos));
+        stats.put("lastTickMicros", TimeUnit.NANOSECONDS.toMicros(lastDurationNanos));
+        stats.put("maxTickMicros", TimeUnit.NANOSECONDS.toMicros(maxDurationNanos));
+        stats.put("priceAgeMs", getPriceAgeMillis());
+        stats.put("priceSeq", livePriceService.getSnapshot().getSequence());
+        return stats;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.model.GoldSymbol;
+import com.example.goldmarket.service.signal.Recommendation;
+import com.example.goldmarket.service.signal.SignalEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Feeds every 24K price tick into a {@link SignalEngine} and publishes one
+ * shared {@link Recommendation} per tick. Readers only ever see the latest
+ * published instance, so {@code GET /api/chat/recommendation} is a field
+ * read no matter how many users poll it.
+ * <p>
+ * The indicator work is O(1) per tick and runs on the tick thread.
+ */
+@Service
+public class RecommendationService {
+
+    private final SignalEngine engine;
+    private volatile Recommendation latest;
+
+    public RecommendationService(@Value("${market.signal.ema-fast:12}") int fastEma,
+            @Value("${market.signal.ema-slow:26}") int slowEma,
+            @Value("${market.signal.rsi-period:14}") int rsiPeriod,
+            @Value("${market.signal.band-period:20}") int bandPeriod,
+            @Value("${market.signal.band-width:2.0}") double bandWidth,
+            @Value("${market.signal.momentum-period:10}") int momentumPeriod) {
+        this.engine = new SignalEngine(
+                new SignalEngine.Settings(fastEma, slowEma, rsiPeriod, bandPeriod, bandWidth, momentumPeriod));
+        this.latest = engine.recommend(System.currentTimeMillis());
+    }
+
+    @EventListener
+    public void onPriceTick(PriceTickEvent event) {
+        PriceSnapshot snapshot = event.getSnapshot();
+        engine.update(snapshot.getPrice(GoldSymbol.GOLD_24K).toDouble());
+        latest = engine.recommend(snapshot.getTimestamp());
+    }
+
+    public Recommendation getLatest() {
+        return latest;
+    }
+}
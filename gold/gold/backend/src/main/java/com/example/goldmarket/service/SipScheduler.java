@@ -0,0 +1,391 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.config.ThreadFactories;
+import com.example.goldmarket.model.GoldSymbol;
+import com.example.goldmarket.model.Holding;
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.SipPlan;
+import com.example.goldmarket.model.SipRun;
+import com.example.goldmarket.model.Transaction;
+import com.example.goldmarket.model.Wallet;
+import com.example.goldmarket.model.Weight;
+import com.example.goldmarket.repository.HoldingRepository;
+import com.example.goldmarket.repository.SipPlanRepository;
+import com.example.goldmarket.repository.SipRunRepository;
+import com.example.goldmarket.repository.TransactionRepository;
+import com.example.goldmarket.repository.WalletRepository;
+import com.example.goldmarket.service.journal.JournalEntry;
+import com.example.goldmarket.service.journal.WalletJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executes due SIP plans.
+ * <p>
+ * Every {@code sip.poll-interval-ms} the poll thread reads the plans that are
+ * due and takes one price snapshot for all of them. Plans are split into
+ * {@code sip.shards} shards by wallet lock stripe, and each shard runs on its
+ * own worker in batches of {@code sip.batch-size}, ordered by wallet. A batch
+ * is one transaction, like a {@link TradeSettler} batch: wallets and holdings
+ * are read once and everything is written with JDBC batches. Shards never
+ * share a stripe, so they never wait on each other's locks. The next poll
+ * starts only after every shard has finished.
+ * <p>
+ * A plan that cannot buy, for lack of funds or because its amount buys less
+ * than a milligram, gets a {@code FAILED} run and moves on to its next period
+ * like any other; it never holds up the rest of its batch. If a batch cannot
+ * commit at all, its plans are retried one at a time. A plan that was due
+ * several periods ago, because the application was down, buys once and skips
+ * ahead to its next future run.
+ * <p>
+ * Load is spread by {@link SipService}, which gives each plan a random offset
+ * within {@code sip.window-minutes} of the run time when it is created.
+ */
+@Component
+public class SipScheduler implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SipScheduler.class);
+
+    /**
+     * What one call to {@link #runDue} did.
+     */
+    public record Summary(int plans, int succeeded, int failed, int batches) {
+    }
+
+    private final SipPlanRepository planRepository;
+    private final SipRunRepository runRepository;
+    private final WalletRepository walletRepository;
+    private final HoldingRepository holdingRepository;
+    private final TransactionRepository transactionRepository;
+    private final WalletTransactions walletTransactions;
+    private final WalletJournal walletJournal;
+    private final LivePriceService livePriceService;
+    private final MarketMetrics marketMetrics;
+    private final ThreadFactories threadFactories;
+    private final boolean enabled;
+    private final long pollIntervalMillis;
+    private final int shards;
+    private final int batchSize;
+    private final int maxPerPoll;
+
+    private ScheduledExecutorService poller;
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder isolatedBatches = new LongAdder();
+
+    public SipScheduler(SipPlanRepository planRepository, SipRunRepository runRepository,
+            WalletRepository walletRepository, HoldingRepository holdingRepository,
+            TransactionRepository transactionRepository, WalletTransactions walletTransactions,
+            WalletJournal walletJournal, LivePriceService livePriceService, MarketMetrics marketMetrics, ThreadFactories threadFactories,
+            @Value("${sip.enabled:true}") boolean enabled,
+            @Value("${sip.poll-interval-ms:1000}") long pollIntervalMillis,
+            @Value("${sip.shards:4}") int shards,
+            @Value("${sip.batch-size:200}") int batchSize,
+            @Value("${sip.max-per-poll:50000}") int maxPerPoll) {
+        if (pollIntervalMillis <= 0 || shards <= 0 || batchSize <= 0 || maxPerPoll <= 0) {
+            throw new IllegalArgumentException("sip poll interval, shards and batch sizes must be positive");
+        }
+        this.planRepository = planRepository;
+        this.runRepository = runRepository;
+        this.walletRepository = walletRepository;
+        this.holdingRepository = holdingRepository;
+        this.transactionRepository = transactionRepository;
+        this.walletTransactions = walletTransactions;
+        this.walletJournal = walletJournal;
+        this.livePriceService = livePriceService;
+        this.marketMetrics = marketMetrics;
+        this.threadFactories = threadFactories;
+        this.enabled = enabled;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.shards = shards;
+        this.batchSize = batchSize;
+        this.maxPerPoll = maxPerPoll;
+    }
+
+    @Override
+    public void start() {
+        workers = Executors.newFixedThreadPool(shards, threadFactories.named("sip-shard"));
+        if (enabled) {
+            poller = Executors.newSingleThreadScheduledExecutor(threadFactories.named("sip-poll"));
+            poller.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+            log.info("SIP plans checked every {} ms, {} shard(s) of {} per batch", pollIntervalMillis, shards,
+                    batchSize);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (poller != null) {
+            poller.shutdown();
+        }
+        workers.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void poll() {
+        try {
+            Summary summary;
+            // A full page means more may be due; go again unless nothing could be committed
+            do {
+                summary = runDue(LocalDateTime.now());
+                if (summary.plans() > 0) {
+                    log.info("SIP run: {} plan(s), {} bought, {} failed, {} batch(es)", summary.plans(),
+                            summary.succeeded(), summary.failed(), summary.batches());
+                }
+            } while (running && summary.plans() == maxPerPoll && summary.succeeded() + summary.failed() > 0);
+        } catch (RuntimeException e) {
+            // Plans that were not moved on are still due and are picked up by the next poll
+            log.error("SIP run failed", e);
+        }
+    }
+
+    /**
+     * Runs every plan due at {@code now}, up to {@code sip.max-per-poll}, and
+     * returns once all of them are committed.
+     */
+    public Summary runDue(LocalDateTime now) {
+        List<SipPlan> due = planRepository.findByStatusAndNextRunAtLessThanEqualOrderByNextRunAt(
+                SipPlan.Status.ACTIVE, now, PageRequest.of(0, maxPerPoll));
+        if (due.isEmpty()) {
+            return new Summary(0, 0, 0, 0);
+        }
+        PriceSnapshot snapshot = livePriceService.getSnapshot();
+
+        List<List<SipPlan>> sharded = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            sharded.add(new ArrayList<>());
+        }
+        for (SipPlan plan : due) {
+            sharded.get(walletTransactions.shard(plan.getWalletId(), shards)).add(plan);
+        }
+        List<Future<int[]>> results = new ArrayList<>(shards);
+        for (List<SipPlan> shard : sharded) {
+            if (!shard.isEmpty()) {
+                shard.sort(Comparator.comparing(SipPlan::getWalletId).thenComparing(SipPlan::getId));
+                results.add(workers.submit(() -> runShard(shard, snapshot, now)));
+            }
+        }
+        int[] totals = new int[3];
+        for (Future<int[]> result : results) {
+            int[] counts = join(result);
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += counts[i];
+            }
+        }
+        return new Summary(due.size(), totals[0], totals[1], totals[2]);
+    }
+
+    // {succeeded, failed, batches}
+    private int[] runShard(List<SipPlan> shard, PriceSnapshot snapshot, LocalDateTime now) {
+        int[] counts = new int[3];
+        for (int from = 0; from < shard.size(); from += batchSize) {
+            List<SipPlan> batch = shard.subList(from, Math.min(shard.size(), from + batchSize));
+            int[] outcome = runBatch(batch, snapshot, now);
+            counts[0] += outcome[0];
+            counts[1] += outcome[1];
+            counts[2]++;
+        }
+        return counts;
+    }
+
+    private int[] runBatch(List<SipPlan> batch, PriceSnapshot snapshot, LocalDateTime now) {
+        List<Long> planIds = new ArrayList<>(batch.size());
+        Set<Long> walletIds = new LinkedHashSet<>();
+        for (SipPlan plan : batch) {
+            planIds.add(plan.getId());
+            walletIds.add(plan.getWalletId());
+        }
+        List<SipRun> runs;
+        try {
+            runs = walletTransactions.executeAll(walletIds, status -> apply(planIds, walletIds, snapshot, now));
+        } catch (RuntimeException e) {
+            log.warn("SIP batch of {} plans failed to commit, running them one by one: {}", batch.size(),
+                    e.toString());
+            isolatedBatches.increment();
+            runs = new ArrayList<>();
+            for (SipPlan plan : batch) {
+                try {
+                    runs.addAll(walletTransactions.execute(plan.getWalletId(),
+                            status -> apply(List.of(plan.getId()), Set.of(plan.getWalletId()), snapshot, now)));
+                } catch (RuntimeException single) {
+                    // Still due, so the next poll tries it again
+                    log.error("Could not run SIP plan {}", plan.getId(), single);
+                }
+            }
+        }
+        int[] outcome = new int[2];
+        for (SipRun run : runs) {
+            if (run.getStatus() == SipRun.Status.SUCCEEDED) {
+                outcome[0]++;
+            } else {
+                outcome[1]++;
+                if (MarketMetrics.INSUFFICIENT_FUNDS.equals(run.getFailureReason())) {
+                    marketMetrics.recordInsufficientFunds(MarketMetrics.FundsSource.SIP);
+                }
+            }
+        }
+        succeeded.add(outcome[0]);
+        failed.add(outcome[1]);
+        return outcome;
+    }
+
+    /**
+     * Buys for every plan in the batch that is still active and due, against
+     * wallets and holdings read once, and moves each plan to its next run.
+     */
+    private List<SipRun> apply(List<Long> planIds, Set<Long> walletIds, PriceSnapshot snapshot,
+            LocalDateTime now) {
+        Map<Long, Wallet> wallets = new HashMap<>();
+        for (Wallet wallet : walletRepository.findAllById(walletIds)) {
+            wallets.put(wallet.getId(), wallet);
+        }
+        Map<String, Holding> holdings = new HashMap<>();
+        for (Holding holding : holdingRepository.findByWalletIdIn(walletIds)) {
+            holdings.put(holding.getWalletId() + ":" + holding.getSymbol(), holding);
+        }
+        List<SipPlan> plans = planRepository.findAllById(planIds);
+        plans.sort(Comparator.comparing(SipPlan::getWalletId).thenComparing(SipPlan::getId));
+
+        List<SipRun> runs = new ArrayList<>();
+        Map<SipRun, Transaction> purchases = new LinkedHashMap<>();
+        Set<Wallet> changedWallets = new LinkedHashSet<>();
+        Set<Holding> changedHoldings = new LinkedHashSet<>();
+        for (SipPlan plan : plans) {
+            // Cancelled, or already run, since the poll read it
+            if (plan.getStatus() != SipPlan.Status.ACTIVE || plan.getNextRunAt().isAfter(now)) {
+                continue;
+            }
+            GoldSymbol symbol = GoldSymbol.valueOf(plan.getSymbol());
+            Money price = snapshot.getPrice(symbol);
+            SipRun run = new SipRun();
+            run.setPlanId(plan.getId());
+            run.setDueAt(plan.getNextRunAt());
+            run.setExecutedAt(now);
+            run.setPrice(price);
+            runs.add(run);
+
+            LocalDateTime next = plan.getFrequency().after(plan.getNextRunAt());
+            while (!next.isAfter(now)) {
+                next = plan.getFrequency().after(next);
+            }
+            plan.setNextRunAt(next);
+            plan.setLastRunAt(now);
+
+            Wallet wallet = wallets.get(plan.getWalletId());
+            // Whole milligrams the amount pays for; their cost rounded up is still within the amount
+            long milligrams = plan.getAmount().paise() * Weight.MILLIGRAMS_PER_GRAM / price.paise();
+            long cost = Money.costPaise(price.paise(), milligrams, RoundingMode.UP);
+            if (wallet == null) {
+                fail(run, "Wallet not found");
+                continue;
+            }
+            if (milligrams == 0) {
+                fail(run, "Amount buys less than 0.001 grams");
+                continue;
+            }
+            if (wallet.getBalance().paise() < cost) {
+                fail(run, MarketMetrics.INSUFFICIENT_FUNDS);
+                continue;
+            }
+            wallet.setBalance(Money.ofPaise(wallet.getBalance().paise() - cost));
+            String holdingKey = plan.getWalletId() + ":" + symbol.name();
+            Holding holding = holdings.get(holdingKey);
+            if (holding == null) {
+                holding = new Holding();
+                holding.setWalletId(plan.getWalletId());
+                holding.setSymbol(symbol.name());
+                holding.setQuantity(Weight.ZERO);
+                holdings.put(holdingKey, holding);
+            }
+            Weight quantity = Weight.ofMilligrams(milligrams);
+            holding.setQuantity(holding.getQuantity().plus(quantity));
+            holding.addCost(Money.ofPaise(cost));
+            changedWallets.add(wallet);
+            changedHoldings.add(holding);
+
+            Transaction transaction = new Transaction();
+            transaction.setWallet(wallet);
+            transaction.setType("BUY");
+            transaction.setSymbol(symbol.name());
+            transaction.setAmount(quantity);
+            transaction.setPrice(price);
+            transaction.setTimestamp(now);
+            purchases.put(run, transaction);
+
+            run.setStatus(SipRun.Status.SUCCEEDED);
+            run.setQuantity(quantity);
+            run.setCost(Money.ofPaise(cost));
+        }
+
+        walletRepository.saveAll(changedWallets);
+        holdingRepository.saveAll(changedHoldings);
+        transactionRepository.saveAll(purchases.values());
+        // Sequence ids are assigned on persist, before the batch is flushed
+        purchases.forEach((run, transaction) -> {
+            run.setTransactionId(transaction.getId());
+            walletJournal.record(transaction.getWallet().getId(), JournalEntry.Type.BUY, -run.getCost().paise(), 0,
+                    transaction.getId());
+        });
+        planRepository.saveAll(plans);
+        return runRepository.saveAll(runs);
+    }
+
+    private static void fail(SipRun run, String reason) {
+        run.setStatus(SipRun.Status.FAILED);
+        run.setFailureReason(reason);
+    }
+
+    private static int[] join(Future<int[]> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running SIP plans", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+    }
+
+    public long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getIsolatedBatches() {
+        return isolatedBatches.sum();
+    }
+}
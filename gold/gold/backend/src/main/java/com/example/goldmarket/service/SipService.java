@@ -0,0 +1,137 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.model.GoldSymbol;
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.SipPlan;
+import com.example.goldmarket.model.SipRun;
+import com.example.goldmarket.repository.SipPlanRepository;
+import com.example.goldmarket.repository.SipRunRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Systematic investment plans: "buy ₹500 of 24K every day".
+ * <p>
+ * Every plan runs at {@code sip.run-time} plus its own random offset within
+ * {@code sip.window-minutes}, fixed when it is created, so plans that share a
+ * schedule reach {@link SipScheduler} spread over the window rather than all
+ * at once. The first run is the next such time after creation.
+ */
+@Service
+public class SipService {
+
+    private static final int MAX_RUNS_PAGE = 200;
+
+    private final SipPlanRepository planRepository;
+    private final SipRunRepository runRepository;
+    private final WalletTransactions walletTransactions;
+    private final WalletRefCache walletRefCache;
+    private final LocalTime runTime;
+    private final long windowSeconds;
+    private final int maxPerUser;
+    private final Money minAmount;
+
+    public SipService(SipPlanRepository planRepository, SipRunRepository runRepository,
+            WalletTransactions walletTransactions, WalletRefCache walletRefCache,
+            @Value("${sip.run-time:09:00}") String runTime,
+            @Value("${sip.window-minutes:30}") long windowMinutes,
+            @Value("${sip.max-per-user:10}") int maxPerUser,
+            @Value("${sip.min-amount:100}") String minAmount) {
+        if (windowMinutes < 0) {
+            throw new IllegalArgumentException("sip.window-minutes must not be negative");
+        }
+        this.planRepository = planRepository;
+        this.runRepository = runRepository;
+        this.walletTransactions = walletTransactions;
+        this.walletRefCache = walletRefCache;
+        this.runTime = LocalTime.parse(runTime);
+        this.windowSeconds = TimeUnit.MINUTES.toSeconds(windowMinutes);
+        this.maxPerUser = maxPerUser;
+        this.minAmount = Money.parse(minAmount, RoundingMode.HALF_UP);
+    }
+
+    public SipPlan create(String email, String symbol, Money amount, String frequency) {
+        GoldSymbol goldSymbol = GoldSymbol.find(symbol);
+        if (goldSymbol == null) {
+            throw new IllegalArgumentException("Unknown symbol: " + symbol);
+        }
+        if (amount == null || amount.isLessThan(minAmount)) {
+            throw new IllegalArgumentException("Amount must be at least ₹" + minAmount);
+        }
+        SipPlan.Frequency planFrequency;
+        try {
+            planFrequency = SipPlan.Frequency.valueOf(frequency.trim().toUpperCase());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid frequency: " + frequency);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime firstRun = LocalDate.now().atTime(runTime)
+                .plusSeconds(windowSeconds == 0 ? 0 : ThreadLocalRandom.current().nextLong(windowSeconds));
+        if (!firstRun.isAfter(now)) {
+            firstRun = firstRun.plusDays(1);
+        }
+        Long walletId = walletRefCache.get(email).walletId();
+        SipPlan plan = new SipPlan();
+        plan.setWalletId(walletId);
+        plan.setSymbol(goldSymbol.name());
+        plan.setAmount(amount);
+        plan.setFrequency(planFrequency);
+        plan.setStatus(SipPlan.Status.ACTIVE);
+        plan.setNextRunAt(firstRun);
+        plan.setCreatedAt(now);
+        // Under the wallet's lock so concurrent requests cannot both slip under the limit
+        return walletTransactions.execute(walletId, status -> {
+            if (planRepository.countByWalletIdAndStatus(walletId, SipPlan.Status.ACTIVE) >= maxPerUser) {
+                throw new RuntimeException("At most " + maxPerUser + " SIP plans can be active");
+            }
+            return planRepository.save(plan);
+        });
+    }
+
+    /**
+     * Stops the plan. Takes the wallet's lock, so it waits for a batch that is
+     * running the plan right now and the plan never runs after this returns.
+     */
+    public SipPlan cancel(String email, Long planId) {
+        SipPlan plan = getPlan(email, planId);
+        return walletTransactions.execute(plan.getWalletId(), status -> {
+            SipPlan current = planRepository.findById(planId).orElseThrow();
+            if (current.getStatus() != SipPlan.Status.ACTIVE) {
+                throw new RuntimeException("Plan is already " + current.getStatus().name().toLowerCase());
+            }
+            current.setStatus(SipPlan.Status.CANCELLED);
+            return planRepository.save(current);
+        });
+    }
+
+    public SipPlan getPlan(String email, Long planId) {
+        Long walletId = walletRefCache.get(email).walletId();
+        return planRepository.findById(planId)
+                .filter(plan -> plan.getWalletId().equals(walletId))
+                .orElseThrow(() -> new RuntimeException("Plan not found"));
+    }
+
+    public List<SipPlan> getPlans(String email) {
+        Long walletId = walletRefCache.get(email).walletId();
+        return planRepository.findByWalletIdAndStatusOrderByIdDesc(walletId, SipPlan.Status.ACTIVE);
+    }
+
+    /**
+     * The plan's latest runs, newest first.
+     */
+    public List<SipRun> getRuns(String email, Long planId, int limit) {
+        SipPlan plan = getPlan(email, planId);
+        return runRepository.findByPlanIdOrderByIdDesc(plan.getId(),
+                PageRequest.of(0, Math.max(1, Math.min(limit, MAX_RUNS_PAGE))));
+    }
+}
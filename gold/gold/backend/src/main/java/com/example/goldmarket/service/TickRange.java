@@ -0,0 +1,7 @@
+package com.example.goldmarket.service;
+
+/**
+ * Raw ticks in columnar form: {@code prices[i]} was observed at {@code timestamps[i]}.
+ */
+public record TickRange(long[] timestamps, double[] prices) {
+}
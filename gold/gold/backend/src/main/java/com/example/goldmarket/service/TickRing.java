@@ -0,0 +1,82 @@
+package com.example.goldmarket.service;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fixed-capacity ring of (timestamp, price) ticks in primitive arrays. Once full
+ * the oldest tick is overwritten. One writer (the tick thread), many readers.
+ */
+class TickRing {
+
+    private final long[] timestamps;
+    private final double[] prices;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int head; // next slot to write
+    private int size;
+
+    TickRing(int capacity) {
+        this.timestamps = new long[capacity];
+        this.prices = new double[capacity];
+    }
+
+    void append(long timestamp, double price) {
+        lock.writeLock().lock();
+        try {
+            timestamps[head] = timestamp;
+            prices[head] = price;
+            head = (head + 1) % timestamps.length;
+            if (size < timestamps.length) {
+                size++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copies ticks with {@code from <= timestamp < to}.
+     */
+    TickRange range(long from, long to) {
+        lock.readLock().lock();
+        try {
+            int first = lowerBound(from);
+            int last = lowerBound(to);
+            int count = Math.max(0, last - first);
+            long[] ts = new long[count];
+            double[] px = new double[count];
+            for (int i = 0; i < count; i++) {
+                int slot = slot(first + i);
+                ts[i] = timestamps[slot];
+                px[i] = prices[slot];
+            }
+            return new TickRange(ts, px);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Logical index 0 is the oldest retained tick
+    private int slot(int index) {
+        return (head - size + index + timestamps.length) % timestamps.length;
+    }
+
+    // First logical index whose timestamp is >= value
+    private int lowerBound(long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[slot(mid)] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.model.GoldSymbol;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * In-memory price history: a bounded ring of raw ticks per symbol plus OHLC
+ * candles for every {@link CandleInterval}, all maintained incrementally on
+ * each tick so reads never recompute anything.
+ * <p>
+ * Memory is fixed at startup by {@code market.ticks.capacity} and the candle
+ * capacities. When {@code market.ticks.spill-file} is set, every tick is also
+ * appended to that file in the binary format understood by
+ * {@link com.example.goldmarket.service.feed.TickFileReader}, so a recording
+ * can be replayed later with the replay price feed.
+ */
+@Component
+public class TickStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TickStore.class);
+
+    private static final int SPILL_RECORD_BYTES = 4 * Long.BYTES;
+    private static final long SPILL_FLUSH_NANOS = 1_000_000_000L;
+
+    private final TickRing[] ticks;
+    private final CandleSeries[][] candles;
+
+    private FileChannel spill;
+    private final ByteBuffer spillBuffer = ByteBuffer.allocate(SPILL_RECORD_BYTES * 256);
+    private long lastSpillFlush = System.nanoTime();
+
+    public TickStore(@Value("${market.ticks.capacity:86400}") int tickCapacity,
+            @Value("${market.ticks.spill-file:}") String spillFile) throws IOException {
+        GoldSymbol[] symbols = GoldSymbol.values();
+        CandleInterval[] intervals = CandleInterval.values();
+        this.ticks = new TickRing[symbols.length];
+        this.candles = new CandleSeries[symbols.length][intervals.length];
+        for (GoldSymbol symbol : symbols) {
+            ticks[symbol.ordinal()] = new TickRing(tickCapacity);
+            for (CandleInterval interval : intervals) {
+                candles[symbol.ordinal()][interval.ordinal()] = new CandleSeries(interval.getMillis(),
+                        interval.getCapacity());
+            }
+        }
+        if (!spillFile.isBlank()) {
+            Path path = Path.of(spillFile);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            spill = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            log.info("Spilling price ticks to {}", path.toAbsolutePath());
+        }
+    }
+
+    @EventListener
+    public void onPriceTick(PriceTickEvent event) {
+        PriceSnapshot snapshot = event.getSnapshot();
+        long timestamp = snapshot.getTimestamp();
+        for (GoldSymbol symbol : GoldSymbol.values()) {
+            double price = snapshot.getPrice(symbol).toDouble();
+            ticks[symbol.ordinal()].append(timestamp, price);
+            for (CandleSeries series : candles[symbol.ordinal()]) {
+                series.update(timestamp, price);
+            }
+        }
+        if (spill != null) {
+            spill(snapshot);
+        }
+    }
+
+    public List<Candle> getCandles(GoldSymbol symbol, CandleInterval interval, long from, long to) {
+        return candles[symbol.ordinal()][interval.ordinal()].range(from, to);
+    }
+
+    public TickRange getTicks(GoldSymbol symbol, long from, long to) {
+        return ticks[symbol.ordinal()].range(from, to);
+    }
+
+    // Only called from the tick thread
+    private void spill(PriceSnapshot snapshot) {
+        spillBuffer.putLong(snapshot.getTimestamp());
+        spillBuffer.putLong(snapshot.getPricePaise(GoldSymbol.GOLD_24K));
+        spillBuffer.putLong(snapshot.getPricePaise(GoldSymbol.GOLD_22K));
+        spillBuffer.putLong(snapshot.getPricePaise(GoldSymbol.GOLD_18K));
+        long now = System.nanoTime();
+        if (spillBuffer.remaining() < SPILL_RECORD_BYTES || now - lastSpillFlush >= SPILL_FLUSH_NANOS) {
+            flushSpill();
+            lastSpillFlush = now;
+        }
+    }
+
+    private void flushSpill() {
+        spillBuffer.flip();
+        try {
+            while (spillBuffer.hasRemaining()) {
+                spill.write(spillBuffer);
+            }
+        } catch (IOException e) {
+            log.error("Could not write tick spill file, disabling spill", e);
+            closeSpill();
+        } finally {
+            spillBuffer.clear();
+        }
+    }
+
+    private void closeSpill() {
+        try {
+            spill.close();
+        } catch (IOException ignored) {
+            // Nothing more we can do
+        }
+        spill = null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (spill != null) {
+            flushSpill();
+            if (spill != null) {
+                closeSpill();
+            }
+        }
+    }
+}
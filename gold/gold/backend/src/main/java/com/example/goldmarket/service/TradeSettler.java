@@ -0,0 +1,327 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.config.ThreadFactories;
+import com.example.goldmarket.model.GoldSymbol;
+import com.example.goldmarket.model.Holding;
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.Transaction;
+import com.example.goldmarket.model.Wallet;
+import com.example.goldmarket.model.Weight;
+import com.example.goldmarket.repository.HoldingRepository;
+import com.example.goldmarket.repository.TransactionRepository;
+import com.example.goldmarket.repository.WalletRepository;
+import com.example.goldmarket.service.journal.JournalEntry;
+import com.example.goldmarket.service.journal.WalletJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Settles market trades in batches: one database transaction, and one commit,
+ * for every trade that arrives while the previous batch is being written.
+ * <p>
+ * The settle thread waits for a trade, then keeps collecting for up to
+ * {@code trade.settle.window-ms} or until {@code trade.settle.batch-size}
+ * trades are queued. The batch is applied under the wallet locks of every
+ * wallet it touches and written with JDBC batch inserts (transaction and
+ * holding ids come from pooled sequences). A trade that fails validation only
+ * fails its own future. If the batch as a whole cannot commit, each trade is
+ * retried in its own transaction so one bad trade never fails its
+ * neighbours. Futures complete only after the commit that made the trade
+ * durable.
+ * <p>
+ * Trade values are computed in exact paise: a BUY is charged its cost rounded
+ * up to the paisa and a SELL is credited its proceeds rounded down, so
+ * rounding never works against the house.
+ */
+@Component
+public class TradeSettler implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TradeSettler.class);
+
+    private final WalletRepository walletRepository;
+    private final HoldingRepository holdingRepository;
+    private final TransactionRepository transactionRepository;
+    private final WalletTransactions walletTransactions;
+    private final WalletJournal walletJournal;
+    private final ThreadFactories threadFactories;
+    private final BlockingQueue<PendingTrade> queue;
+    private final int batchSize;
+    private final long windowNanos;
+    private Thread settleThread;
+    private volatile boolean running;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong settledTrades = new AtomicLong();
+    private final AtomicLong isolatedBatches = new AtomicLong();
+
+    public TradeSettler(WalletRepository walletRepository, HoldingRepository holdingRepository,
+            TransactionRepository transactionRepository, WalletTransactions walletTransactions,
+            WalletJournal walletJournal, ThreadFactories threadFactories,
+            @Value("${trade.settle.batch-size:64}") int batchSize,
+            @Value("${trade.settle.window-ms:2}") long windowMillis,
+            @Value("${trade.settle.queue-capacity:10000}") int queueCapacity) {
+        this.walletRepository = walletRepository;
+        this.holdingRepository = holdingRepository;
+        this.transactionRepository = transactionRepository;
+        this.walletTransactions = walletTransactions;
+        this.walletJournal = walletJournal;
+        this.threadFactories = threadFactories;
+        this.batchSize = batchSize;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        settleThread = threadFactories.named("trade-settle").newThread(this::run);
+        settleThread.start();
+    }
+
+    /**
+     * Stops accepting trades and waits up to ten seconds for the settle thread
+     * to finish what is already queued; anything still queued after that fails.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            settleThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PendingTrade trade;
+        while ((trade = queue.poll()) != null) {
+            trade.result.completeExceptionally(new RuntimeException("Server is shutting down"));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Queues a validated market trade at {@code price}.
+     *
+     * @return completes with the saved transaction once it is committed, or
+     *         exceptionally if the trade was rejected
+     */
+    public CompletableFuture<Transaction> submit(Long walletId, String type, GoldSymbol symbol, Weight amount,
+            Money price) {
+        PendingTrade trade = new PendingTrade(walletId, type, symbol, amount, price, new CompletableFuture<>());
+        if (!running || !queue.offer(trade)) {
+            trade.result.completeExceptionally(new RuntimeException("Server busy, please retry"));
+        }
+        return trade.result;
+    }
+
+    private void run() {
+        List<PendingTrade> batch = new ArrayList<>(batchSize);
+        // On shutdown, keep going until everything already accepted is settled
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingTrade first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingTrade next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                settle(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Trade settlement failed", e);
+                batch.forEach(trade -> trade.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void settle(List<PendingTrade> batch) {
+        Set<Long> walletIds = new LinkedHashSet<>();
+        for (PendingTrade trade : batch) {
+            walletIds.add(trade.walletId);
+        }
+        Object[] outcomes;
+        try {
+            outcomes = walletTransactions.executeAll(walletIds, status -> apply(batch, walletIds));
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} trades failed to commit, settling them one by one: {}", batch.size(),
+                    e.toString());
+            isolatedBatches.incrementAndGet();
+            settleIndividually(batch);
+            return;
+        }
+        batches.incrementAndGet();
+        settledTrades.addAndGet(batch.size());
+        complete(batch, outcomes);
+    }
+
+    private void settleIndividually(List<PendingTrade> batch) {
+        for (PendingTrade trade : batch) {
+            List<PendingTrade> single = List.of(trade);
+            try {
+                complete(single, walletTransactions.execute(trade.walletId,
+                        status -> apply(single, Set.of(trade.walletId))));
+                settledTrades.incrementAndGet();
+            } catch (RuntimeException e) {
+                trade.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static void complete(List<PendingTrade> batch, Object[] outcomes) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (outcomes[i] instanceof Transaction transaction) {
+                batch.get(i).result.complete(transaction);
+            } else {
+                batch.get(i).result.completeExceptionally((RuntimeException) outcomes[i]);
+            }
+        }
+    }
+
+    /**
+     * Applies the trades in order against wallets and holdings read once for
+     * the whole batch. Each outcome is either the new {@link Transaction} or
+     * the exception that rejected the trade; rejected trades change nothing.
+     */
+    private Object[] apply(List<PendingTrade> batch, Set<Long> walletIds) {
+        Map<Long, Wallet> wallets = new HashMap<>();
+        for (Wallet wallet : walletRepository.findAllById(walletIds)) {
+            wallets.put(wallet.getId(), wallet);
+        }
+        Map<String, Holding> holdings = new HashMap<>();
+        for (Holding holding : holdingRepository.findByWalletIdIn(walletIds)) {
+            holdings.put(holding.getWalletId() + ":" + holding.getSymbol(), holding);
+        }
+
+        Object[] outcomes = new Object[batch.size()];
+        long[] balanceDeltas = new long[batch.size()];
+        Set<Wallet> changedWallets = new LinkedHashSet<>();
+        Set<Holding> changedHoldings = new LinkedHashSet<>();
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingTrade trade = batch.get(i);
+            Wallet wallet = wallets.get(trade.walletId);
+            if (wallet == null) {
+                outcomes[i] = new RuntimeException("Wallet not found");
+                continue;
+            }
+            String holdingKey = trade.walletId + ":" + trade.symbol.name();
+            Holding holding = holdings.get(holdingKey);
+            long pricePaise = trade.price.paise();
+            long milligrams = trade.amount.milligrams();
+
+            if ("BUY".equalsIgnoreCase(trade.type)) {
+                long cost = Money.costPaise(pricePaise, milligrams, RoundingMode.UP);
+                long balance = wallet.getBalance().paise();
+                if (balance < cost) {
+                    outcomes[i] = new RuntimeException(MarketMetrics.INSUFFICIENT_FUNDS);
+                    continue;
+                }
+                wallet.setBalance(Money.ofPaise(balance - cost));
+                balanceDeltas[i] = -cost;
+                if (holding == null) {
+                    holding = new Holding();
+                    holding.setWalletId(trade.walletId);
+                    holding.setSymbol(trade.symbol.name());
+                    holding.setQuantity(Weight.ZERO);
+                    holdings.put(holdingKey, holding);
+                }
+                holding.setQuantity(holding.getQuantity().plus(trade.amount));
+                holding.addCost(Money.ofPaise(cost));
+            } else if ("SELL".equalsIgnoreCase(trade.type)) {
+                if (holding == null || holding.getQuantity().milligrams() < milligrams) {
+                    outcomes[i] = new RuntimeException("Insufficient holdings");
+                    continue;
+                }
+                long proceeds = Money.costPaise(pricePaise, milligrams, RoundingMode.DOWN);
+                wallet.setBalance(Money.ofPaise(Math.addExact(wallet.getBalance().paise(), proceeds)));
+                balanceDeltas[i] = proceeds;
+                holding.removeCost(trade.amount, Money.ofPaise(proceeds));
+                holding.setQuantity(holding.getQuantity().minus(trade.amount));
+            } else {
+                outcomes[i] = new IllegalArgumentException("Invalid trade type");
+                continue;
+            }
+            changedWallets.add(wallet);
+            changedHoldings.add(holding);
+
+            Transaction transaction = new Transaction();
+            transaction.setWallet(wallet);
+            transaction.setType(trade.type.toUpperCase());
+            transaction.setSymbol(trade.symbol.name());
+            transaction.setAmount(trade.amount);
+            transaction.setPrice(trade.price);
+            transaction.setTimestamp(LocalDateTime.now());
+            transactions.add(transaction);
+            outcomes[i] = transaction;
+        }
+
+        walletRepository.saveAll(changedWallets);
+        holdingRepository.saveAll(changedHoldings);
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+        // saveAll persists these instances in place; keep the outcome array pointing at them
+        for (int i = 0, t = 0; i < outcomes.length; i++) {
+            if (outcomes[i] instanceof Transaction) {
+                Transaction transaction = saved.get(t++);
+                outcomes[i] = transaction;
+                walletJournal.record(batch.get(i).walletId, JournalEntry.Type.valueOf(transaction.getType()),
+                        balanceDeltas[i], 0, transaction.getId());
+            }
+        }
+        return outcomes;
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("batches", batches.get());
+        stats.put("settledTrades", settledTrades.get());
+        stats.put("isolatedBatches", isolatedBatches.get());
+        stats.put("queued", queue.size());
+        return stats;
+    }
+
+    private record PendingTrade(Long walletId, String type, GoldSymbol symbol, Weight amount, Money price,
+            CompletableFuture<Transaction> result) {
+    }
+}
@@ -1,73 +1,160 @@
 package com.example.goldmarket.service;
 
+import com.example.goldmarket.model.GoldSymbol;
+import com.example.goldmarket.model.Holding;
+import com.example.goldmarket.model.Money;
 import com.example.goldmarket.model.Transaction;
-import com.example.goldmarket.model.User;
+import com.example.goldmarket.model.TransactionView;
 import com.example.goldmarket.model.Wallet;
+import com.example.goldmarket.model.Weight;
+import com.example.goldmarket.repository.HoldingRepository;
 import com.example.goldmarket.repository.TransactionRepository;
-import com.example.goldmarket.repository.UserRepository;
 import com.example.goldmarket.repository.WalletRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class UserService {
 
-    private final UserRepository userRepository;
+    private static final int MAX_HISTORY_PAGE = 200;
+
     private final WalletRepository walletRepository;
     private final TransactionRepository transactionRepository;
+    private final HoldingRepository holdingRepository;
     private final LivePriceService livePriceService;
+    private final TradeSettler tradeSettler;
+    private final WalletRefCache walletRefCache;
+    private final MarketMetrics marketMetrics;
 
-    public UserService(UserRepository userRepository, WalletRepository walletRepository,
-            TransactionRepository transactionRepository, LivePriceService livePriceService) {
-        this.userRepository = userRepository;
+    public UserService(WalletRepository walletRepository,
+            TransactionRepository transactionRepository, HoldingRepository holdingRepository,
+            LivePriceService livePriceService, TradeSettler tradeSettler,
+            WalletRefCache walletRefCache, MarketMetrics marketMetrics) {
         this.walletRepository = walletRepository;
         this.transactionRepository = transactionRepository;
+        this.holdingRepository = holdingRepository;
         this.livePriceService = livePriceService;
+        this.tradeSettler = tradeSettler;
+        this.walletRefCache = walletRefCache;
+        this.marketMetrics = marketMetrics;
     }
 
     public Wallet getWallet(String email) {
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
-        return walletRepository.findByUserId(user.getId()).orElseThrow(() -> new RuntimeException("Wallet not found"));
+        Long walletId = getWalletId(email);
+        return walletRepository.findById(walletId).orElseThrow(() -> {
+            walletRefCache.evict(email);
+            return new RuntimeException("Wallet not found");
+        });
     }
 
-    public List<Transaction> getHistory(String email) {
-        Wallet wallet = getWallet(email);
-        return transactionRepository.findByWalletIdOrderByTimestampDesc(wallet.getId());
+    /**
+     * Resolves the caller's wallet id, normally without touching the database.
+     */
+    public Long getWalletId(String email) {
+        return walletRefCache.get(email).walletId();
     }
 
-    @Transactional
-    public Transaction trade(String email, String type, String symbol, BigDecimal amount) {
-        Wallet wallet = getWallet(email);
-        BigDecimal currentPrice = livePriceService.getPrice(symbol);
-        BigDecimal totalCost = currentPrice.multiply(amount);
-
-        if ("BUY".equalsIgnoreCase(type)) {
-            if (wallet.getBalance().compareTo(totalCost) < 0) {
-                throw new RuntimeException("Insufficient funds");
-            }
-            wallet.setBalance(wallet.getBalance().subtract(totalCost));
-        } else if ("SELL".equalsIgnoreCase(type)) {
-            // Simplified: Not checking if user owns the asset for this mock, just adding
-            // funds
-            wallet.setBalance(wallet.getBalance().add(totalCost));
-        } else {
-            throw new IllegalArgumentException("Invalid trade type");
+    /**
+     * One page of history. With {@code before}, returns older rows than that
+     * transaction, newest first. With {@code since}, returns only rows newer than
+     * that transaction, oldest first, so pollers can keep passing the last id
+     * they saw. With neither, returns the latest rows.
+     */
+    public List<TransactionView> getHistory(String email, Long before, Long since, int limit) {
+        Long walletId = getWalletId(email);
+        Pageable page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_HISTORY_PAGE)));
+        if (since != null) {
+            return transactionRepository.findSince(walletId, since, page);
+        }
+        if (before != null) {
+            return transactionRepository.findBefore(walletId, before, page);
         }
+        return transactionRepository.findLatest(walletId, page);
+    }
 
-        walletRepository.save(wallet);
+    /**
+     * Executes a market trade at the current price and waits until it is
+     * committed.
+     */
+    public Transaction trade(String email, String type, String symbol, Weight amount) {
+        try {
+            return tradeAsync(email, type, symbol, amount).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
 
-        Transaction transaction = new Transaction();
-        transaction.setWallet(wallet);
-        transaction.setType(type.toUpperCase());
-        transaction.setSymbol(symbol);
-        transaction.setAmount(amount);
-        transaction.setPrice(currentPrice);
-        transaction.setTimestamp(LocalDateTime.now());
+    /**
+     * Prices a market trade at the current snapshot and hands it to the
+     * {@link TradeSettler}; the future completes once it is committed. The
+     * time until then is recorded per side and symbol.
+     */
+    public CompletableFuture<Transaction> tradeAsync(String email, String type, String symbol, Weight amount) {
+        long start = System.nanoTime();
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than 0");
+        }
+        GoldSymbol goldSymbol = GoldSymbol.find(symbol);
+        if (goldSymbol == null) {
+            throw new IllegalArgumentException("Unknown symbol: " + symbol);
+        }
+        Long walletId = getWalletId(email);
+        Money price = livePriceService.getSnapshot().getPrice(goldSymbol);
+        // The balance check and the write happen against a fresh read inside the settlement transaction
+        return tradeSettler.submit(walletId, type, goldSymbol, amount, price).whenComplete((transaction, error) -> {
+            marketMetrics.recordTrade(type, goldSymbol, error == null, start);
+            if (error != null && MarketMetrics.INSUFFICIENT_FUNDS.equals(error.getMessage())) {
+                marketMetrics.recordInsufficientFunds(MarketMetrics.FundsSource.TRADE);
+            }
+        });
+    }
 
-        return transactionRepository.save(transaction);
+    /**
+     * Current holdings valued at the latest price snapshot. Reads one row per
+     * symbol held, never the transaction history. Grams and cash reserved for
+     * open orders still count towards the totals. Position values are
+     * rounded half-up to the paisa; the cost basis is the average cost kept on
+     * each holding.
+     */
+    public Map<String, Object> getPortfolio(String email) {
+        Wallet wallet = getWallet(email);
+        PriceSnapshot snapshot = livePriceService.getSnapshot();
+        List<Map<String, Object>> positions = new ArrayList<>();
+        Money holdingsValue = Money.ZERO;
+        for (Holding holding : holdingRepository.findByWalletId(wallet.getId())) {
+            GoldSymbol symbol = GoldSymbol.valueOf(holding.getSymbol());
+            Money price = snapshot.getPrice(symbol);
+            Weight quantity = holding.getQuantity().plus(holding.getReserved());
+            Money value = price.times(quantity, RoundingMode.HALF_UP);
+            holdingsValue = holdingsValue.plus(value);
+            Map<String, Object> position = new LinkedHashMap<>();
+            position.put("symbol", holding.getSymbol());
+            position.put("quantity", quantity);
+            position.put("reserved", holding.getReserved());
+            position.put("price", price);
+            position.put("value", value);
+            position.put("costBasis", holding.getCostBasis());
+            position.put("unrealizedPnl", value.minus(holding.getCostBasis()));
+            position.put("realizedPnl", holding.getRealizedPnl());
+            positions.add(position);
+        }
+        Map<String, Object> portfolio = new LinkedHashMap<>();
+        portfolio.put("holdings", positions);
+        portfolio.put("holdingsValue", holdingsValue);
+        portfolio.put("cash", wallet.getBalance());
+        portfolio.put("reservedCash", wallet.getReservedBalance());
+        portfolio.put("totalValue", holdingsValue.plus(wallet.getBalance()).plus(wallet.getReservedBalance()));
+        portfolio.put("priceSeq", snapshot.getSequence());
+        portfolio.put("priceTimestamp", snapshot.getTimestamp());
+        return portfolio;
     }
 }
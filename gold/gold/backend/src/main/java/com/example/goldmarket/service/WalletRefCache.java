@@ -0,0 +1,75 @@
+package com.example.goldmarket.service;
+
+import com.example.goldmarket.model.WalletRef;
+import com.example.goldmarket.repository.WalletRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded LRU cache from a principal's email to their user and wallet ids, so
+ * authenticated requests can go straight to a primary-key lookup.
+ * <p>
+ * Entries are put at login and signup, evicted on profile changes, and loaded
+ * with a single query on a miss. Ids never change for an email, so the only
+ * risk of a stale entry is a deleted account, which callers handle by
+ * evicting when the primary-key lookup comes back empty.
+ */
+@Component
+public class WalletRefCache {
+
+    private final WalletRepository walletRepository;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, WalletRef> entries;
+
+    public WalletRefCache(WalletRepository walletRepository,
+            @Value("${wallet.ref-cache.size:10000}") int maxEntries) {
+        this.walletRepository = walletRepository;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, WalletRef> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public WalletRef get(String email) {
+        WalletRef ref;
+        lock.lock();
+        try {
+            ref = entries.get(email);
+        } finally {
+            lock.unlock();
+        }
+        if (ref == null) {
+            ref = walletRepository.findRefByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+            put(email, ref);
+        }
+        return ref;
+    }
+
+    public void put(String email, Long userId, Long walletId) {
+        put(email, new WalletRef(userId, walletId));
+    }
+
+    public void evict(String email) {
+        lock.lock();
+        try {
+            entries.remove(email);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(String email, WalletRef ref) {
+        lock.lock();
+        try {
+            entries.put(email, ref);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.goldmarket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs balance-changing work for one wallet as a transaction that cannot lose
+ * updates.
+ * <p>
+ * Within this process, work on the same wallet is serialized through a striped
+ * lock that is taken before the transaction starts, so waiting callers hold no
+ * database connection. Across processes, {@code Wallet.version} turns a
+ * concurrent write into an optimistic locking failure, which is retried with a
+ * fresh read up to {@code wallet.tx.max-attempts} times.
+ * <p>
+ * Each stripe also counts the work that has run under it, so caches derived
+ * from a wallet can tell from {@link #generation} whether it may have changed
+ * without reading it.
+ */
+@Component
+public class WalletTransactions {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletTransactions.class);
+
+    private static final int STRIPES = 1024; // power of two
+
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final int maxAttempts;
+
+    public WalletTransactions(PlatformTransactionManager transactionManager,
+            @Value("${wallet.tx.max-attempts:5}") int maxAttempts) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T execute(Long walletId, TransactionCallback<T> work) {
+        int stripe = stripe(walletId);
+        ReentrantLock lock = stripes[stripe];
+        lock.lock();
+        try {
+            return executeWithRetry(work);
+        } finally {
+            generations.incrementAndGet(stripe);
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Like {@link #execute} for work that touches several wallets in one
+     * transaction. Stripes are locked in ascending order, the only order in
+     * which any caller holds more than one, so this cannot deadlock.
+     */
+    public <T> T executeAll(Collection<Long> walletIds, TransactionCallback<T> work) {
+        int[] locked = walletIds.stream().mapToInt(WalletTransactions::stripe).distinct().sorted().toArray();
+        int held = 0;
+        try {
+            for (int stripe : locked) {
+                stripes[stripe].lock();
+                held++;
+            }
+            return executeWithRetry(work);
+        } finally {
+            for (int i = held - 1; i >= 0; i--) {
+                generations.incrementAndGet(locked[i]);
+                stripes[locked[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Changes whenever work for the wallet (or another wallet on the same
+     * stripe) has finished, committed or not. Read it before reading the
+     * wallet: if it is unchanged later, so is the wallet.
+     */
+    public long generation(Long walletId) {
+        return generations.get(stripe(walletId));
+    }
+
+    /**
+     * Splits wallets into {@code shards} groups that never share a lock
+     * stripe, so batches for different groups never wait on each other here.
+     */
+    public int shard(Long walletId, int shards) {
+        return stripe(walletId) % shards;
+    }
+
+    private <T> T executeWithRetry(TransactionCallback<T> work) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return transactionTemplate.execute(work);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Wallet changed concurrently, retrying (attempt {})", attempt);
+                backOff(attempt);
+            }
+        }
+    }
+
+    private static int stripe(Long walletId) {
+        long h = walletId * 0x9E3779B97F4A7C15L; // spread sequential ids across stripes
+        return (int) (h >>> 54) & (STRIPES - 1);
+    }
+
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1L << Math.min(attempt, 6)) + 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying wallet update", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.goldmarket.service.feed;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of gold prices for {@code LivePriceService}.
+ * <p>
+ * {@link #fetch} is called from the price tick thread and must return
+ * immediately; any I/O belongs on the adapter's own executor. The caller
+ * applies the timeout and keeps the last good prices if a fetch fails.
+ */
+public interface PriceFeed {
+
+    /**
+     * Short name used in logs.
+     */
+    String getName();
+
+    /**
+     * Starts fetching the next quote.
+     *
+     * @param last the last quote that was published, for adapters that derive
+     *             the next price from the previous one
+     */
+    CompletableFuture<PriceQuote> fetch(PriceQuote last);
+}
@@ -0,0 +1,22 @@
+package com.example.goldmarket.service.feed;
+
+import com.example.goldmarket.model.Money;
+
+import java.math.RoundingMode;
+
+/**
+ * Per-gram prices for each purity as delivered by a {@link PriceFeed}.
+ */
+public record PriceQuote(Money gold24K, Money gold22K, Money gold18K) {
+
+    /**
+     * Derives 22K and 18K from 24K the way the Indian retail market quotes them:
+     * 22K is approximately 91.67% of 24K, 18K is approximately 75% of 24K, each
+     * rounded half-up to the paisa.
+     */
+    public static PriceQuote from24K(Money gold24K) {
+        return new PriceQuote(gold24K,
+                gold24K.scale(9167, 10000, RoundingMode.HALF_UP),
+                gold24K.scale(3, 4, RoundingMode.HALF_UP));
+    }
+}
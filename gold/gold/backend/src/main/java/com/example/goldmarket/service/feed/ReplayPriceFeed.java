@@ -0,0 +1,112 @@
+package com.example.goldmarket.service.feed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Replays recorded ticks from a local file (see {@link TickFileReader} for the
+ * formats) so the trade path can be exercised against realistic, bursty price
+ * movement without a live upstream.
+ * <p>
+ * The recording is played back on a virtual clock running {@code speed} times
+ * faster than wall time; each fetch returns the latest recorded tick at or
+ * before the virtual now, so bursts between two fetches collapse into the most
+ * recent price. A speed of zero or less ignores recorded timing and advances
+ * one tick per fetch, which is the fastest possible replay.
+ */
+public class ReplayPriceFeed implements PriceFeed, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplayPriceFeed.class);
+
+    private final Path file;
+    private final double speed;
+    private final boolean loop;
+    private final ExecutorService executor;
+
+    // Only touched from the single executor thread
+    private TickFileReader reader;
+    private boolean hasPending;
+    private long firstTimestamp;
+    private long wallStartNanos;
+    private PriceQuote current;
+
+    public ReplayPriceFeed(Path file, double speed, boolean loop, ThreadFactory threadFactory) {
+        this.file = file;
+        this.speed = speed;
+        this.loop = loop;
+        this.executor = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    @Override
+    public String getName() {
+        return "replay:" + file.getFileName();
+    }
+
+    @Override
+    public CompletableFuture<PriceQuote> fetch(PriceQuote last) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                PriceQuote quote = advance();
+                return quote != null ? quote : last;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    private PriceQuote advance() throws IOException {
+        if (reader == null) {
+            rewind();
+        }
+        if (speed <= 0) {
+            if (hasPending) {
+                current = reader.getQuote();
+                hasPending = reader.next();
+            }
+        } else {
+            long replayNow = firstTimestamp + (long) ((System.nanoTime() - wallStartNanos) / 1_000_000.0 * speed);
+            while (hasPending && reader.getTimestamp() <= replayNow) {
+                current = reader.getQuote();
+                hasPending = reader.next();
+            }
+        }
+        if (!hasPending && loop) {
+            log.debug("Replay of {} reached end of file, starting over", file);
+            rewind();
+        }
+        return current;
+    }
+
+    private void rewind() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+        reader = TickFileReader.open(file);
+        hasPending = reader.next();
+        if (!hasPending) {
+            throw new IOException("Replay file " + file + " contains no ticks");
+        }
+        firstTimestamp = reader.getTimestamp();
+        wallStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException ignored) {
+                // Shutting down anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.goldmarket.service.feed;
+
+import com.example.goldmarket.model.Money;
+
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Random walk of +/- 0.1% per tick on the 24K price, kept within realistic
+ * bounds for India gold prices.
+ */
+public class SimulatedPriceFeed implements PriceFeed {
+
+    private static final long UPPER_BOUND_PAISE = 13500_00;
+    private static final long LOWER_BOUND_PAISE = 11500_00;
+
+    // Steps are drawn in millionths of the price, so the walk stays in exact paise
+    private static final long STEP_SCALE = 1_000_000;
+    private static final int MAX_STEP = 1_000; // 0.1%
+
+    private final Random random = new Random();
+
+    @Override
+    public String getName() {
+        return "simulator";
+    }
+
+    @Override
+    public CompletableFuture<PriceQuote> fetch(PriceQuote last) {
+        return CompletableFuture.completedFuture(next(last));
+    }
+
+    public PriceQuote next(PriceQuote last) {
+        long step = random.nextInt(2 * MAX_STEP + 1) - MAX_STEP; // +/- 0.1%
+
+        Money gold24K = last.gold24K();
+        gold24K = gold24K.plus(gold24K.scale(step, STEP_SCALE, RoundingMode.HALF_EVEN));
+
+        // Keep prices within realistic bounds
+        if (gold24K.paise() > UPPER_BOUND_PAISE) {
+            gold24K = Money.ofPaise(13400_00);
+        } else if (gold24K.paise() < LOWER_BOUND_PAISE) {
+            gold24K = Money.ofPaise(11600_00);
+        }
+        return PriceQuote.from24K(gold24K);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.goldmarket.service.feed;
+
+import com.example.goldmarket.model.Money;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Sequential reader for recorded tick files.
+ * <p>
+ * Two formats are supported, chosen by file extension:
+ * <ul>
+ * <li>{@code .csv}: {@code timestamp,gold24K[,gold22K,gold18K]} per line, where the
+ * timestamp is epoch millis or ISO-8601. Blank lines, {@code #} comments and a
+ * header line are skipped. Missing 22K/18K prices are derived from 24K.</li>
+ * <li>{@code .bin}: fixed 32-byte big-endian records of
+ * {@code long epochMillis, long paise24K, long paise22K, long paise18K}; a zero
+ * 22K or 18K price is derived from 24K.</li>
+ * </ul>
+ */
+public abstract class TickFileReader implements Closeable {
+
+    protected long timestamp;
+    protected PriceQuote quote;
+
+    public static TickFileReader open(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".bin")) {
+            return new BinaryReader(file);
+        }
+        return new CsvReader(file);
+    }
+
+    /**
+     * Advances to the next tick.
+     *
+     * @return {@code false} at end of file
+     */
+    public abstract boolean next() throws IOException;
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public PriceQuote getQuote() {
+        return quote;
+    }
+
+    private static final class CsvReader extends TickFileReader {
+
+        private final BufferedReader reader;
+        private final Path file;
+        private long lineNumber;
+
+        CsvReader(Path file) throws IOException {
+            this.file = file;
+            this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (lineNumber == 1 && !Character.isDigit(fields[0].trim().charAt(0))) {
+                    continue; // header
+                }
+                try {
+                    timestamp = parseTimestamp(fields[0].trim());
+                    quote = fields.length >= 4
+                            ? new PriceQuote(Money.parse(fields[1], RoundingMode.UNNECESSARY),
+                                    Money.parse(fields[2], RoundingMode.UNNECESSARY),
+                                    Money.parse(fields[3], RoundingMode.UNNECESSARY))
+                            : PriceQuote.from24K(Money.parse(fields[1], RoundingMode.HALF_UP));
+                } catch (RuntimeException e) {
+                    throw new IOException("Malformed tick at " + file + ":" + lineNumber + ": " + line, e);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        private static long parseTimestamp(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                if (!Character.isDigit(value.charAt(i))) {
+                    return Instant.parse(value).toEpochMilli();
+                }
+            }
+            return Long.parseLong(value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class BinaryReader extends TickFileReader {
+
+        private final DataInputStream in;
+
+        BinaryReader(Path file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            long paise24K;
+            try {
+                timestamp = in.readLong();
+                paise24K = in.readLong();
+            } catch (EOFException e) {
+                return false;
+            }
+            long paise22K = in.readLong();
+            long paise18K = in.readLong();
+            Money gold24K = Money.ofPaise(paise24K);
+            quote = paise22K > 0 && paise18K > 0
+                    ? new PriceQuote(gold24K, Money.ofPaise(paise22K), Money.ofPaise(paise18K))
+                    : PriceQuote.from24K(gold24K);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.goldmarket.service.journal;
+
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.Wallet;
+import com.example.goldmarket.model.WalletBalance;
+import com.example.goldmarket.repository.WalletRepository;
+import com.example.goldmarket.service.WalletTransactions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks every wallet's balances in the database against the journal. Runs
+ * once at startup after a recovery; as the actuator endpoint
+ * {@code journal} it is only reachable where the operator exposes it, since
+ * it reports every user's balances and rebuilds the whole journal per call.
+ * <p>
+ * Balances are rebuilt from the files on disk, then all wallets are read in
+ * one query and compared. Trading goes on meanwhile, so a wallet that changed
+ * between the two reads looks wrong; each one that differs is compared again
+ * under its lock with the journal writer's running totals, once everything
+ * committed has been written, and only reported if it still differs.
+ */
+@Component
+@Endpoint(id = "journal")
+public class JournalChecker {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalChecker.class);
+
+    private static final int MISMATCHES_LISTED = 100;
+
+    private final WalletJournal walletJournal;
+    private final WalletRepository walletRepository;
+    private final WalletTransactions walletTransactions;
+
+    /**
+     * A wallet whose balances in the database are not what its journal
+     * entries add up to; {@code null} on the side that has no such wallet.
+     */
+    public record Mismatch(Long walletId, Money journalBalance, Money databaseBalance, Money journalReserved,
+            Money databaseReserved) {
+    }
+
+    public record Report(boolean enabled, boolean consistent, long wallets, long journalSequence,
+            long snapshotSequence, long replayedEntries, long rebuildMillis, long checkMillis, long mismatches,
+            List<Mismatch> firstMismatches) {
+    }
+
+    public JournalChecker(WalletJournal walletJournal, WalletRepository walletRepository,
+            WalletTransactions walletTransactions) {
+        this.walletJournal = walletJournal;
+        this.walletRepository = walletRepository;
+        this.walletTransactions = walletTransactions;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkRecoveredJournal() {
+        if (!walletJournal.isRecovered()) {
+            return; // Started from the database, so nothing to compare yet
+        }
+        Report report = check();
+        if (report.consistent()) {
+            log.info("Wallet journal matches all {} wallet(s)", report.wallets());
+        } else {
+            log.error("Wallet journal disagrees with the database for {} wallet(s), e.g. {}", report.mismatches(),
+                    report.firstMismatches());
+        }
+    }
+
+    @ReadOperation
+    public Report check() {
+        if (!walletJournal.isEnabled() || walletJournal.isFailed()) {
+            return new Report(walletJournal.isEnabled(), false, 0, 0, 0, 0, 0, 0, 0, List.of());
+        }
+        long started = System.nanoTime();
+        JournalFiles.Rebuilt rebuilt;
+        try {
+            rebuilt = walletJournal.rebuild();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the wallet journal", e);
+        }
+        long rebuildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // Read after the rebuild, so the database is never behind the journal we compare it with
+        List<WalletBalance> wallets = walletRepository.findAllBalances();
+        Map<Long, long[]> journal = rebuilt.balances();
+        Set<Long> seen = new HashSet<>(wallets.size());
+        List<Long> suspects = new ArrayList<>();
+        for (WalletBalance wallet : wallets) {
+            seen.add(wallet.walletId());
+            long[] balance = journal.get(wallet.walletId());
+            if (balance == null || balance[0] != wallet.balance().paise()
+                    || balance[1] != wallet.reservedBalance().paise()) {
+                suspects.add(wallet.walletId());
+            }
+        }
+
+        List<Mismatch> mismatches = new ArrayList<>();
+        for (Long walletId : suspects) {
+            Mismatch mismatch = recheck(walletId);
+            if (mismatch != null) {
+                mismatches.add(mismatch);
+            }
+        }
+        for (Map.Entry<Long, long[]> entry : journal.entrySet()) {
+            if (!seen.contains(entry.getKey())) {
+                long[] balance = entry.getValue();
+                mismatches.add(new Mismatch(entry.getKey(), Money.ofPaise(balance[0]), null,
+                        Money.ofPaise(balance[1]), null));
+            }
+        }
+        return new Report(true, mismatches.isEmpty(), wallets.size(), rebuilt.sequence(),
+                rebuilt.snapshotSequence(), rebuilt.replayed(), rebuildMillis,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), mismatches.size(),
+                mismatches.subList(0, Math.min(mismatches.size(), MISMATCHES_LISTED)));
+    }
+
+    /**
+     * Compares the wallet again while nothing can change it, once every change
+     * already committed is in the journal.
+     */
+    private Mismatch recheck(Long walletId) {
+        return walletTransactions.execute(walletId, status -> {
+            Wallet wallet = walletRepository.findById(walletId).orElse(null);
+            walletJournal.flush();
+            long[] journal = walletJournal.getBalance(walletId);
+            if (wallet != null && journal != null && journal[0] == wallet.getBalance().paise()
+                    && journal[1] == wallet.getReservedBalance().paise()) {
+                return null;
+            }
+            return new Mismatch(walletId, journal == null ? null : Money.ofPaise(journal[0]),
+                    wallet == null ? null : wallet.getBalance(), journal == null ? null : Money.ofPaise(journal[1]),
+                    wallet == null ? null : wallet.getReservedBalance());
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.goldmarket.service.journal;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * One balance change in the wallet journal: how much a wallet's available
+ * and reserved cash moved, in paise, and why.
+ * <p>
+ * On disk every entry is a fixed 56-byte big-endian record of
+ * {@code long sequence, long epochMillis, long walletId, long balanceDelta,
+ * long reservedDelta, long reference, int type, int crc}, where the CRC-32C
+ * covers the first 52 bytes. A record that fails its check marks the end of
+ * what was written before a crash.
+ */
+public record JournalEntry(long sequence, long timestamp, long walletId, Type type, long balanceDelta,
+        long reservedDelta, long reference) {
+
+    public static final int BYTES = 6 * Long.BYTES + 2 * Integer.BYTES;
+
+    private static final int CHECKED_BYTES = BYTES - Integer.BYTES;
+    private static final Type[] TYPES = Type.values();
+
+    /**
+     * What moved the money. {@code reference} points at the row behind it.
+     */
+    public enum Type {
+        /** Balance the wallet was created with; reference is the user id. */
+        OPENING,
+        /** Settled deposit; reference is the deposit id. */
+        DEPOSIT,
+        /** Cash spent on gold by a trade, filled order or SIP run; reference is the transaction id. */
+        BUY,
+        /** Cash received for gold; reference is the transaction id. */
+        SELL,
+        /** Cash set aside for an open BUY order; reference is the order id. */
+        RESERVE,
+        /** Reserved cash returned when an order is cancelled or filled; reference is the order id. */
+        RELEASE
+    }
+
+    /**
+     * Writes this entry as {@code sequence}, ignoring its own.
+     */
+    void writeTo(ByteBuffer buffer, long sequence) {
+        int start = buffer.position();
+        buffer.putLong(sequence)
+                .putLong(timestamp)
+                .putLong(walletId)
+                .putLong(balanceDelta)
+                .putLong(reservedDelta)
+                .putLong(reference)
+                .putInt(type.ordinal());
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start, CHECKED_BYTES));
+        buffer.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Reads the entry at the buffer's position.
+     *
+     * @return {@code null}, with the position unchanged, if the record is torn
+     *         or corrupt
+     */
+    static JournalEntry readFrom(ByteBuffer buffer) {
+        int start = buffer.position();
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start, CHECKED_BYTES));
+        int type = buffer.getInt(start + CHECKED_BYTES - Integer.BYTES);
+        if ((int) crc.getValue() != buffer.getInt(start + CHECKED_BYTES) || type < 0 || type >= TYPES.length) {
+            return null;
+        }
+        JournalEntry entry = new JournalEntry(buffer.getLong(), buffer.getLong(), buffer.getLong(), TYPES[type],
+                buffer.getLong(), buffer.getLong(), buffer.getLong());
+        buffer.position(start + BYTES);
+        return entry;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.goldmarket.service.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * The journal's directory layout and the code that reads it back.
+ * <p>
+ * Entries go into segment files named after the sequence of their first
+ * entry, {@code segment-00000000000000000001.log}, each holding whole
+ * {@link JournalEntry} records. A snapshot, {@code snapshot-<sequence>.snap},
+ * holds every wallet's balances as of that sequence: a header of
+ * {@code int magic, long sequence, int wallets}, one
+ * {@code long walletId, long balance, long reserved} per wallet, and a
+ * CRC-32C of everything before it. Rebuilding balances reads the newest
+ * intact snapshot and only the entries after it.
+ */
+public final class JournalFiles {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalFiles.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int SNAPSHOT_MAGIC = 0x574A534E; // "WJSN"
+    private static final int SNAPSHOT_HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int SNAPSHOT_RECORD_BYTES = 3 * Long.BYTES;
+    private static final int SNAPSHOTS_KEPT = 2;
+    private static final int READ_BUFFER_BYTES = JournalEntry.BYTES * 16384;
+
+    /**
+     * Balances rebuilt from disk, keyed by wallet id as
+     * {@code {balancePaise, reservedPaise}}.
+     *
+     * @param lastSegment the segment holding the last entry, {@code null} if
+     *                    there are none
+     * @param validBytes  how much of {@code lastSegment} holds intact entries
+     */
+    public record Rebuilt(Map<Long, long[]> balances, long snapshotSequence, long sequence, long replayed,
+            Path lastSegment, long validBytes) {
+    }
+
+    private JournalFiles() {
+    }
+
+    static Path segment(Path dir, long firstSequence) {
+        return dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Reads the newest intact snapshot and replays every entry after it.
+     * Stops at the first torn or out-of-sequence entry.
+     */
+    public static Rebuilt rebuild(Path dir) throws IOException {
+        Map<Long, long[]> balances = new HashMap<>();
+        long snapshotSequence = 0;
+        List<Path> snapshots = list(dir, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Path snapshot = snapshots.get(i);
+            try {
+                snapshotSequence = readSnapshot(snapshot, balances);
+                break;
+            } catch (NoSuchFileException e) {
+                // Superseded and deleted while we were listing
+            } catch (IOException e) {
+                log.warn("Skipping unreadable journal snapshot {}: {}", snapshot.getFileName(), e.getMessage());
+            }
+            balances.clear();
+        }
+
+        List<Path> segments = list(dir, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        // The last segment starting at or before the first entry we need
+        int first = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (firstSequence(segments.get(i)) <= snapshotSequence + 1) {
+                first = i;
+            }
+        }
+        long sequence = snapshotSequence;
+        long replayed = 0;
+        Path lastSegment = null;
+        long validBytes = 0;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+        for (int i = first; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            if (firstSequence(segment) > sequence + 1) {
+                log.warn("Journal segment {} does not follow entry {}, ignoring it and later segments",
+                        segment.getFileName(), sequence);
+                break;
+            }
+            lastSegment = segment;
+            validBytes = 0;
+            boolean intact = true;
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                // Entries are fixed-size, so skip straight past those already in the snapshot
+                long skipped = Math.max(0, sequence + 1 - firstSequence(segment)) * JournalEntry.BYTES;
+                validBytes = Math.min(skipped, channel.size() / JournalEntry.BYTES * JournalEntry.BYTES);
+                channel.position(validBytes);
+                buffer.clear();
+                while (intact && channel.read(buffer) > 0) {
+                    buffer.flip();
+                    while (buffer.remaining() >= JournalEntry.BYTES) {
+                        JournalEntry entry = JournalEntry.readFrom(buffer);
+                        if (entry == null || entry.sequence() > sequence + 1) {
+                            intact = false;
+                            break;
+                        }
+                        validBytes += JournalEntry.BYTES;
+                        if (entry.sequence() <= sequence) {
+                            continue; // Already in the snapshot
+                        }
+                        apply(balances, entry.walletId(), entry.balanceDelta(), entry.reservedDelta());
+                        sequence = entry.sequence();
+                        replayed++;
+                    }
+                    buffer.compact();
+                }
+            }
+            if (!intact) {
+                break;
+            }
+        }
+        return new Rebuilt(balances, snapshotSequence, sequence, replayed, lastSegment, validBytes);
+    }
+
+    static void apply(Map<Long, long[]> balances, long walletId, long balanceDelta, long reservedDelta) {
+        long[] balance = balances.computeIfAbsent(walletId, id -> new long[2]);
+        balance[0] += balanceDelta;
+        balance[1] += reservedDelta;
+    }
+
+    /**
+     * Writes the balances as of {@code sequence} to a new snapshot, forced to
+     * disk before it replaces anything, and drops all but the newest few.
+     */
+    static void writeSnapshot(Path dir, long sequence, Map<Long, long[]> balances) throws IOException {
+        Path target = dir.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+        Path temp = dir.resolve(target.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_RECORD_BYTES * 8192);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(SNAPSHOT_MAGIC).putLong(sequence).putInt(balances.size());
+            for (Map.Entry<Long, long[]> entry : balances.entrySet()) {
+                if (buffer.remaining() < SNAPSHOT_RECORD_BYTES) {
+                    write(channel, buffer, crc);
+                }
+                buffer.putLong(entry.getKey()).putLong(entry.getValue()[0]).putLong(entry.getValue()[1]);
+            }
+            write(channel, buffer, crc);
+            buffer.putInt((int) crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        List<Path> snapshots = list(dir, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        for (int i = 0; i < snapshots.size() - SNAPSHOTS_KEPT; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    /**
+     * Removes the segments after {@code lastSegment}, which a rebuild that
+     * stopped inside it could not reach.
+     */
+    static void deleteSegmentsAfter(Path dir, Path lastSegment) throws IOException {
+        for (Path path : list(dir, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (path.getFileName().compareTo(lastSegment.getFileName()) > 0) {
+                log.warn("Removing unreachable journal segment {}", path.getFileName());
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Removes every segment and snapshot in {@code dir}.
+     */
+    static void deleteAll(Path dir) throws IOException {
+        for (Path path : list(dir, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            Files.delete(path);
+        }
+        for (Path path : list(dir, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            Files.delete(path);
+        }
+    }
+
+    private static long readSnapshot(Path snapshot, Map<Long, long[]> balances) throws IOException {
+        ByteBuffer contents = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+        if (contents.remaining() < SNAPSHOT_HEADER_BYTES + Integer.BYTES || contents.getInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("not a journal snapshot");
+        }
+        long sequence = contents.getLong();
+        int wallets = contents.getInt();
+        int checked = SNAPSHOT_HEADER_BYTES + wallets * SNAPSHOT_RECORD_BYTES;
+        if (wallets < 0 || contents.limit() != checked + Integer.BYTES) {
+            throw new IOException("truncated");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(contents.slice(0, checked));
+        if ((int) crc.getValue() != contents.getInt(checked)) {
+            throw new IOException("checksum mismatch");
+        }
+        for (int i = 0; i < wallets; i++) {
+            balances.put(contents.getLong(), new long[] { contents.getLong(), contents.getLong() });
+        }
+        return sequence;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, CRC32C crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // Sorted oldest first; the zero-padded names sort numerically
+    private static List<Path> list(Path dir, String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(suffix);
+            }).sorted().toList();
+        }
+    }
+}
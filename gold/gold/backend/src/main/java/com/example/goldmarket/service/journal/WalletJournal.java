@@ -0,0 +1,355 @@
+package com.example.goldmarket.service.journal;
+
+import com.example.goldmarket.config.ThreadFactories;
+import com.example.goldmarket.model.WalletBalance;
+import com.example.goldmarket.repository.WalletRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only journal of every change to a wallet's cash, kept next to the
+ * database in {@code wallet.journal.dir}.
+ * <p>
+ * Services call {@link #record} where they change a balance. Inside a
+ * transaction the entry is held back until it commits, and dropped if it rolls
+ * back, so the journal only ever holds committed changes. Balance changes
+ * commit under the wallet's lock, so a wallet's entries reach the journal in
+ * the order they happened.
+ * <p>
+ * One writer thread numbers the entries, appends them to the current segment
+ * file and forces it to disk once per batch, so a burst of changes shares one
+ * fsync. Callers do not wait for it. The writer also keeps every wallet's
+ * balances as summed from the journal, and every
+ * {@code wallet.journal.snapshot-every} entries writes them out as a
+ * snapshot, so a rebuild only replays the entries after the newest one (see
+ * {@link JournalFiles}). Segments are kept for auditing.
+ * <p>
+ * On startup the journal is recovered from disk: a torn last entry is cut off
+ * and numbering carries on. An empty journal starts with an {@code OPENING}
+ * entry for each wallet already in the database. The default database is
+ * in memory and starts empty, so {@code wallet.journal.reset-on-start}
+ * clears the old journal first; turn it off with a persistent database.
+ * <p>
+ * If the journal cannot be written it logs the error and stops recording,
+ * like the tick spill file; trading carries on.
+ */
+@Component
+public class WalletJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletJournal.class);
+
+    private static final int WRITE_BATCH = 4096;
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final long snapshotEvery;
+    private final BlockingQueue<JournalEntry> queue;
+    private final Map<Long, long[]> balances = new ConcurrentHashMap<>();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(JournalEntry.BYTES * WRITE_BATCH);
+    private final Thread writerThread;
+    private final boolean recovered;
+    private volatile boolean running = true;
+    private volatile boolean failed;
+
+    private FileChannel segment;
+    private volatile long sequence; // Written by the writer thread only
+    private long snapshotSequence;
+
+    // Entries handed to the writer, and how many of those are on disk
+    private final AtomicLong enqueued = new AtomicLong();
+    private volatile long written;
+    private final ReentrantLock writtenLock = new ReentrantLock();
+    private final Condition writtenChanged = writtenLock.newCondition();
+    private final AtomicLong fsyncs = new AtomicLong();
+    private final AtomicLong snapshots = new AtomicLong();
+
+    public WalletJournal(WalletRepository walletRepository, ThreadFactories threadFactories,
+            @Value("${wallet.journal.dir:}") String dir,
+            @Value("${wallet.journal.reset-on-start:true}") boolean resetOnStart,
+            @Value("${wallet.journal.segment-size-mb:64}") long segmentSizeMb,
+            @Value("${wallet.journal.snapshot-every:100000}") long snapshotEvery,
+            @Value("${wallet.journal.queue-capacity:65536}") int queueCapacity) throws IOException {
+        if (segmentSizeMb <= 0 || snapshotEvery < 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("wallet.journal sizes must be positive");
+        }
+        this.segmentBytes = segmentSizeMb * 1024 * 1024 / JournalEntry.BYTES * JournalEntry.BYTES;
+        this.snapshotEvery = snapshotEvery;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        if (dir.isBlank()) {
+            this.dir = null;
+            this.recovered = false;
+            this.writerThread = null;
+            log.info("Wallet journal disabled");
+            return;
+        }
+
+        this.dir = Path.of(dir);
+        Files.createDirectories(this.dir);
+        if (resetOnStart) {
+            JournalFiles.deleteAll(this.dir);
+        }
+        JournalFiles.Rebuilt rebuilt = JournalFiles.rebuild(this.dir);
+        balances.putAll(rebuilt.balances());
+        sequence = rebuilt.sequence();
+        snapshotSequence = rebuilt.snapshotSequence();
+        recovered = sequence > 0;
+        // Carry on in the segment the rebuild ended in, cutting off anything it could not read
+        Path last = rebuilt.lastSegment() != null ? rebuilt.lastSegment()
+                : JournalFiles.segment(this.dir, sequence + 1);
+        JournalFiles.deleteSegmentsAfter(this.dir, last);
+        segment = FileChannel.open(last, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        segment.truncate(rebuilt.validBytes());
+        segment.position(rebuilt.validBytes());
+
+        if (recovered) {
+            log.info("Wallet journal recovered at entry {} ({} replayed after snapshot {}) in {}", sequence,
+                    rebuilt.replayed(), snapshotSequence, this.dir.toAbsolutePath());
+        } else {
+            List<WalletBalance> existing = walletRepository.findAllBalances();
+            long now = System.currentTimeMillis();
+            for (WalletBalance wallet : existing) {
+                append(new JournalEntry(0, now, wallet.walletId(), JournalEntry.Type.OPENING,
+                        wallet.balance().paise(), wallet.reservedBalance().paise(), 0));
+            }
+            flushBuffer();
+            segment.force(false);
+            log.info("Wallet journal started in {} with {} existing wallet(s)", this.dir.toAbsolutePath(),
+                    existing.size());
+        }
+        this.writerThread = threadFactories.named("wallet-journal").newThread(this::run);
+        writerThread.start();
+    }
+
+    public boolean isEnabled() {
+        return dir != null;
+    }
+
+    /**
+     * Whether this run picked up a journal left by an earlier one, rather than
+     * starting a new journal from the database.
+     */
+    public boolean isRecovered() {
+        return recovered;
+    }
+
+    /**
+     * Journals a change of {@code balanceDelta} paise to the wallet's available
+     * cash and {@code reservedDelta} to its reserved cash. Inside a transaction
+     * it is written only if and once the transaction commits.
+     */
+    public void record(Long walletId, JournalEntry.Type type, long balanceDelta, long reservedDelta,
+            long reference) {
+        if (dir == null || failed) {
+            return;
+        }
+        JournalEntry entry = new JournalEntry(0, System.currentTimeMillis(), walletId, type, balanceDelta,
+                reservedDelta, reference);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(entry);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<JournalEntry> pending = (List<JournalEntry>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<JournalEntry> entries = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, entries);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.forEach(WalletJournal.this::enqueue);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(WalletJournal.this);
+                }
+            });
+            pending = entries;
+        }
+        pending.add(entry);
+    }
+
+    private void enqueue(JournalEntry entry) {
+        enqueued.incrementAndGet();
+        try {
+            // Blocks if the writer falls this far behind rather than lose the entry
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while journaling a {} for wallet {}; the journal is now incomplete",
+                    entry.type(), entry.walletId());
+        }
+    }
+
+    /**
+     * Waits until everything recorded before this call is on disk.
+     *
+     * @return {@code false} if the journal is disabled or has failed
+     */
+    public boolean flush() {
+        long target = enqueued.get();
+        writtenLock.lock();
+        try {
+            while (written < target && !failed && writerThread != null && writerThread.isAlive()) {
+                writtenChanged.await(100, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            writtenLock.unlock();
+        }
+        return dir != null && !failed && written >= target;
+    }
+
+    /**
+     * The wallet's {@code {balancePaise, reservedPaise}} as summed from the
+     * journal so far, or {@code null} if it has no entries. Only stable while
+     * the wallet's lock is held and after {@link #flush}.
+     */
+    public long[] getBalance(Long walletId) {
+        long[] balance = balances.get(walletId);
+        return balance == null ? null : balance.clone();
+    }
+
+    /**
+     * Rebuilds every balance from the files on disk: newest snapshot plus the
+     * entries after it.
+     */
+    public JournalFiles.Rebuilt rebuild() throws IOException {
+        if (dir == null) {
+            throw new IllegalStateException("Wallet journal is disabled");
+        }
+        return JournalFiles.rebuild(dir);
+    }
+
+    private void run() {
+        List<JournalEntry> batch = new ArrayList<>(WRITE_BATCH);
+        // On shutdown, keep going until everything already queued is written
+        while ((running || !queue.isEmpty()) && !failed) {
+            try {
+                JournalEntry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, WRITE_BATCH - 1);
+                for (JournalEntry entry : batch) {
+                    append(entry);
+                }
+                flushBuffer();
+                segment.force(false);
+                fsyncs.incrementAndGet();
+                markWritten(batch.size());
+                if (snapshotEvery > 0 && sequence - snapshotSequence >= snapshotEvery) {
+                    JournalFiles.writeSnapshot(dir, sequence, balances);
+                    snapshotSequence = sequence;
+                    snapshots.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException | RuntimeException e) {
+                log.error("Could not write the wallet journal, disabling it", e);
+                failed = true;
+                queue.clear();
+                markWritten(0);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Writer thread only, or the constructor before it starts
+    private void append(JournalEntry entry) throws IOException {
+        if (segment.position() + buffer.position() + JournalEntry.BYTES > segmentBytes) {
+            flushBuffer();
+            segment.force(false);
+            segment.close();
+            segment = openSegment(sequence + 1);
+        }
+        sequence++;
+        entry.writeTo(buffer, sequence);
+        JournalFiles.apply(balances, entry.walletId(), entry.balanceDelta(), entry.reservedDelta());
+        if (!buffer.hasRemaining()) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private FileChannel openSegment(long firstSequence) throws IOException {
+        return FileChannel.open(JournalFiles.segment(dir, firstSequence), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+    }
+
+    private void markWritten(int entries) {
+        writtenLock.lock();
+        try {
+            written += entries;
+            writtenChanged.signalAll();
+        } finally {
+            writtenLock.unlock();
+        }
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getLag() {
+        return enqueued.get() - written;
+    }
+
+    public long getFsyncs() {
+        return fsyncs.get();
+    }
+
+    public long getSnapshots() {
+        return snapshots.get();
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        if (!writerThread.isAlive()) {
+            segment.close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.goldmarket.service.payment;
+
+import com.example.goldmarket.config.ThreadFactories;
+import com.example.goldmarket.model.Money;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a real payment provider: approves every charge after
+ * {@code payment.mock.delay-ms}, without holding any thread while it waits.
+ */
+@Component
+public class MockPaymentGateway implements PaymentGateway {
+
+    private final long delayMillis;
+    private final ScheduledExecutorService executor;
+
+    public MockPaymentGateway(ThreadFactories threadFactories,
+            @Value("${payment.mock.delay-ms:1000}") long delayMillis) {
+        this.delayMillis = delayMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(threadFactories.named("payment-gateway"));
+    }
+
+    @Override
+    public String getName() {
+        return "mock";
+    }
+
+    @Override
+    public CompletableFuture<String> charge(Long depositId, Money amount) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        // The reference only depends on the deposit, so a retried charge is recognisably the same payment
+        executor.schedule(() -> result.complete("MOCK_" + depositId), delayMillis, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.goldmarket.service.payment;
+
+import com.example.goldmarket.model.Money;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Charges the user for a deposit.
+ * <p>
+ * {@link #charge} is called from request threads and must return immediately;
+ * the gateway completes the future from its own thread once the payment has
+ * gone through, or completes it exceptionally if it was declined.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Short name used in logs.
+     */
+    String getName();
+
+    /**
+     * Starts charging {@code amount} for the given deposit. Charging the same
+     * deposit twice must not take the money twice.
+     *
+     * @return the gateway's reference for the payment
+     */
+    CompletableFuture<String> charge(Long depositId, Money amount);
+}
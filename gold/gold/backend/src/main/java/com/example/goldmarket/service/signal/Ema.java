@@ -0,0 +1,32 @@
+package com.example.goldmarket.service.signal;
+
+/**
+ * Exponential moving average with the usual {@code 2 / (period + 1)}
+ * smoothing, seeded with the first value.
+ */
+final class Ema {
+
+    private final double alpha;
+    private double value;
+    private boolean seeded;
+
+    Ema(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("EMA period must be positive");
+        }
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    void update(double x) {
+        if (seeded) {
+            value += alpha * (x - value);
+        } else {
+            value = x;
+            seeded = true;
+        }
+    }
+
+    double value() {
+        return value;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.goldmarket.service.signal;
+
+/**
+ * Rate of change over the last {@code period} ticks, in percent. Keeps
+ * exactly {@code period + 1} prices in a primitive ring.
+ */
+final class Momentum {
+
+    private final double[] ring;
+    private int head;
+    private int size;
+
+    Momentum(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Momentum period must be positive");
+        }
+        this.ring = new double[period + 1];
+    }
+
+    void update(double x) {
+        ring[head] = x;
+        head = (head + 1) % ring.length;
+        if (size < ring.length) {
+            size++;
+        }
+    }
+
+    double percent() {
+        if (size < 2) {
+            return 0;
+        }
+        double newest = ring[(head - 1 + ring.length) % ring.length];
+        double oldest = ring[(head - size + ring.length) % ring.length];
+        return (newest - oldest) / oldest * 100;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.goldmarket.service.signal;
+
+import java.util.Map;
+
+/**
+ * One published recommendation. Immutable and shared by every reader until
+ * the next tick replaces it.
+ *
+ * @param action         BUY, SELL or HOLD
+ * @param confidence     High, Medium or Low
+ * @param score          combined signal in [-1, 1]; positive favours buying
+ * @param recommendation a few lines of explanation, one indicator per line
+ * @param indicators     the indicator values the score was built from
+ * @param timestamp      epoch millis of the tick it was computed on
+ * @param basedOnTicks   ticks seen by the engine so far
+ */
+public record Recommendation(String action, String confidence, double score, String recommendation,
+        Map<String, Double> indicators, long timestamp, long basedOnTicks) {
+}
@@ -0,0 +1,43 @@
+package com.example.goldmarket.service.signal;
+
+/**
+ * Relative strength index with Wilder's smoothing: the average gain and loss
+ * are themselves running averages, so each tick is O(1). Reads 50 until the
+ * first change has been seen.
+ */
+final class Rsi {
+
+    private final int period;
+    private double previous;
+    private double averageGain;
+    private double averageLoss;
+    private long changes;
+
+    Rsi(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("RSI period must be positive");
+        }
+        this.period = period;
+    }
+
+    void update(double x, boolean first) {
+        if (!first) {
+            double change = x - previous;
+            double gain = Math.max(change, 0);
+            double loss = Math.max(-change, 0);
+            changes++;
+            // Plain average over the first period, Wilder's smoothing after that
+            long n = Math.min(changes, period);
+            averageGain += (gain - averageGain) / n;
+            averageLoss += (loss - averageLoss) / n;
+        }
+        previous = x;
+    }
+
+    double value() {
+        if (changes == 0 || averageGain + averageLoss == 0) {
+            return 50;
+        }
+        return 100 * averageGain / (averageGain + averageLoss);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.goldmarket.service.signal;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming technical indicators over one price series and the
+ * recommendation derived from them. Every indicator keeps primitive state
+ * and updates in O(1), so feeding a tick costs the same whether the engine
+ * has seen ten ticks or ten million.
+ * <p>
+ * The score blends four signals, each clamped to [-1, 1]:
+ * <ul>
+ * <li>trend: fast EMA against slow EMA</li>
+ * <li>RSI: oversold reads as a buy, overbought as a sell</li>
+ * <li>bands: a price below the lower volatility band reads as a buy</li>
+ * <li>momentum: rate of change over the momentum period</li>
+ * </ul>
+ * Not thread-safe; one thread feeds it (the tick thread, or a backtest).
+ */
+public final class SignalEngine {
+
+    /**
+     * Indicator periods, all in ticks.
+     */
+    public record Settings(int fastEma, int slowEma, int rsiPeriod, int bandPeriod, double bandWidth,
+            int momentumPeriod) {
+
+        public static Settings defaults() {
+            return new Settings(12, 26, 14, 20, 2.0, 10);
+        }
+
+        int warmupTicks() {
+            return Math.max(Math.max(slowEma, bandPeriod), Math.max(rsiPeriod, momentumPeriod) + 1);
+        }
+    }
+
+    private static final double TREND_WEIGHT = 0.40;
+    private static final double RSI_WEIGHT = 0.25;
+    private static final double BAND_WEIGHT = 0.20;
+    private static final double MOMENTUM_WEIGHT = 0.15;
+    private static final double ACTION_THRESHOLD = 0.25;
+
+    private final Settings settings;
+    private final Ema fast;
+    private final Ema slow;
+    private final Rsi rsi;
+    private final VolatilityBands bands;
+    private final Momentum momentum;
+    private double last;
+    private long ticks;
+
+    public SignalEngine(Settings settings) {
+        if (settings.fastEma() >= settings.slowEma()) {
+            throw new IllegalArgumentException("The fast EMA period must be shorter than the slow one");
+        }
+        this.settings = settings;
+        this.fast = new Ema(settings.fastEma());
+        this.slow = new Ema(settings.slowEma());
+        this.rsi = new Rsi(settings.rsiPeriod());
+        this.bands = new VolatilityBands(settings.bandPeriod(), settings.bandWidth());
+        this.momentum = new Momentum(settings.momentumPeriod());
+    }
+
+    public void update(double price) {
+        fast.update(price);
+        slow.update(price);
+        rsi.update(price, ticks == 0);
+        bands.update(price);
+        momentum.update(price);
+        last = price;
+        ticks++;
+    }
+
+    public boolean isWarmedUp() {
+        return ticks >= settings.warmupTicks();
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Combined signal in [-1, 1], or 0 until the engine has warmed up.
+     */
+    public double score() {
+        if (!isWarmedUp()) {
+            return 0;
+        }
+        return TREND_WEIGHT * trendSignal() + RSI_WEIGHT * rsiSignal() + BAND_WEIGHT * bandSignal()
+                + MOMENTUM_WEIGHT * momentumSignal();
+    }
+
+    public static String action(double score) {
+        return score >= ACTION_THRESHOLD ? "BUY" : score <= -ACTION_THRESHOLD ? "SELL" : "HOLD";
+    }
+
+    public static String confidence(double score) {
+        double strength = Math.abs(score);
+        return strength >= 0.6 ? "High" : strength >= 0.35 ? "Medium" : "Low";
+    }
+
+    /**
+     * Builds the recommendation for the current state. Allocates; call it
+     * once per tick and share the result.
+     */
+    public Recommendation recommend(long timestamp) {
+        if (!isWarmedUp()) {
+            return new Recommendation("HOLD", "Low", 0,
+                    String.format(Locale.ROOT, "Collecting market data: %d of %d price ticks seen so far.", ticks,
+                            settings.warmupTicks()),
+                    Map.of(), timestamp, ticks);
+        }
+        double score = score();
+        String action = action(score);
+        double trendPercent = trendPercent();
+        double rsiValue = rsi.value();
+        double z = bands.zScore(last);
+        double momentumPercent = momentum.percent();
+
+        String text = String.join("\n",
+                String.format(Locale.ROOT, "%s signal on 24K gold at ₹%,.2f/g (score %+.2f).", action, last,
+                        score),
+                String.format(Locale.ROOT, "Trend: the %d-tick EMA is %s the %d-tick EMA by %.3f%%.",
+                        settings.fastEma(), trendPercent >= 0 ? "above" : "below", settings.slowEma(),
+                        Math.abs(trendPercent)),
+                String.format(Locale.ROOT, "RSI(%d) is %.1f, %s.", settings.rsiPeriod(), rsiValue,
+                        rsiValue >= 70 ? "overbought" : rsiValue <= 30 ? "oversold" : "neutral"),
+                String.format(Locale.ROOT, "Price is %.1fσ %s its average, band ₹%,.2f to ₹%,.2f.",
+                        Math.abs(z), z >= 0 ? "above" : "below", bands.lower(), bands.upper()),
+                String.format(Locale.ROOT, "Momentum over %d ticks: %+.3f%%.", settings.momentumPeriod(),
+                        momentumPercent));
+
+        Map<String, Double> indicators = new LinkedHashMap<>();
+        indicators.put("price", last);
+        indicators.put("emaFast", fast.value());
+        indicators.put("emaSlow", slow.value());
+        indicators.put("rsi", rsiValue);
+        indicators.put("bandLower", bands.lower());
+        indicators.put("bandMean", bands.mean());
+        indicators.put("bandUpper", bands.upper());
+        indicators.put("momentumPercent", momentumPercent);
+        return new Recommendation(action, confidence(score), score, text, indicators, timestamp, ticks);
+    }
+
+    private double trendPercent() {
+        return (fast.value() - slow.value()) / slow.value() * 100;
+    }
+
+    // A 0.25% gap between the EMAs is a full-strength trend
+    private double trendSignal() {
+        return clamp(trendPercent() / 0.25);
+    }
+
+    // RSI 30 or below is a full buy, 70 or above a full sell
+    private double rsiSignal() {
+        return clamp((50 - rsi.value()) / 20);
+    }
+
+    // Two deviations below the mean is a full buy
+    private double bandSignal() {
+        return clamp(-bands.zScore(last) / 2);
+    }
+
+    // 0.5% over the momentum period is full strength
+    private double momentumSignal() {
+        return clamp(momentum.percent() / 0.5);
+    }
+
+    private static double clamp(double x) {
+        return Math.max(-1, Math.min(1, x));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.goldmarket.service.signal;
+
+/**
+ * Bollinger-style bands around an exponentially weighted mean, with the
+ * width taken from the exponentially weighted variance. Unlike a simple
+ * moving window this needs no history, so an update is two multiply-adds.
+ */
+final class VolatilityBands {
+
+    private final double alpha;
+    private final double width;
+    private double mean;
+    private double variance;
+    private boolean seeded;
+
+    VolatilityBands(int period, double width) {
+        if (period <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Band period and width must be positive");
+        }
+        this.alpha = 2.0 / (period + 1);
+        this.width = width;
+    }
+
+    void update(double x) {
+        if (!seeded) {
+            mean = x;
+            seeded = true;
+            return;
+        }
+        double delta = x - mean;
+        mean += alpha * delta;
+        variance = (1 - alpha) * (variance + alpha * delta * delta);
+    }
+
+    double mean() {
+        return mean;
+    }
+
+    double deviation() {
+        return Math.sqrt(variance);
+    }
+
+    double upper() {
+        return mean + width * deviation();
+    }
+
+    double lower() {
+        return mean - width * deviation();
+    }
+
+    /**
+     * Distance of {@code x} from the mean in standard deviations; 0 while
+     * there is no spread yet.
+     */
+    double zScore(double x) {
+        double deviation = deviation();
+        return deviation == 0 ? 0 : (x - mean) / deviation;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.goldmarket.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void divideRoundsLikeBigDecimalInEveryMode() {
+        long[] divisors = { 1, 2, 3, 7, 10, 1000, 10000 };
+        for (RoundingMode rounding : RoundingMode.values()) {
+            if (rounding == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (long divisor : divisors) {
+                for (long dividend = -2500; dividend <= 2500; dividend++) {
+                    long expected = BigDecimal.valueOf(dividend)
+                            .divide(BigDecimal.valueOf(divisor), 0, rounding)
+                            .longValueExact();
+                    assertThat(Money.divide(dividend, divisor, rounding))
+                            .as("%d / %d %s", dividend, divisor, rounding)
+                            .isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    void divideRejectsAnInexactResultWhenRoundingIsUnnecessary() {
+        assertThat(Money.divide(3000, 1000, RoundingMode.UNNECESSARY)).isEqualTo(3);
+        assertThatThrownBy(() -> Money.divide(3001, 1000, RoundingMode.UNNECESSARY))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void costOfAFractionOfAGramRoundsToThePaisa() {
+        // 1.234 g at 12,426.57 per gram is 15,334.38738 rupees
+        Money price = Money.parse("12426.57", RoundingMode.UNNECESSARY);
+        Weight weight = Weight.parse("1.234", RoundingMode.UNNECESSARY);
+
+        assertThat(price.times(weight, RoundingMode.UP)).isEqualTo(Money.parse("15334.39", RoundingMode.UNNECESSARY));
+        assertThat(price.times(weight, RoundingMode.DOWN)).isEqualTo(Money.parse("15334.38", RoundingMode.UNNECESSARY));
+        assertThat(Money.costPaise(price.paise(), weight.milligrams(), RoundingMode.HALF_UP)).isEqualTo(1533439);
+    }
+
+    @Test
+    void scaleRoundsWithTheGivenMode() {
+        Money price24K = Money.ofPaise(1242657);
+
+        // 22K is 9167/10000 of 24K: 1,139,143.67... paise
+        assertThat(price24K.scale(9167, 10000, RoundingMode.HALF_UP).paise()).isEqualTo(1139144);
+        assertThat(price24K.scale(9167, 10000, RoundingMode.DOWN).paise()).isEqualTo(1139143);
+    }
+
+    @Test
+    void parsesRupeesToPaise() {
+        assertThat(Money.parse(" 12426.5 ", RoundingMode.UNNECESSARY).paise()).isEqualTo(1242650);
+        assertThat(Money.parse("0.005", RoundingMode.HALF_UP).paise()).isEqualTo(1);
+        assertThat(Money.parse("0.005", RoundingMode.HALF_EVEN).paise()).isEqualTo(0);
+        assertThat(Money.parse("-1.239", RoundingMode.DOWN).paise()).isEqualTo(-123);
+    }
+
+    @Test
+    void rejectsAmountsThatAreNotWholePaise() {
+        assertThatThrownBy(() -> Money.parse("0.001", RoundingMode.UNNECESSARY))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.parse("abc", RoundingMode.HALF_UP))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.parse(null, RoundingMode.HALF_UP))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsAmountsBeyondALongOfPaise() {
+        assertThatThrownBy(() -> Money.parse("92233720368547758.08", RoundingMode.UNNECESSARY))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(Money.parse("92233720368547758.07", RoundingMode.UNNECESSARY).paise()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void arithmeticThrowsInsteadOfWrapping() {
+        Money max = Money.ofPaise(Long.MAX_VALUE);
+        Money min = Money.ofPaise(Long.MIN_VALUE);
+
+        assertThatThrownBy(() -> max.plus(Money.ofPaise(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> min.minus(Money.ofPaise(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> max.times(Weight.ofMilligrams(2000), RoundingMode.DOWN))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> max.scale(2, 1, RoundingMode.DOWN)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void printsExactlyTwoDecimals() {
+        assertThat(Money.ofPaise(1242650)).hasToString("12426.50");
+        assertThat(Money.ofPaise(5)).hasToString("0.05");
+        assertThat(Money.ofPaise(-5)).hasToString("-0.05");
+        assertThat(Money.ZERO).hasToString("0.00");
+    }
+
+    @Test
+    void zeroIsShared() {
+        assertThat(Money.ofPaise(0)).isSameAs(Money.ZERO);
+        assertThat(Money.ofPaise(100).minus(Money.ofPaise(100))).isSameAs(Money.ZERO);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.goldmarket.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WeightTest {
+
+    @Test
+    void parsesGramsToMilligrams() {
+        assertThat(Weight.parse(" 1.25 ", RoundingMode.UNNECESSARY).milligrams()).isEqualTo(1250);
+        assertThat(Weight.parse("1.0005", RoundingMode.HALF_UP).milligrams()).isEqualTo(1001);
+        assertThat(Weight.parse("1.0005", RoundingMode.HALF_EVEN).milligrams()).isEqualTo(1000);
+        assertThat(Weight.parse("0.0009", RoundingMode.DOWN)).isSameAs(Weight.ZERO);
+    }
+
+    @Test
+    void rejectsQuantitiesThatAreNotWholeMilligrams() {
+        assertThatThrownBy(() -> Weight.parse("0.0001", RoundingMode.UNNECESSARY))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Weight.parse("1g", RoundingMode.HALF_UP))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Weight.parse(null, RoundingMode.HALF_UP))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsQuantitiesBeyondALongOfMilligrams() {
+        assertThatThrownBy(() -> Weight.parse("9223372036854775.808", RoundingMode.UNNECESSARY))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void arithmeticThrowsInsteadOfWrapping() {
+        assertThatThrownBy(() -> Weight.ofMilligrams(Long.MAX_VALUE).plus(Weight.ofMilligrams(1)))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Weight.ofMilligrams(Long.MIN_VALUE).minus(Weight.ofMilligrams(1)))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void comparesByMilligrams() {
+        Weight gram = Weight.ofMilligrams(1000);
+
+        assertThat(gram.minus(Weight.ofMilligrams(1)).isLessThan(gram)).isTrue();
+        assertThat(gram).isEqualTo(Weight.parse("1", RoundingMode.UNNECESSARY));
+        assertThat(gram.plus(Weight.ofMilligrams(250))).hasToString("1.250");
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.goldmarket.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderBookTest {
+
+    @Test
+    void aTickHandsOutOnlyTheOrdersItTriggers() {
+        OrderBook book = new OrderBook();
+        book.add(1, true, 12_000_00);  // buy limit at 12,000
+        book.add(2, true, 11_500_00);  // buy limit at 11,500
+        book.add(3, false, 12_500_00); // sell limit at 12,500
+        book.add(4, false, 13_000_00); // sell limit at 13,000
+
+        List<Long> filled = new ArrayList<>();
+        assertThat(book.match(12_000_00, filled::add)).isEqualTo(1);
+        assertThat(filled).containsExactly(1L);
+
+        filled.clear();
+        assertThat(book.match(12_600_00, filled::add)).isEqualTo(1);
+        assertThat(filled).containsExactly(3L);
+        assertThat(book.size()).isEqualTo(2);
+    }
+
+    @Test
+    void aMatchedOrderCanNoLongerBeRemoved() {
+        OrderBook book = new OrderBook();
+        book.add(1, true, 100);
+        book.add(2, true, 50);
+
+        book.match(100, id -> {
+        });
+
+        assertThat(book.remove(1)).isFalse();
+        assertThat(book.remove(2)).isTrue();
+        assertThat(book.size()).isZero();
+    }
+
+    @Test
+    void addingAnOrderTwiceKeepsOneEntry() {
+        OrderBook book = new OrderBook();
+        book.add(1, false, 100);
+        book.add(1, false, 100);
+
+        List<Long> filled = new ArrayList<>();
+        book.match(100, filled::add);
+
+        assertThat(filled).containsExactly(1L);
+    }
+
+    @Test
+    void anOrderPutBackAfterAMatchIsMatchedAgain() {
+        OrderBook book = new OrderBook();
+        book.add(1, true, 100);
+        book.match(100, id -> {
+        });
+
+        // What OrderService does when a fill fails
+        book.add(1, true, 100);
+
+        List<Long> filled = new ArrayList<>();
+        book.match(90, filled::add);
+        assertThat(filled).containsExactly(1L);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.goldmarket.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceLevelIndexTest {
+
+    @Test
+    void drainsTheSuffixAtOrAboveTheBoundLowestKeyFirst() {
+        PriceLevelIndex index = new PriceLevelIndex();
+        index.add(300, 1);
+        index.add(100, 2);
+        index.add(200, 3);
+        index.add(300, 4);
+        index.add(200, 5);
+
+        List<Long> drained = new ArrayList<>();
+        assertThat(index.drainFrom(200, drained::add)).isEqualTo(4);
+
+        // Ids that share a level come out in insertion order
+        assertThat(drained).containsExactly(3L, 5L, 1L, 4L);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.levels()).isEqualTo(1);
+    }
+
+    @Test
+    void drainAboveEveryLevelTakesNothing() {
+        PriceLevelIndex index = new PriceLevelIndex();
+        index.add(100, 1);
+
+        assertThat(index.drainFrom(101, id -> {
+            throw new AssertionError("drained " + id);
+        })).isZero();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void negativeKeysDrainAtOrBelowALevel() {
+        // How OrderBook stores orders that trigger when the price rises
+        PriceLevelIndex index = new PriceLevelIndex();
+        index.add(-1000, 1);
+        index.add(-1200, 2);
+
+        List<Long> drained = new ArrayList<>();
+        index.drainFrom(-1100, drained::add);
+
+        assertThat(drained).containsExactly(1L);
+    }
+
+    @Test
+    void removeDropsEmptyLevels() {
+        PriceLevelIndex index = new PriceLevelIndex();
+        index.add(100, 1);
+        index.add(100, 2);
+        index.add(200, 3);
+
+        assertThat(index.remove(100, 1)).isTrue();
+        assertThat(index.remove(100, 1)).isFalse();
+        assertThat(index.remove(150, 2)).isFalse();
+        assertThat(index.levels()).isEqualTo(2);
+        assertThat(index.remove(100, 2)).isTrue();
+        assertThat(index.levels()).isEqualTo(1);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void matchesASortedMapUnderRandomUse() {
+        Random random = new Random(42);
+        PriceLevelIndex index = new PriceLevelIndex();
+        TreeMap<Long, List<Long>> expected = new TreeMap<>();
+        long nextId = 0;
+        for (int step = 0; step < 20_000; step++) {
+            int op = random.nextInt(10);
+            long key = random.nextInt(500) - 250;
+            if (op < 6) {
+                long id = nextId++;
+                index.add(key, id);
+                expected.computeIfAbsent(key, k -> new ArrayList<>()).add(id);
+            } else if (op < 9) {
+                List<Long> ids = expected.get(key);
+                long id = ids == null ? -1 : ids.get(random.nextInt(ids.size()));
+                boolean removed = ids != null && ids.remove(id);
+                if (ids != null && ids.isEmpty()) {
+                    expected.remove(key);
+                }
+                assertThat(index.remove(key, id)).isEqualTo(removed);
+            } else {
+                List<Long> wanted = new ArrayList<>();
+                expected.tailMap(key, true).values().forEach(wanted::addAll);
+                expected.tailMap(key, true).clear();
+                List<Long> drained = new ArrayList<>();
+                assertThat(index.drainFrom(key, drained::add)).isEqualTo(wanted.size());
+                assertThat(drained).isEqualTo(wanted);
+            }
+            assertThat(index.levels()).isEqualTo(expected.size());
+        }
+        assertThat(index.size()).isEqualTo(expected.values().stream().mapToInt(List::size).sum());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.goldmarket.service.journal;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalEntryTest {
+
+    private static final JournalEntry ENTRY =
+            new JournalEntry(0, 1_700_000_000_000L, 42, JournalEntry.Type.BUY, -1_234_56, 0, 7);
+
+    @Test
+    void readsBackWhatWasWrittenUnderTheGivenSequence() {
+        ByteBuffer buffer = ByteBuffer.allocate(JournalEntry.BYTES);
+        ENTRY.writeTo(buffer, 99);
+        buffer.flip();
+
+        JournalEntry read = JournalEntry.readFrom(buffer);
+
+        assertThat(read).isEqualTo(new JournalEntry(99, ENTRY.timestamp(), ENTRY.walletId(), ENTRY.type(),
+                ENTRY.balanceDelta(), ENTRY.reservedDelta(), ENTRY.reference()));
+        assertThat(buffer.position()).isEqualTo(JournalEntry.BYTES);
+    }
+
+    @Test
+    void aFlippedBitAnywhereFailsTheChecksum() {
+        ByteBuffer buffer = ByteBuffer.allocate(JournalEntry.BYTES);
+        ENTRY.writeTo(buffer, 1);
+        for (int i = 0; i < JournalEntry.BYTES; i++) {
+            buffer.put(i, (byte) (buffer.get(i) ^ 0x10));
+            buffer.position(0);
+
+            assertThat(JournalEntry.readFrom(buffer)).as("byte %d flipped", i).isNull();
+            assertThat(buffer.position()).isZero();
+            buffer.put(i, (byte) (buffer.get(i) ^ 0x10));
+        }
+        assertThat(JournalEntry.readFrom(buffer)).isNotNull();
+    }
+
+    @Test
+    void zeroedSpaceIsNotAnEntry() {
+        // What a preallocated or partly written tail reads as
+        assertThat(JournalEntry.readFrom(ByteBuffer.allocate(JournalEntry.BYTES))).isNull();
+    }
+}
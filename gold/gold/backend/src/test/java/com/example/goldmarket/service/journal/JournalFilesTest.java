@@ -0,0 +1,181 @@
+package com.example.goldmarket.service.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalFilesTest {
+
+    private static final int WALLETS = 20;
+
+    @TempDir
+    Path dir;
+
+    private final Random random = new Random(7);
+    private final Map<Long, long[]> expected = new HashMap<>();
+
+    @Test
+    void emptyDirectoryRebuildsToNothing() throws IOException {
+        JournalFiles.Rebuilt rebuilt = JournalFiles.rebuild(dir);
+
+        assertThat(rebuilt.balances()).isEmpty();
+        assertThat(rebuilt.sequence()).isZero();
+        assertThat(rebuilt.lastSegment()).isNull();
+    }
+
+    @Test
+    void replaysEveryEntryAcrossSegments() throws IOException {
+        appendSegment(1, 500);
+        appendSegment(501, 300);
+
+        JournalFiles.Rebuilt rebuilt = JournalFiles.rebuild(dir);
+
+        assertThat(rebuilt.sequence()).isEqualTo(800);
+        assertThat(rebuilt.replayed()).isEqualTo(800);
+        assertThat(rebuilt.lastSegment()).isEqualTo(JournalFiles.segment(dir, 501));
+        assertThat(rebuilt.validBytes()).isEqualTo(300L * JournalEntry.BYTES);
+        assertBalances(rebuilt);
+    }
+
+    @Test
+    void snapshotPlusTailMatchesAFullReplay() throws IOException {
+        appendSegment(1, 1000);
+        JournalFiles.writeSnapshot(dir, 1000, copy(expected));
+        appendSegment(1001, 250);
+
+        JournalFiles.Rebuilt rebuilt = JournalFiles.rebuild(dir);
+
+        assertThat(rebuilt.snapshotSequence()).isEqualTo(1000);
+        assertThat(rebuilt.replayed()).isEqualTo(250);
+        assertThat(rebuilt.sequence()).isEqualTo(1250);
+        assertBalances(rebuilt);
+    }
+
+    @Test
+    void snapshotInsideASegmentSkipsStraightToTheTail() throws IOException {
+        Path segment = appendSegment(1, 600);
+        Map<Long, long[]> atSnapshot = copy(expected);
+        appendEntries(segment, 601, 40);
+        JournalFiles.writeSnapshot(dir, 600, atSnapshot);
+
+        JournalFiles.Rebuilt rebuilt = JournalFiles.rebuild(dir);
+
+        assertThat(rebuilt.replayed()).isEqualTo(40);
+        assertThat(rebuilt.validBytes()).isEqualTo(640L * JournalEntry.BYTES);
+        assertBalances(rebuilt);
+    }
+
+    @Test
+    void aCorruptSnapshotFallsBackToTheOlderOne() throws IOException {
+        appendSegment(1, 100);
+        JournalFiles.writeSnapshot(dir, 100, copy(expected));
+        appendSegment(101, 100);
+        JournalFiles.writeSnapshot(dir, 200, copy(expected));
+        appendSegment(201, 10);
+        Path newest = dir.resolve(String.format("snapshot-%020d.snap", 200));
+        byte[] bytes = Files.readAllBytes(newest);
+        bytes[20] ^= 1;
+        Files.write(newest, bytes);
+
+        JournalFiles.Rebuilt rebuilt = JournalFiles.rebuild(dir);
+
+        assertThat(rebuilt.snapshotSequence()).isEqualTo(100);
+        assertThat(rebuilt.replayed()).isEqualTo(110);
+        assertBalances(rebuilt);
+    }
+
+    @Test
+    void stopsAtATornTail() throws IOException {
+        Path segment = appendSegment(1, 50);
+        Map<Long, long[]> intact = copy(expected);
+        appendEntries(segment, 51, 1);
+        // Keep only half of the last entry, as after a crash mid-write
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(51L * JournalEntry.BYTES - JournalEntry.BYTES / 2);
+        }
+
+        JournalFiles.Rebuilt rebuilt = JournalFiles.rebuild(dir);
+
+        assertThat(rebuilt.sequence()).isEqualTo(50);
+        assertThat(rebuilt.validBytes()).isEqualTo(50L * JournalEntry.BYTES);
+        assertThat(rebuilt.balances()).containsOnlyKeys(intact.keySet());
+        intact.forEach((walletId, balance) -> assertThat(rebuilt.balances().get(walletId)).containsExactly(balance));
+    }
+
+    @Test
+    void ignoresSegmentsAfterAGap() throws IOException {
+        appendSegment(1, 30);
+        Map<Long, long[]> beforeGap = copy(expected);
+        appendSegment(40, 10);
+
+        JournalFiles.Rebuilt rebuilt = JournalFiles.rebuild(dir);
+
+        assertThat(rebuilt.sequence()).isEqualTo(30);
+        assertThat(rebuilt.lastSegment()).isEqualTo(JournalFiles.segment(dir, 1));
+        beforeGap.forEach((walletId, balance) -> assertThat(rebuilt.balances().get(walletId)).containsExactly(balance));
+    }
+
+    @Test
+    void keepsOnlyTheNewestSnapshots() throws IOException {
+        appendSegment(1, 40);
+        for (long sequence = 10; sequence <= 40; sequence += 10) {
+            JournalFiles.writeSnapshot(dir, sequence, Map.of());
+        }
+
+        try (var files = Files.list(dir)) {
+            assertThat(files.map(path -> path.getFileName().toString()).filter(name -> name.startsWith("snapshot-")))
+                    .containsExactlyInAnyOrder(String.format("snapshot-%020d.snap", 30),
+                            String.format("snapshot-%020d.snap", 40));
+        }
+    }
+
+    private Path appendSegment(long firstSequence, int count) throws IOException {
+        Path segment = JournalFiles.segment(dir, firstSequence);
+        appendEntries(segment, firstSequence, count);
+        return segment;
+    }
+
+    private void appendEntries(Path segment, long firstSequence, int count) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(count * JournalEntry.BYTES);
+        for (int i = 0; i < count; i++) {
+            long walletId = 1 + random.nextInt(WALLETS);
+            long balanceDelta = random.nextInt(200_000) - 100_000;
+            long reservedDelta = random.nextInt(3) == 0 ? random.nextInt(10_000) : 0;
+            JournalEntry.Type type = JournalEntry.Type.values()[random.nextInt(JournalEntry.Type.values().length)];
+            new JournalEntry(0, System.currentTimeMillis(), walletId, type, balanceDelta, reservedDelta, i)
+                    .writeTo(buffer, firstSequence + i);
+            JournalFiles.apply(expected, walletId, balanceDelta, reservedDelta);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private void assertBalances(JournalFiles.Rebuilt rebuilt) {
+        assertThat(rebuilt.balances()).containsOnlyKeys(expected.keySet());
+        expected.forEach((walletId, balance) -> assertThat(rebuilt.balances().get(walletId))
+                .as("wallet %d", walletId)
+                .containsExactly(balance));
+    }
+
+    private static Map<Long, long[]> copy(Map<Long, long[]> balances) {
+        Map<Long, long[]> copy = new HashMap<>();
+        balances.forEach((walletId, balance) -> copy.put(walletId, balance.clone()));
+        return copy;
+    }
+}
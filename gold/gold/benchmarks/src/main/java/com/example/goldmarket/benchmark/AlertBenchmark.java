@@ -0,0 +1,129 @@
+package com.example.goldmarket.benchmark;
+
+import com.example.goldmarket.model.GoldSymbol;
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.PriceAlert;
+import com.example.goldmarket.model.Wallet;
+import com.example.goldmarket.repository.PriceAlertRepository;
+import com.example.goldmarket.service.AlertService;
+import com.example.goldmarket.service.LivePriceService;
+import com.example.goldmarket.service.PriceSnapshot;
+import com.example.goldmarket.service.PriceTickEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time a price tick spends in {@link AlertService#onPriceTick} with
+ * {@code alerts} active alerts on one symbol: a third ABOVE and a third BELOW,
+ * spread over ₹1,000 either side of the price, and a third MOVE alerts of 1-5%
+ * over four windows, with an hour of price history behind them. Ticks wander
+ * inside the band none of them fire in, so the score is the cost of the
+ * alerts that are not due; building each snapshot is included.
+ * <p>
+ * The tick scheduler is slowed to once an hour so it does not race the
+ * benchmark thread. Setup inserts every alert, which takes a while at the
+ * larger sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class AlertBenchmark {
+
+    private static final long BAND_PAISE = 50_00;
+    private static final long SPREAD_PAISE = 1_000_00;
+    private static final int[] WINDOWS = { 5, 10, 30, 60 };
+
+    @Param({ "100000", "300000" })
+    public int alerts;
+
+    private ConfigurableApplicationContext context;
+    private AlertService alertService;
+    private PriceSnapshot base;
+    private long sequence;
+    private long timestamp;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--market.tick.interval-ms=3600000");
+        alertService = context.getBean(AlertService.class);
+        base = context.getBean(LivePriceService.class).getSnapshot();
+        Wallet wallet = BenchmarkApplication.createUser(context, "alerts@bench.local", Money.ZERO);
+
+        long price = base.getPricePaise(GoldSymbol.GOLD_24K);
+        PriceAlertRepository repository = context.getBean(PriceAlertRepository.class);
+        List<PriceAlert> batch = new ArrayList<>();
+        for (int i = 0; i < alerts; i++) {
+            PriceAlert alert = new PriceAlert();
+            alert.setWalletId(wallet.getId());
+            alert.setEmail("alerts@bench.local");
+            alert.setSymbol(GoldSymbol.GOLD_24K.name());
+            alert.setStatus(PriceAlert.Status.ACTIVE);
+            alert.setCreatedAt(LocalDateTime.now());
+            long offset = BAND_PAISE + (i * 7919L) % SPREAD_PAISE;
+            switch (i % 3) {
+                case 0 -> {
+                    alert.setCondition(PriceAlert.Condition.ABOVE);
+                    alert.setPrice(Money.ofPaise(price + offset));
+                }
+                case 1 -> {
+                    alert.setCondition(PriceAlert.Condition.BELOW);
+                    alert.setPrice(Money.ofPaise(price - offset));
+                }
+                default -> {
+                    alert.setCondition(PriceAlert.Condition.MOVE);
+                    alert.setMoveBasisPoints(100 + i % 400);
+                    alert.setWindowMinutes(WINDOWS[i % WINDOWS.length]);
+                }
+            }
+            batch.add(alert);
+            if (batch.size() == 10_000) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        repository.saveAll(batch);
+        alertService.recoverActiveAlerts();
+
+        // An hour of history, so every move window has a reference price; it runs on from the startup tick
+        timestamp = base.getTimestamp();
+        for (int i = 0; i <= 3600; i++) {
+            tick();
+        }
+    }
+
+    @Benchmark
+    public void tick() {
+        timestamp += 1000;
+        sequence++;
+        // Up to ₹20 above the starting price: inside the band, and far below the smallest move
+        long drift = (sequence * 2654435761L) % 20_00;
+        alertService.onPriceTick(new PriceTickEvent(new PriceSnapshot(sequence, timestamp,
+                Money.ofPaise(base.getPricePaise(GoldSymbol.GOLD_24K) + drift),
+                base.getPrice(GoldSymbol.GOLD_22K), base.getPrice(GoldSymbol.GOLD_18K))));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.goldmarket.benchmark;
+
+import com.example.goldmarket.GoldMarketApplication;
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.User;
+import com.example.goldmarket.model.Wallet;
+import com.example.goldmarket.repository.UserRepository;
+import com.example.goldmarket.repository.WalletRepository;
+import com.example.goldmarket.service.journal.JournalEntry;
+import com.example.goldmarket.service.journal.WalletJournal;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the real backend against a private in-memory H2 database, on a random
+ * port, with request and SQL logging turned off. Prices come from the local
+ * simulator so nothing touches the network, and the wallet journal goes to a
+ * fresh temporary directory.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--spring.devtools.restart.enabled=false",
+                "--market.feed.type=simulator",
+                "--market.ticks.spill-file=",
+                "--wallet.journal.dir=" + journalDir(),
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.goldmarket=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.springframework.security=WARN"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(GoldMarketApplication.class).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Creates a local user with a wallet holding {@code balance} rupees.
+     */
+    public static Wallet createUser(ConfigurableApplicationContext context, String email, Money balance) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(email);
+        user.setProvider("local");
+        user.setOauthProviderId(email);
+        user = context.getBean(UserRepository.class).save(user);
+
+        Wallet wallet = new Wallet();
+        wallet.setUser(user);
+        wallet.setCurrency("INR");
+        wallet.setBalance(balance);
+        wallet = context.getBean(WalletRepository.class).save(wallet);
+        context.getBean(WalletJournal.class).record(wallet.getId(), JournalEntry.Type.OPENING, balance.paise(), 0,
+                user.getId());
+        return wallet;
+    }
+
+    private static String journalDir() {
+        try {
+            return Files.createTempDirectory("bench-journal").toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
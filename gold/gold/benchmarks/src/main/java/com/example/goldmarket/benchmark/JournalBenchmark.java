@@ -0,0 +1,102 @@
+package com.example.goldmarket.benchmark;
+
+import com.example.goldmarket.service.journal.JournalEntry;
+import com.example.goldmarket.service.journal.JournalFiles;
+import com.example.goldmarket.service.journal.WalletJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wallet journal costs over {@value #ENTRIES} entries spread across
+ * {@value #WALLETS} wallets.
+ * <ul>
+ * <li>{@code rebuild} - time to rebuild every balance from disk, replaying the
+ * whole journal ({@code snapshotEvery=0}) or the newest snapshot plus its
+ * tail</li>
+ * <li>{@code recordAndFlush} - time per entry to journal a burst of
+ * {@value #BURST} and wait until they are forced to disk</li>
+ * </ul>
+ * Entries are recorded outside any transaction, so they go straight to the
+ * writer; the tick scheduler is slowed to once an hour so it adds nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JournalBenchmark {
+
+    static final int ENTRIES = 1_000_000;
+    static final int WALLETS = 10_000;
+    static final int BURST = 1_000;
+
+    @Param({ "0", "100000" })
+    public int snapshotEvery;
+
+    private ConfigurableApplicationContext context;
+    private WalletJournal walletJournal;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--market.tick.interval-ms=3600000",
+                "--wallet.journal.snapshot-every=" + snapshotEvery);
+        walletJournal = context.getBean(WalletJournal.class);
+        for (int i = 0; i < ENTRIES; i++) {
+            record();
+        }
+        if (!walletJournal.flush()) {
+            throw new IllegalStateException("Wallet journal failed while filling it");
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long rebuild() throws IOException {
+        JournalFiles.Rebuilt rebuilt = walletJournal.rebuild();
+        if (rebuilt.sequence() < ENTRIES) {
+            throw new IllegalStateException("Rebuilt only " + rebuilt.sequence() + " entries");
+        }
+        return rebuilt.replayed();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(BURST)
+    public boolean recordAndFlush() {
+        for (int i = 0; i < BURST; i++) {
+            record();
+        }
+        return walletJournal.flush();
+    }
+
+    private void record() {
+        long i = next++;
+        // Alternate deposits and purchases so balances stay small
+        JournalEntry.Type type = i % 2 == 0 ? JournalEntry.Type.DEPOSIT : JournalEntry.Type.BUY;
+        walletJournal.record(i % WALLETS + 1, type, i % 2 == 0 ? 500_00 : -500_00, 0, i);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("Journal: " + walletJournal.getSequence() + " entries, " + walletJournal.getFsyncs()
+                + " fsync(s), " + walletJournal.getSnapshots() + " snapshot(s)");
+        context.close();
+    }
+}
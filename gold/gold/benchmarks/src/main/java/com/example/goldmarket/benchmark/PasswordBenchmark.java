@@ -0,0 +1,77 @@
+package com.example.goldmarket.benchmark;
+
+import com.example.goldmarket.service.PasswordService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins per second per core at each BCrypt cost. Every benchmark runs on a
+ * single thread, so the score is what one core of the password pool can
+ * verify; multiply by {@code auth.password.threads} for the node's login
+ * capacity. {@code verifyThroughPool} includes the hand-off to the pool and
+ * back, and {@code verifyPlaintextAndRehash} is the one-off cost of a login
+ * that upgrades a legacy password.
+ * <p>
+ * {@code mvn -pl benchmarks exec:exec -Djmh.args="PasswordBenchmark -p cost=10,12"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class PasswordBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({ "8", "10", "12" })
+    public int cost;
+
+    private PasswordService passwords;
+    private String stored;
+
+    @Setup
+    public void setUp() {
+        passwords = new PasswordService(cost, 1, 64);
+        stored = passwords.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwords.shutdown();
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return passwords.verifyNow(PASSWORD, stored).matched();
+    }
+
+    @Benchmark
+    public boolean verifyThroughPool() {
+        return passwords.verify(PASSWORD, stored).join().matched();
+    }
+
+    @Benchmark
+    public String hash() {
+        return passwords.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String verifyPlaintextAndRehash() {
+        return passwords.verifyNow(PASSWORD, PASSWORD).upgradedHash();
+    }
+}
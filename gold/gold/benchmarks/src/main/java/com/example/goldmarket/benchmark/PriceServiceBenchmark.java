@@ -0,0 +1,72 @@
+package com.example.goldmarket.benchmark;
+
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.service.LivePriceService;
+import com.example.goldmarket.service.feed.PriceQuote;
+import com.example.goldmarket.service.feed.SimulatedPriceFeed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Price reads and price ticks on a {@link LivePriceService} built directly
+ * around the simulator, without Spring. Events published on each tick are
+ * dropped, so {@link #tick} measures the random walk plus building and
+ * publishing the snapshot, not the listeners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PriceServiceBenchmark {
+
+    private LivePriceService livePriceService;
+    private SimulatedPriceFeed feed;
+    private PriceQuote quote;
+
+    @Setup
+    public void setUp() {
+        feed = new SimulatedPriceFeed();
+        livePriceService = new LivePriceService(feed, event -> {
+        }, 2000);
+        quote = PriceQuote.from24K(Money.ofPaise(12426_00));
+    }
+
+    @Benchmark
+    public Map<String, Money> getLatestPrices() {
+        return livePriceService.getLatestPrices();
+    }
+
+    @Benchmark
+    public Money getPrice() {
+        return livePriceService.getPrice("GOLD_22K");
+    }
+
+    /**
+     * One step of the simulated price movement.
+     */
+    @Benchmark
+    public PriceQuote simulatePriceMovement() {
+        return quote = feed.next(quote);
+    }
+
+    /**
+     * A full tick: fetch from the simulator and publish the new snapshot.
+     */
+    @Benchmark
+    public boolean tick() {
+        return livePriceService.updatePrices();
+    }
+}
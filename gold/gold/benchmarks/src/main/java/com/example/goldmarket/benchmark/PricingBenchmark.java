@@ -0,0 +1,102 @@
+package com.example.goldmarket.benchmark;
+
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.Weight;
+import com.example.goldmarket.service.feed.PriceQuote;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of pricing a trade and deriving a quote with {@link BigDecimal}, as
+ * the trade path used to, against the fixed-point {@link Money} and
+ * {@link Weight} types. Inputs cycle through a table of random prices and
+ * quantities so nothing is constant-folded.
+ * <p>
+ * Run with {@code -prof gc} to see the allocation side:
+ * {@code mvn -pl benchmarks exec:exec -Djmh.args="PricingBenchmark -prof gc"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PricingBenchmark {
+
+    private static final int INPUTS = 1024;
+    private static final BigDecimal RATIO_22K = new BigDecimal("0.9167");
+    private static final BigDecimal RATIO_18K = new BigDecimal("0.75");
+
+    private final BigDecimal[] decimalPrices = new BigDecimal[INPUTS];
+    private final BigDecimal[] decimalGrams = new BigDecimal[INPUTS];
+    private final Money[] prices = new Money[INPUTS];
+    private final Weight[] weights = new Weight[INPUTS];
+    private BigDecimal decimalBalance;
+    private Money balance;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < INPUTS; i++) {
+            long paise = 11500_00 + random.nextInt(2000_00);
+            long milligrams = 1 + random.nextInt(100_000);
+            decimalPrices[i] = BigDecimal.valueOf(paise, 2);
+            decimalGrams[i] = BigDecimal.valueOf(milligrams, 3);
+            prices[i] = Money.ofPaise(paise);
+            weights[i] = Weight.ofMilligrams(milligrams);
+        }
+        decimalBalance = new BigDecimal("10000000.00");
+        balance = Money.ofPaise(10_000_000_00);
+    }
+
+    private int nextIndex() {
+        return next = (next + 1) & (INPUTS - 1);
+    }
+
+    /**
+     * Balance check and debit for a BUY, the way the settler did it before.
+     */
+    @Benchmark
+    public BigDecimal settleBigDecimal() {
+        int i = nextIndex();
+        BigDecimal cost = decimalPrices[i].multiply(decimalGrams[i]).setScale(2, RoundingMode.UP);
+        return decimalBalance.compareTo(cost) >= 0 ? decimalBalance.subtract(cost) : decimalBalance;
+    }
+
+    @Benchmark
+    public Money settleFixedPoint() {
+        int i = nextIndex();
+        long cost = Money.costPaise(prices[i].paise(), weights[i].milligrams(), RoundingMode.UP);
+        long paise = balance.paise();
+        return paise >= cost ? Money.ofPaise(paise - cost) : balance;
+    }
+
+    /**
+     * 22K and 18K derived from 24K, the way the price feed did it before.
+     */
+    @Benchmark
+    public BigDecimal[] quoteBigDecimal() {
+        BigDecimal gold24K = decimalPrices[nextIndex()].setScale(2, RoundingMode.HALF_UP);
+        return new BigDecimal[] { gold24K, gold24K.multiply(RATIO_22K).setScale(2, RoundingMode.HALF_UP),
+                gold24K.multiply(RATIO_18K).setScale(2, RoundingMode.HALF_UP) };
+    }
+
+    @Benchmark
+    public PriceQuote quoteFixedPoint() {
+        return PriceQuote.from24K(prices[nextIndex()]);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.goldmarket.benchmark;
+
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.Transaction;
+import com.example.goldmarket.model.TransactionView;
+import com.example.goldmarket.model.User;
+import com.example.goldmarket.model.Wallet;
+import com.example.goldmarket.model.Weight;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response bodies the trade endpoints return:
+ * a {@link Wallet}, a {@link Transaction} with its wallet and user (the
+ * {@code /api/trade/execute} body) and a 50-row history page. Uses an
+ * {@link ObjectMapper} configured the way Spring Boot configures MVC's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+
+    private static final int HISTORY_PAGE = 50;
+
+    private ObjectMapper objectMapper;
+    private Wallet wallet;
+    private Transaction transaction;
+    private List<TransactionView> history;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("trader@bench.local");
+        user.setName("Bench Trader");
+        user.setProvider("local");
+        user.setOauthProviderId("trader@bench.local");
+
+        wallet = new Wallet();
+        wallet.setId(1L);
+        wallet.setUser(user);
+        wallet.setCurrency("INR");
+        wallet.setBalance(Money.ofPaise(48474_22));
+        wallet.setVersion(7L);
+
+        transaction = new Transaction();
+        transaction.setId(101L);
+        transaction.setWallet(wallet);
+        transaction.setType("BUY");
+        transaction.setSymbol("GOLD_24K");
+        transaction.setAmount(Weight.ofMilligrams(1_250));
+        transaction.setPrice(Money.ofPaise(12404_66));
+        transaction.setTimestamp(LocalDateTime.of(2025, 1, 1, 10, 0));
+
+        history = new ArrayList<>(HISTORY_PAGE);
+        for (int i = 0; i < HISTORY_PAGE; i++) {
+            history.add(new TransactionView(200L - i, i % 2 == 0 ? "BUY" : "SELL", "GOLD_24K",
+                    Weight.ofMilligrams(1_000 + i), Money.ofPaise(12400_00 + i),
+                    LocalDateTime.of(2025, 1, 1, 10, 0).minusMinutes(i)));
+        }
+    }
+
+    @Benchmark
+    public byte[] wallet() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(wallet);
+    }
+
+    @Benchmark
+    public byte[] transaction() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transaction);
+    }
+
+    @Benchmark
+    public byte[] historyPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(history);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.goldmarket.benchmark;
+
+import com.example.goldmarket.service.feed.TickFileReader;
+import com.example.goldmarket.service.signal.SignalEngine;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Replays a recorded tick file (the CSV or binary formats read by
+ * {@link TickFileReader}, including a {@code market.ticks.spill-file}
+ * recording) through the same {@link SignalEngine} the live service uses, and
+ * trades its signals: starting in cash, a BUY buys with all of it, a SELL
+ * sells everything held.
+ * <p>
+ * Usage, from the project folder: {@code mvn -pl benchmarks
+ * exec:exec@backtest -Dbacktest.args="ticks.bin [key=value ...]"} with
+ * optional {@code ema-fast}, {@code ema-slow}, {@code rsi-period},
+ * {@code band-period}, {@code band-width}, {@code momentum-period} (as the
+ * {@code market.signal.*} properties), {@code cash} (100000) and
+ * {@code fee-bps} charged on every fill (0).
+ */
+public final class SignalBacktest {
+
+    private SignalBacktest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: SignalBacktest <ticks.csv|ticks.bin> [key=value ...]");
+            System.exit(2);
+        }
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            int eq = args[i].indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + args[i]);
+            }
+            options.put(args[i].substring(0, eq), args[i].substring(eq + 1));
+        }
+        SignalEngine.Settings defaults = SignalEngine.Settings.defaults();
+        SignalEngine.Settings settings = new SignalEngine.Settings(
+                intOption(options, "ema-fast", defaults.fastEma()),
+                intOption(options, "ema-slow", defaults.slowEma()),
+                intOption(options, "rsi-period", defaults.rsiPeriod()),
+                intOption(options, "band-period", defaults.bandPeriod()),
+                Double.parseDouble(options.getOrDefault("band-width", String.valueOf(defaults.bandWidth()))),
+                intOption(options, "momentum-period", defaults.momentumPeriod()));
+        double startingCash = Double.parseDouble(options.getOrDefault("cash", "100000"));
+        double fee = Double.parseDouble(options.getOrDefault("fee-bps", "0")) / 10_000;
+
+        SignalEngine engine = new SignalEngine(settings);
+        double cash = startingCash;
+        double grams = 0;
+        double entryValue = 0;
+        double firstPrice = 0;
+        double price = 0;
+        double peak = startingCash;
+        double maxDrawdown = 0;
+        long firstTimestamp = 0;
+        long lastTimestamp = 0;
+        long buys = 0;
+        long sells = 0;
+        long wins = 0;
+        long[] actions = new long[3]; // BUY, SELL, HOLD
+
+        long started = System.nanoTime();
+        try (TickFileReader reader = TickFileReader.open(Path.of(args[0]))) {
+            while (reader.next()) {
+                price = reader.getQuote().gold24K().toDouble();
+                lastTimestamp = reader.getTimestamp();
+                if (engine.getTicks() == 0) {
+                    firstPrice = price;
+                    firstTimestamp = lastTimestamp;
+                }
+                engine.update(price);
+                if (!engine.isWarmedUp()) {
+                    continue;
+                }
+                String action = SignalEngine.action(engine.score());
+                if (action.equals("BUY")) {
+                    actions[0]++;
+                    if (grams == 0) {
+                        entryValue = cash;
+                        grams = cash * (1 - fee) / price;
+                        cash = 0;
+                        buys++;
+                    }
+                } else if (action.equals("SELL")) {
+                    actions[1]++;
+                    if (grams > 0) {
+                        cash = grams * price * (1 - fee);
+                        grams = 0;
+                        sells++;
+                        if (cash > entryValue) {
+                            wins++;
+                        }
+                    }
+                } else {
+                    actions[2]++;
+                }
+                double equity = cash + grams * price;
+                peak = Math.max(peak, equity);
+                maxDrawdown = Math.max(maxDrawdown, (peak - equity) / peak);
+            }
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        long ticks = engine.getTicks();
+        if (ticks == 0) {
+            System.out.println("No ticks in " + args[0]);
+            return;
+        }
+
+        double equity = cash + grams * price;
+        System.out.printf(Locale.ROOT, "%s: %d ticks from %tF %<tT to %tF %<tT%n", args[0], ticks, firstTimestamp,
+                lastTimestamp);
+        System.out.printf(Locale.ROOT, "settings        %s%n", settings);
+        System.out.printf(Locale.ROOT, "signals         BUY %d, SELL %d, HOLD %d%n", actions[0], actions[1],
+                actions[2]);
+        System.out.printf(Locale.ROOT, "round trips     %d buys, %d sells, %d profitable%n", buys, sells, wins);
+        System.out.printf(Locale.ROOT, "final equity    %,.2f from %,.2f (%+.2f%%)%n", equity, startingCash,
+                (equity / startingCash - 1) * 100);
+        System.out.printf(Locale.ROOT, "buy and hold    %+.2f%%%n", (price / firstPrice - 1) * 100);
+        System.out.printf(Locale.ROOT, "max drawdown    %.2f%%%n", maxDrawdown * 100);
+        System.out.printf(Locale.ROOT, "replay speed    %,.0f ticks/s%n", ticks / (elapsedNanos / 1e9));
+    }
+
+    private static int intOption(Map<String, String> options, String key, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(key, String.valueOf(defaultValue)));
+    }
+}
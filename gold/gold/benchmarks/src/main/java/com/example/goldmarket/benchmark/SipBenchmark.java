@@ -0,0 +1,120 @@
+package com.example.goldmarket.benchmark;
+
+import com.example.goldmarket.model.GoldSymbol;
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.SipPlan;
+import com.example.goldmarket.repository.SipPlanRepository;
+import com.example.goldmarket.service.SipScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for {@link SipScheduler} to run one day's window of {@value #PLANS}
+ * daily plans, {@value #PLANS_PER_WALLET} per wallet, spread over 30 minutes,
+ * with 1 or 4 shards. Every 50th wallet is empty, so about 2% of the runs fail
+ * for lack of funds. Each invocation is the next day, polled the way the
+ * scheduler's own thread does until the window is drained; the score is the
+ * time for all of it, including every row written.
+ * <p>
+ * The scheduler's own poll is disabled and the tick scheduler slowed to once
+ * an hour, so neither races the benchmark thread. Setup creates every wallet
+ * one at a time, which takes a while.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class SipBenchmark {
+
+    static final int PLANS = 100_000;
+    static final int PLANS_PER_WALLET = 4;
+    private static final LocalTime RUN_TIME = LocalTime.of(9, 0);
+    private static final int WINDOW_SECONDS = 30 * 60;
+    private static final int MAX_PER_POLL = 50_000;
+    // Enough for every day the benchmark runs
+    private static final Money BALANCE = Money.ofPaise(100_000_00);
+
+    @Param({ "1", "4" })
+    public int shards;
+
+    private ConfigurableApplicationContext context;
+    private SipScheduler sipScheduler;
+    private LocalDate day;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--market.tick.interval-ms=3600000", "--sip.enabled=false",
+                "--sip.shards=" + shards, "--sip.max-per-poll=" + MAX_PER_POLL);
+        sipScheduler = context.getBean(SipScheduler.class);
+        SipPlanRepository repository = context.getBean(SipPlanRepository.class);
+
+        day = LocalDate.now().plusDays(1);
+        LocalDateTime windowStart = day.atTime(RUN_TIME);
+        List<SipPlan> batch = new ArrayList<>();
+        for (int w = 0; w < PLANS / PLANS_PER_WALLET; w++) {
+            Long walletId = BenchmarkApplication.createUser(context, "sip-" + w + "@bench.local",
+                    w % 50 == 0 ? Money.ZERO : BALANCE).getId();
+            for (int p = 0; p < PLANS_PER_WALLET; p++) {
+                int i = w * PLANS_PER_WALLET + p;
+                SipPlan plan = new SipPlan();
+                plan.setWalletId(walletId);
+                plan.setSymbol(GoldSymbol.values()[p % GoldSymbol.values().length].name());
+                plan.setAmount(Money.ofPaise(500_00));
+                plan.setFrequency(SipPlan.Frequency.DAILY);
+                plan.setStatus(SipPlan.Status.ACTIVE);
+                plan.setNextRunAt(windowStart.plusSeconds((i * 7919L) % WINDOW_SECONDS));
+                plan.setCreatedAt(LocalDateTime.now());
+                batch.add(plan);
+            }
+            if (batch.size() >= 10_000) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        repository.saveAll(batch);
+    }
+
+    @Benchmark
+    public int runWindow() {
+        LocalDateTime windowEnd = day.atTime(RUN_TIME).plusSeconds(WINDOW_SECONDS);
+        day = day.plusDays(1);
+        int plans = 0;
+        SipScheduler.Summary summary;
+        do {
+            summary = sipScheduler.runDue(windowEnd);
+            plans += summary.plans();
+        } while (summary.plans() == MAX_PER_POLL);
+        if (plans != PLANS) {
+            throw new IllegalStateException("Ran " + plans + " plans, expected " + PLANS);
+        }
+        return plans;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("SIP runs: " + sipScheduler.getSucceeded() + " succeeded, " + sipScheduler.getFailed()
+                + " failed, " + sipScheduler.getIsolatedBatches() + " batch(es) isolated");
+        context.close();
+    }
+}
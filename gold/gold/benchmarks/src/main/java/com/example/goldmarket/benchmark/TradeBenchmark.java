@@ -0,0 +1,62 @@
+package com.example.goldmarket.benchmark;
+
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.Transaction;
+import com.example.goldmarket.model.Weight;
+import com.example.goldmarket.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a single uncontended {@link UserService#trade}, end to end
+ * through settlement and commit on the embedded H2 database. BUY and SELL
+ * alternate so the wallet and holding stay the same size for the whole run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class TradeBenchmark {
+
+    private static final Weight TRADE_GRAMS = Weight.ofMilligrams(Weight.MILLIGRAMS_PER_GRAM);
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private String email;
+    private boolean sell;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        userService = context.getBean(UserService.class);
+        email = "trader@bench.local";
+        BenchmarkApplication.createUser(context, email, Money.ofPaise(1_000_000_000_00L));
+    }
+
+    @Benchmark
+    public Transaction trade() {
+        Transaction transaction = userService.trade(email, sell ? "SELL" : "BUY", "GOLD_24K", TRADE_GRAMS);
+        sell = !sell;
+        return transaction;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
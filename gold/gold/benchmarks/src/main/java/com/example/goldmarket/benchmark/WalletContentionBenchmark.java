@@ -0,0 +1,115 @@
+package com.example.goldmarket.benchmark;
+
+import com.example.goldmarket.model.Money;
+import com.example.goldmarket.model.Transaction;
+import com.example.goldmarket.model.Wallet;
+import com.example.goldmarket.model.Weight;
+import com.example.goldmarket.repository.TransactionRepository;
+import com.example.goldmarket.repository.WalletRepository;
+import com.example.goldmarket.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link UserService#trade} when 1, 10 or 1000 traders hit the
+ * same wallet at once. Each invocation settles {@value #TRADES_PER_ROUND}
+ * trades split across the traders, so scores are trades per second regardless
+ * of the trader count.
+ * <p>
+ * On teardown the final balance is checked against the recorded trades; any
+ * lost update fails the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class WalletContentionBenchmark {
+
+    static final int TRADES_PER_ROUND = 1000;
+    private static final Money INITIAL_BALANCE = Money.ofPaise(1_000_000_000_000_00L);
+    private static final Weight TRADE_GRAMS = Weight.ofMilligrams(Weight.MILLIGRAMS_PER_GRAM);
+
+    @Param({ "1", "10", "1000" })
+    public int traders;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private ExecutorService pool;
+    private List<Callable<Void>> round;
+    private String email;
+    private Long walletId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        userService = context.getBean(UserService.class);
+        email = "hot-wallet@bench.local";
+        walletId = BenchmarkApplication.createUser(context, email, INITIAL_BALANCE).getId();
+
+        pool = Executors.newFixedThreadPool(traders);
+        round = new ArrayList<>(traders);
+        int perTrader = TRADES_PER_ROUND / traders;
+        for (int i = 0; i < traders; i++) {
+            round.add(() -> {
+                for (int t = 0; t < perTrader; t++) {
+                    userService.trade(email, "BUY", "GOLD_24K", TRADE_GRAMS);
+                }
+                return null;
+            });
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRADES_PER_ROUND)
+    public void hotWallet() throws Exception {
+        for (Future<Void> trader : pool.invokeAll(round)) {
+            trader.get();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+        try {
+            Wallet wallet = context.getBean(WalletRepository.class).findById(walletId).orElseThrow();
+            Money spent = Money.ZERO;
+            // The hot wallet is the only one in this database
+            List<Transaction> trades = context.getBean(TransactionRepository.class).findAll();
+            for (Transaction trade : trades) {
+                spent = spent.plus(trade.getPrice().times(trade.getAmount(), RoundingMode.UP));
+            }
+            Money expected = INITIAL_BALANCE.minus(spent);
+            if (expected.compareTo(wallet.getBalance()) != 0) {
+                throw new IllegalStateException("Lost updates: balance " + wallet.getBalance() + " but "
+                        + trades.size() + " trades imply " + expected);
+            }
+            System.out.println("Consistency check passed: " + trades.size() + " trades, no lost updates");
+        } finally {
+            context.close();
+        }
+    }
+}
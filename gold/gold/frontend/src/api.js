@@ -8,4 +8,67 @@ const api = axios.create({
     },
 });
 
+// With auth.mode=jwt, login and signup return tokens instead of setting a session cookie
+const TOKENS_KEY = 'authTokens';
+
+const readTokens = () => {
+    try {
+        return JSON.parse(localStorage.getItem(TOKENS_KEY)) || {};
+    } catch {
+        return {};
+    }
+};
+
+export const setTokens = (data) => {
+    if (data?.accessToken) {
+        localStorage.setItem(TOKENS_KEY, JSON.stringify({
+            accessToken: data.accessToken,
+            refreshToken: data.refreshToken,
+        }));
+    }
+};
+
+export const clearTokens = () => localStorage.removeItem(TOKENS_KEY);
+
+// WebSocket handshakes cannot carry headers, so the access token goes in the query
+export const socketUrl = (path) => {
+    const url = api.defaults.baseURL.replace(/^http/, 'ws').replace(/\/api$/, path);
+    const { accessToken } = readTokens();
+    return accessToken ? `${url}?access_token=${encodeURIComponent(accessToken)}` : url;
+};
+
+api.interceptors.request.use((config) => {
+    const { accessToken } = readTokens();
+    if (accessToken) {
+        config.headers.Authorization = `Bearer ${accessToken}`;
+    }
+    return config;
+});
+
+// One refresh at a time, shared by every request that got a 401 meanwhile
+let refreshing = null;
+
+api.interceptors.response.use(
+    (response) => response,
+    async (error) => {
+        const original = error.config;
+        const { refreshToken } = readTokens();
+        if (error.response?.status !== 401 || !refreshToken || !original || original._retried
+            || original.url === '/auth/refresh') {
+            return Promise.reject(error);
+        }
+        original._retried = true;
+        try {
+            refreshing = refreshing || api.post('/auth/refresh', { refreshToken })
+                .then((response) => setTokens(response.data))
+                .finally(() => { refreshing = null; });
+            await refreshing;
+        } catch {
+            clearTokens();
+            return Promise.reject(error);
+        }
+        return api(original);
+    },
+);
+
 export default api;
@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { Bell, TrendingUp, TrendingDown, DollarSign, CheckCircle, X } from 'lucide-react';
+import api, { socketUrl } from '../api';
 
 const Notifications = () => {
     const [notifications, setNotifications] = useState([
@@ -61,25 +62,89 @@ const Notifications = () => {
         setNotifications(notifications.filter(n => n.id !== id));
     };
 
-    // Simulate live notifications
+    const [alerts, setAlerts] = useState([]);
+    const [alertForm, setAlertForm] = useState({ symbol: 'GOLD_24K', condition: 'ABOVE', price: '', percent: '1', windowMinutes: '10' });
+    const [alertError, setAlertError] = useState('');
+
+    const fetchAlerts = async () => {
+        try {
+            const response = await api.get('/alerts');
+            setAlerts(response.data || []);
+        } catch (error) {
+            console.error('Failed to fetch alerts:', error);
+        }
+    };
+
     useEffect(() => {
-        const interval = setInterval(() => {
-            const newNotification = {
-                id: Date.now(),
-                type: 'price_alert',
-                title: 'Live Price Update',
-                message: `Gold price: $${(2050 + Math.random() * 100).toFixed(2)}`,
-                time: 'Just now',
-                read: false,
-                icon: TrendingUp,
-                color: 'green'
-            };
-            setNotifications(prev => [newNotification, ...prev].slice(0, 10));
-        }, 60000); // Every minute
+        fetchAlerts();
+    }, []);
 
-        return () => clearInterval(interval);
+    // Fired price alerts and settled deposits are pushed here
+    useEffect(() => {
+        let socket = null;
+        try {
+            socket = new WebSocket(socketUrl('/ws/notifications'));
+            socket.onmessage = (event) => {
+                const pushed = JSON.parse(event.data);
+                let newNotification = null;
+                if (pushed.type === 'PRICE_ALERT') {
+                    const falling = pushed.condition === 'BELOW'
+                        || (pushed.condition === 'MOVE' && pushed.triggerPrice < pushed.referencePrice);
+                    newNotification = {
+                        id: `alert-${pushed.alertId}`,
+                        type: 'price_alert',
+                        title: 'Price Alert',
+                        message: pushed.message,
+                        icon: falling ? TrendingDown : TrendingUp,
+                        color: falling ? 'red' : 'green'
+                    };
+                    fetchAlerts();
+                } else if (pushed.type === 'DEPOSIT') {
+                    newNotification = {
+                        id: `deposit-${pushed.depositId}`,
+                        type: 'wallet',
+                        title: pushed.status === 'SETTLED' ? 'Deposit Confirmed' : 'Deposit Failed',
+                        message: `₹${pushed.amount} ${pushed.status === 'SETTLED' ? 'has been added to your wallet' : 'could not be added'}`,
+                        icon: DollarSign,
+                        color: pushed.status === 'SETTLED' ? 'yellow' : 'red'
+                    };
+                }
+                if (newNotification) {
+                    setNotifications(prev => [{ ...newNotification, time: 'Just now', read: false }, ...prev].slice(0, 10));
+                }
+            };
+        } catch (error) {
+            console.error('Notifications unavailable:', error);
+        }
+        return () => socket && socket.close();
     }, []);
 
+    const createAlert = async () => {
+        setAlertError('');
+        const { symbol, condition, price, percent, windowMinutes } = alertForm;
+        const body = condition === 'MOVE' ? { symbol, condition, percent, windowMinutes } : { symbol, condition, price };
+        try {
+            await api.post('/alerts', body);
+            setAlertForm({ ...alertForm, price: '' });
+            fetchAlerts();
+        } catch (error) {
+            setAlertError(error.response?.data?.error || 'Could not create alert');
+        }
+    };
+
+    const cancelAlert = async (alertId) => {
+        try {
+            await api.delete(`/alerts/${alertId}`);
+        } catch (error) {
+            console.error('Failed to cancel alert:', error);
+        }
+        fetchAlerts();
+    };
+
+    const describeAlert = (alert) => alert.condition === 'MOVE'
+        ? `${alert.symbol} moves ${alert.percent}% in ${alert.windowMinutes} min`
+        : `${alert.symbol} ${alert.condition === 'ABOVE' ? 'above' : 'below'} ₹${alert.price}`;
+
     return (
         <div className="space-y-6">
             <div className="flex items-center justify-between">
@@ -162,6 +227,81 @@ const Notifications = () => {
                 )}
             </div>
 
+            {/* Price Alerts */}
+            <div className="bg-gray-900/50 backdrop-blur-xl border border-gray-800 rounded-2xl p-6">
+                <h3 className="text-lg font-semibold mb-4">Price Alerts</h3>
+                <div className="flex flex-wrap gap-2 mb-3">
+                    <select
+                        value={alertForm.symbol}
+                        onChange={(e) => setAlertForm({ ...alertForm, symbol: e.target.value })}
+                        className="bg-gray-800 border border-gray-700 rounded-lg px-3 py-2"
+                    >
+                        <option value="GOLD_24K">24K</option>
+                        <option value="GOLD_22K">22K</option>
+                        <option value="GOLD_18K">18K</option>
+                    </select>
+                    <select
+                        value={alertForm.condition}
+                        onChange={(e) => setAlertForm({ ...alertForm, condition: e.target.value })}
+                        className="bg-gray-800 border border-gray-700 rounded-lg px-3 py-2"
+                    >
+                        <option value="ABOVE">Above</option>
+                        <option value="BELOW">Below</option>
+                        <option value="MOVE">Moves by</option>
+                    </select>
+                    {alertForm.condition === 'MOVE' ? (
+                        <>
+                            <input
+                                type="number"
+                                value={alertForm.percent}
+                                onChange={(e) => setAlertForm({ ...alertForm, percent: e.target.value })}
+                                placeholder="%"
+                                className="w-24 bg-gray-800 border border-gray-700 rounded-lg px-3 py-2"
+                            />
+                            <input
+                                type="number"
+                                value={alertForm.windowMinutes}
+                                onChange={(e) => setAlertForm({ ...alertForm, windowMinutes: e.target.value })}
+                                placeholder="minutes"
+                                className="w-28 bg-gray-800 border border-gray-700 rounded-lg px-3 py-2"
+                            />
+                        </>
+                    ) : (
+                        <input
+                            type="number"
+                            value={alertForm.price}
+                            onChange={(e) => setAlertForm({ ...alertForm, price: e.target.value })}
+                            placeholder="Price per gram (₹)"
+                            className="w-44 bg-gray-800 border border-gray-700 rounded-lg px-3 py-2"
+                        />
+                    )}
+                    <button
+                        onClick={createAlert}
+                        className="bg-yellow-500 hover:bg-yellow-400 text-black font-semibold px-4 py-2 rounded-lg transition"
+                    >
+                        Add alert
+                    </button>
+                </div>
+                {alertError && <p className="text-sm text-red-500 mb-3">{alertError}</p>}
+                {alerts.length === 0 ? (
+                    <p className="text-sm text-gray-400">No active alerts</p>
+                ) : (
+                    <div className="space-y-2">
+                        {alerts.map(alert => (
+                            <div key={alert.alertId} className="flex items-center justify-between text-sm">
+                                <span>{describeAlert(alert)}</span>
+                                <button
+                                    onClick={() => cancelAlert(alert.alertId)}
+                                    className="text-gray-500 hover:text-red-500 transition"
+                                >
+                                    <X className="w-4 h-4" />
+                                </button>
+                            </div>
+                        ))}
+                    </div>
+                )}
+            </div>
+
             {/* Notification Settings */}
             <div className="bg-gray-900/50 backdrop-blur-xl border border-gray-800 rounded-2xl p-6">
                 <h3 className="text-lg font-semibold mb-4">Notification Preferences</h3>
@@ -6,10 +6,23 @@ const OrderHistory = () => {
     const [transactions, setTransactions] = useState([]);
 
     useEffect(() => {
+        let newestId = null;
+
+        // First load fetches the latest page; later polls only ask for rows newer than the newest seen
         const fetchHistory = async () => {
             try {
-                const response = await api.get('/trade/history');
-                setTransactions(response.data);
+                const params = newestId !== null ? { since: newestId } : {};
+                const response = await api.get('/trade/history', { params });
+                const rows = response.data;
+                if (rows.length === 0) return;
+
+                if (newestId === null) {
+                    newestId = rows[0].id;
+                    setTransactions(rows);
+                } else {
+                    newestId = rows[rows.length - 1].id;
+                    setTransactions(prev => [...rows.reverse(), ...prev]);
+                }
             } catch (error) {
                 console.error('Error fetching history:', error);
             }
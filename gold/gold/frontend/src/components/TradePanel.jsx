@@ -40,6 +40,9 @@ const TradePanel = ({ prices }) => {
                 type,
                 symbol: 'GOLD',
                 amount: parseFloat(weightGrams) // Send grams directly
+            }, {
+                // Lets a retried request return the original trade instead of trading twice
+                headers: { 'Idempotency-Key': crypto.randomUUID() }
             });
             setMessage({ type: 'success', text: 'Trade executed successfully!' });
             setWeightGrams('');
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { Wallet as WalletIcon, Plus, TrendingUp, TrendingDown, CreditCard, Loader2 } from 'lucide-react';
-import api from '../api';
+import api, { socketUrl } from '../api';
 
 const Wallet = () => {
     const [balance, setBalance] = useState(0);
@@ -13,6 +13,23 @@ const Wallet = () => {
         fetchWalletData();
     }, []);
 
+    // Settled deposits are pushed here; the status endpoint below is the fallback
+    useEffect(() => {
+        let socket = null;
+        try {
+            socket = new WebSocket(socketUrl('/ws/notifications'));
+            socket.onmessage = (event) => {
+                const notification = JSON.parse(event.data);
+                if (notification.type === 'DEPOSIT') {
+                    fetchWalletData();
+                }
+            };
+        } catch (error) {
+            console.error('Notifications unavailable:', error);
+        }
+        return () => socket && socket.close();
+    }, []);
+
     const fetchWalletData = async () => {
         try {
             const response = await api.get('/trade/wallet');
@@ -26,6 +43,17 @@ const Wallet = () => {
         }
     };
 
+    const waitForDeposit = async (depositId) => {
+        for (let attempt = 0; attempt < 30; attempt++) {
+            const { data } = await api.get(`/payment/deposits/${depositId}`);
+            if (data.status !== 'PENDING') {
+                return data;
+            }
+            await new Promise((resolve) => setTimeout(resolve, 1000));
+        }
+        return null;
+    };
+
     const handleAddMoney = async () => {
         const addAmount = parseFloat(amount);
         if (addAmount <= 0 || isNaN(addAmount)) {
@@ -36,17 +64,26 @@ const Wallet = () => {
         setIsProcessing(true);
 
         try {
-            // Call mock payment API
+            // Call mock payment API; the deposit settles in the background
             const response = await api.post('/payment/mock-deposit', {
                 amount: addAmount
+            }, {
+                // Lets a retried request return the original deposit instead of paying twice
+                headers: { 'Idempotency-Key': crypto.randomUUID() }
             });
 
             if (response.data.success) {
-                setBalance(response.data.newBalance);
                 setShowAddMoney(false);
                 setAmount('');
-                alert(response.data.message);
-                // Refresh wallet data to get updated transactions
+                const deposit = await waitForDeposit(response.data.depositId);
+                if (deposit && deposit.status === 'SETTLED') {
+                    alert(`Payment successful! ₹${deposit.amount} added to wallet`);
+                } else if (deposit) {
+                    alert('Payment failed. Please try again.');
+                } else {
+                    alert('Payment is still processing. Your balance will update once it completes.');
+                }
+                // Refresh wallet data to get updated balance and transactions
                 fetchWalletData();
             }
         } catch (error) {
@@ -57,7 +94,6 @@ const Wallet = () => {
         }
     };
 
-
     return (
         <div className="space-y-6">
             <div>
@@ -1,5 +1,5 @@
 import React, { createContext, useContext, useState, useEffect } from 'react';
-import api from '../api';
+import api, { setTokens, clearTokens } from '../api';
 
 const AuthContext = createContext(null);
 
@@ -29,6 +29,7 @@ export const AuthProvider = ({ children }) => {
         try {
             const response = await api.post('/auth/signup', userData);
             if (response.data.success) {
+                setTokens(response.data);
                 setUser(response.data.user);
                 return response.data.user;
             } else {
@@ -43,6 +44,7 @@ export const AuthProvider = ({ children }) => {
         try {
             const response = await api.post('/auth/login', credentials);
             if (response.data.success) {
+                setTokens(response.data);
                 setUser(response.data.user);
                 return response.data.user;
             } else {
@@ -56,9 +58,11 @@ export const AuthProvider = ({ children }) => {
     const logout = async () => {
         try {
             await api.post('/auth/logout');
+            clearTokens();
             setUser(null);
         } catch (error) {
             console.error('Logout failed', error);
+            clearTokens();
             setUser(null);
         }
     };
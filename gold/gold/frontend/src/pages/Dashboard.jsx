@@ -10,7 +10,7 @@ import Profile from '../components/Profile';
 import Wallet from '../components/Wallet';
 import Notifications from '../components/Notifications';
 import AIRecommendations from '../components/AIRecommendations';
-import api from '../api';
+import api, { socketUrl } from '../api';
 import { motion } from 'framer-motion';
 import { TrendingUp } from 'lucide-react';
 
@@ -53,34 +53,59 @@ const Dashboard = () => {
         setIsLoading(false);
     }, [timeRange]);
 
-    // Live updates
+    // Live updates: prices are pushed over WebSocket, REST polling is the fallback
     useEffect(() => {
+        let interval = null;
+        let socket = null;
+
+        const applyPrices = (newPrices) => {
+            setPrices(newPrices);
+
+            setPriceHistory(prev => {
+                const now = new Date();
+                const newPoint = {
+                    timestamp: now.getTime(),
+                    name: now.toLocaleTimeString([], { hour: '2-digit', minute: '2-digit' }),
+                    GOLD: newPrices.GOLD
+                };
+
+                const newHistory = [...prev, newPoint];
+                if (newHistory.length > 60) newHistory.shift();
+                return newHistory;
+            });
+        };
+
         const fetchPrices = async () => {
             try {
                 const response = await api.get('/market/prices');
-                const newPrices = response.data;
-                setPrices(newPrices);
-
-                setPriceHistory(prev => {
-                    const now = new Date();
-                    const newPoint = {
-                        timestamp: now.getTime(),
-                        name: now.toLocaleTimeString([], { hour: '2-digit', minute: '2-digit' }),
-                        GOLD: newPrices.GOLD
-                    };
-
-                    const newHistory = [...prev, newPoint];
-                    if (newHistory.length > 60) newHistory.shift();
-                    return newHistory;
-                });
+                applyPrices(response.data);
             } catch (error) {
                 console.error('Error fetching prices:', error);
             }
         };
 
-        fetchPrices();
-        const interval = setInterval(fetchPrices, 3000);
-        return () => clearInterval(interval);
+        const startPolling = () => {
+            if (interval) return;
+            fetchPrices();
+            interval = setInterval(fetchPrices, 3000);
+        };
+
+        try {
+            socket = new WebSocket(socketUrl('/ws/prices'));
+            socket.onmessage = (event) => applyPrices(JSON.parse(event.data));
+            socket.onclose = startPolling;
+        } catch (error) {
+            console.error('Price stream unavailable, polling instead:', error);
+            startPolling();
+        }
+
+        return () => {
+            if (socket) {
+                socket.onclose = null;
+                socket.close();
+            }
+            if (interval) clearInterval(interval);
+        };
     }, []);
 
     const handleSearch = (query) => {
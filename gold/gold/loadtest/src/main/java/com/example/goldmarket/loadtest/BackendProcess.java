@@ -0,0 +1,116 @@
+package com.example.goldmarket.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The packaged backend running in its own JVM, so each threading mode gets a
+ * cold, isolated process (and, for virtual threads, possibly a different JDK).
+ */
+final class BackendProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(90);
+
+    private final Process process;
+    private final String baseUrl;
+    private final Path log;
+
+    private BackendProcess(Process process, int port, Path log) {
+        this.process = process;
+        this.baseUrl = "http://localhost:" + port;
+        this.log = log;
+    }
+
+    static BackendProcess start(String java, Path jar, String mode, List<String> extraArgs) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar.toAbsolutePath() + " not found, run mvn install -DskipTests first");
+        }
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of(java, "-jar", jar.toString(),
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--spring.devtools.restart.enabled=false",
+                "--spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.goldmarket=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.springframework.security=WARN"));
+        command.addAll(extraArgs);
+
+        Path log = Path.of("target", "backend-" + mode + ".log");
+        Files.createDirectories(log.getParent());
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        BackendProcess backend = new BackendProcess(process, port, log);
+        backend.awaitStartup();
+        return backend;
+    }
+
+    String getBaseUrl() {
+        return baseUrl;
+    }
+
+    private void awaitStartup() throws IOException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest ping = HttpRequest.newBuilder(URI.create(baseUrl + "/api/test/ping")).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Backend exited during startup, see " + log.toAbsolutePath());
+            }
+            try {
+                if (client.send(ping, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            sleep(250);
+        }
+        close();
+        throw new IllegalStateException("Backend did not start within " + STARTUP_TIMEOUT + ", see "
+                + log.toAbsolutePath());
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+        try {
+            if (!process.waitFor(15, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.goldmarket.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records request latencies for one client thread into an HdrHistogram, so
+ * memory stays fixed however long the run is. Latencies from 1 µs to 5
+ * minutes are tracked to three significant digits; recorders are merged after
+ * the run.
+ */
+final class LatencyRecorder {
+
+    private static final long LOWEST_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final long HIGHEST_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Histogram histogram = newHistogram();
+
+    void record(long latencyNanos) {
+        histogram.recordValue(Math.max(LOWEST_NANOS, Math.min(latencyNanos, HIGHEST_NANOS)));
+    }
+
+    long getCount() {
+        return histogram.getTotalCount();
+    }
+
+    static Histogram newHistogram() {
+        return new Histogram(LOWEST_NANOS, HIGHEST_NANOS, 3);
+    }
+
+    static Histogram merge(Iterable<LatencyRecorder> recorders) {
+        Histogram merged = newHistogram();
+        for (LatencyRecorder recorder : recorders) {
+            merged.add(recorder.histogram);
+        }
+        return merged;
+    }
+
+    static double percentileMillis(Histogram histogram, double percentile) {
+        if (histogram.getTotalCount() == 0) {
+            return Double.NaN;
+        }
+        long nanos = percentile >= 100 ? histogram.getMaxValue() : histogram.getValueAtPercentile(percentile);
+        return nanos / 1_000_000.0;
+    }
+}
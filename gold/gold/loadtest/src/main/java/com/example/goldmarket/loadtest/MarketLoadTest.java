@@ -0,0 +1,277 @@
+package com.example.goldmarket.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Production-shaped load: a population of scripted traders, each mixing price
+ * polls, market trades, history reads and deposits over the real HTTP and
+ * session path, with latency histograms per endpoint.
+ * <p>
+ * The backend exec jar is started on a fresh H2 database, {@code users}
+ * accounts sign up through {@code /api/auth/signup}, and {@code traders}
+ * threads (spread over the users) each pick their next action from
+ * {@code mix} with a seeded random, so the same arguments replay the same
+ * scripts. Arguments are {@code key=value} pairs:
+ * <ul>
+ * <li>{@code users} (20), {@code traders} (same as users), {@code warmup} (3), {@code seconds} (15)</li>
+ * <li>{@code mix} - weights per action, default {@code prices:60,trade:20,history:15,deposit:5}</li>
+ * <li>{@code think-ms} - pause between a trader's actions, default 0 (closed loop)</li>
+ * <li>{@code seed} (1), {@code jar}, {@code java} as for {@link TradeLoadTest}</li>
+ * <li>{@code out} - directory for one {@code .hgrm} percentile file per endpoint, default
+ * {@code target/loadtest}</li>
+ * <li>{@code max-error-rate} - the run exits with status 1 above this fraction of failed
+ * requests, default 0.01; 503s from the database limiter are reported but not counted</li>
+ * </ul>
+ * The defaults finish in well under a minute, so the run can gate CI. Any
+ * other {@code --name=value} argument is passed through to the backend.
+ */
+public final class MarketLoadTest {
+
+    enum Action {
+        PRICES("GET /api/market/prices"),
+        TRADE("POST /api/trade/execute"),
+        HISTORY("GET /api/trade/history"),
+        DEPOSIT("POST /api/payment/mock-deposit");
+
+        private final String label;
+
+        Action(String label) {
+            this.label = label;
+        }
+    }
+
+    private MarketLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> backendArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                backendArgs.add(arg);
+            } else if (arg.contains("=")) {
+                options.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        int users = Integer.parseInt(options.getOrDefault("users", "20"));
+        int traders = Integer.parseInt(options.getOrDefault("traders", String.valueOf(users)));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "3")));
+        Duration measured = Duration.ofSeconds(Long.parseLong(options.getOrDefault("seconds", "15")));
+        int[] weights = parseMix(options.getOrDefault("mix", "prices:60,trade:20,history:15,deposit:5"));
+        long thinkMillis = Long.parseLong(options.getOrDefault("think-ms", "0"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        double maxErrorRate = Double.parseDouble(options.getOrDefault("max-error-rate", "0.01"));
+        Path out = Path.of(options.getOrDefault("out", "target/loadtest"));
+        Path jar = Path.of(options.getOrDefault("jar", "../backend/target/gold-marketplace-backend-1.0.0-exec.jar"));
+        String java = options.getOrDefault("java", Path.of(System.getProperty("java.home"), "bin", "java").toString());
+
+        System.out.printf("%n== %d traders over %d users, mix %s, %ds warmup, %ds measured%n", traders, users,
+                options.getOrDefault("mix", "prices:60,trade:20,history:15,deposit:5"), warmup.toSeconds(),
+                measured.toSeconds());
+        Trader[] population;
+        try (BackendProcess backend = BackendProcess.start(java, jar, "platform", backendArgs)) {
+            population = run(backend.getBaseUrl(), users, traders, weights, thinkMillis, seed, warmup, measured);
+        }
+        double errorRate = report(population, measured, out);
+        if (errorRate > maxErrorRate) {
+            System.out.printf("FAILED: error rate %.2f%% is above %.2f%%%n", errorRate * 100, maxErrorRate * 100);
+            System.exit(1);
+        }
+    }
+
+    private static Trader[] run(String baseUrl, int users, int traders, int[] weights, long thinkMillis, long seed,
+            Duration warmup, Duration measured) throws Exception {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10)).build();
+        String runId = Long.toString(System.nanoTime(), 36);
+        TraderSession[] sessions = new TraderSession[users];
+        for (int i = 0; i < users; i++) {
+            sessions[i] = TraderSession.signup(http, baseUrl, "trader-" + runId + "-" + i + "@example.com");
+        }
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + measured.toNanos();
+        Trader[] population = new Trader[traders];
+        CountDownLatch done = new CountDownLatch(traders);
+        for (int t = 0; t < traders; t++) {
+            Trader trader = new Trader(sessions[t % users], new Random(seed + t), weights, thinkMillis);
+            population[t] = trader;
+            Thread thread = new Thread(() -> {
+                try {
+                    trader.run(measureFrom, measureUntil);
+                } finally {
+                    done.countDown();
+                }
+            }, "load-trader-" + t);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        return population;
+    }
+
+    /**
+     * Prints one line per endpoint plus a total and writes the histograms.
+     *
+     * @return the fraction of measured requests that failed
+     */
+    private static double report(Trader[] population, Duration measured, Path out) throws IOException {
+        Files.createDirectories(out);
+        System.out.printf("%n%-32s %8s %9s %9s %9s %9s %9s %9s %6s %6s%n", "endpoint", "count", "req/s", "p50 ms",
+                "p90 ms", "p99 ms", "p99.9 ms", "max ms", "503s", "errors");
+        Histogram total = LatencyRecorder.newHistogram();
+        long totalBusy = 0;
+        long totalErrors = 0;
+        for (Action action : Action.values()) {
+            List<LatencyRecorder> recorders = new ArrayList<>();
+            long busy = 0;
+            long errors = 0;
+            for (Trader trader : population) {
+                recorders.add(trader.latencies[action.ordinal()]);
+                busy += trader.busy[action.ordinal()];
+                errors += trader.errors[action.ordinal()];
+            }
+            Histogram latencies = LatencyRecorder.merge(recorders);
+            if (latencies.getTotalCount() == 0) {
+                continue;
+            }
+            printRow(action.label, latencies, measured, busy, errors);
+            total.add(latencies);
+            totalBusy += busy;
+            totalErrors += errors;
+            try (PrintStream file = new PrintStream(out.resolve(action.name().toLowerCase() + ".hgrm").toFile())) {
+                latencies.outputPercentileDistribution(file, 1_000_000.0); // in milliseconds
+            }
+        }
+        printRow("total", total, measured, totalBusy, totalErrors);
+        System.out.println("Histograms written to " + out.toAbsolutePath());
+        return total.getTotalCount() == 0 ? 1.0 : totalErrors / (double) total.getTotalCount();
+    }
+
+    private static void printRow(String label, Histogram latencies, Duration measured, long busy, long errors) {
+        System.out.printf("%-32s %8d %9.0f %9.2f %9.2f %9.2f %9.2f %9.2f %6d %6d%n", label,
+                latencies.getTotalCount(), latencies.getTotalCount() / (double) measured.toSeconds(),
+                LatencyRecorder.percentileMillis(latencies, 50), LatencyRecorder.percentileMillis(latencies, 90),
+                LatencyRecorder.percentileMillis(latencies, 99), LatencyRecorder.percentileMillis(latencies, 99.9),
+                LatencyRecorder.percentileMillis(latencies, 100), busy, errors);
+    }
+
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[Action.values().length];
+        for (String part : mix.split(",")) {
+            String[] pair = part.split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("mix entries look like prices:60, got " + part);
+            }
+            weights[Action.valueOf(pair[0].trim().toUpperCase()).ordinal()] = Integer.parseInt(pair[1].trim());
+        }
+        if (Arrays.stream(weights).sum() <= 0) {
+            throw new IllegalArgumentException("mix needs at least one positive weight");
+        }
+        return weights;
+    }
+
+    /**
+     * One scripted trader. Only its own thread touches its counters until the
+     * run is over.
+     */
+    private static final class Trader {
+
+        private final TraderSession session;
+        private final Random random;
+        private final int[] weights;
+        private final int totalWeight;
+        private final long thinkMillis;
+        private final LatencyRecorder[] latencies = new LatencyRecorder[Action.values().length];
+        private final long[] busy = new long[Action.values().length];
+        private final long[] errors = new long[Action.values().length];
+        private boolean holdsGold;
+
+        Trader(TraderSession session, Random random, int[] weights, long thinkMillis) {
+            this.session = session;
+            this.random = random;
+            this.weights = weights;
+            this.totalWeight = Arrays.stream(weights).sum();
+            this.thinkMillis = thinkMillis;
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LatencyRecorder();
+            }
+        }
+
+        void run(long measureFrom, long measureUntil) {
+            while (true) {
+                long start = System.nanoTime();
+                if (start >= measureUntil) {
+                    return;
+                }
+                Action action = next();
+                int status = perform(action);
+                long end = System.nanoTime();
+                if (start >= measureFrom) {
+                    latencies[action.ordinal()].record(end - start);
+                    if (status == 503) {
+                        busy[action.ordinal()]++;
+                    } else if (status < 200 || status >= 400) {
+                        errors[action.ordinal()]++;
+                    }
+                }
+                if (thinkMillis > 0) {
+                    try {
+                        Thread.sleep(thinkMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        private Action next() {
+            int pick = random.nextInt(totalWeight);
+            for (Action action : Action.values()) {
+                pick -= weights[action.ordinal()];
+                if (pick < 0) {
+                    return action;
+                }
+            }
+            throw new IllegalStateException();
+        }
+
+        private int perform(Action action) {
+            switch (action) {
+                case PRICES:
+                    return session.pollPrices();
+                case TRADE:
+                    // Users are shared between traders, so a SELL can still find nothing left to sell
+                    int status = session.trade(!holdsGold, "0.010", true);
+                    if (status == 200) {
+                        holdsGold = !holdsGold;
+                    } else if (status == 400) {
+                        holdsGold = false;
+                        return 200; // A rejected trade is a correct answer, not a failure
+                    }
+                    return status;
+                case HISTORY:
+                    return session.history(20);
+                case DEPOSIT:
+                    return session.deposit(String.valueOf(100 + random.nextInt(900)));
+                default:
+                    throw new IllegalStateException("Unknown action " + action);
+            }
+        }
+    }
+}
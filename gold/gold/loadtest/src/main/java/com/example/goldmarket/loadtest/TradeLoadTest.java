@@ -0,0 +1,150 @@
+package com.example.goldmarket.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import org.HdrHistogram.Histogram;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Side-by-side latency of {@code POST /api/trade/execute} with the backend on
+ * platform threads and on virtual threads.
+ * <p>
+ * For each mode the backend exec jar is started in a fresh JVM, {@code users}
+ * accounts sign up, and {@code clients} threads each send back-to-back
+ * BUY/SELL pairs (closed loop) for {@code warmup} plus {@code seconds}
+ * seconds; only the measured window is reported. Arguments are
+ * {@code key=value} pairs:
+ * <ul>
+ * <li>{@code modes} - comma separated, default {@code platform,virtual}</li>
+ * <li>{@code clients} (400), {@code users} (100), {@code warmup} (10), {@code seconds} (30)</li>
+ * <li>{@code jar} - backend exec jar, default the one built in ../backend/target</li>
+ * <li>{@code java} / {@code java.virtual} - JVM for each mode; virtual threads need Java 21</li>
+ * </ul>
+ * Any other {@code --name=value} argument is passed through to the backend.
+ */
+public final class TradeLoadTest {
+
+    private TradeLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> backendArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                backendArgs.add(arg);
+            } else if (arg.contains("=")) {
+                options.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        String[] modes = options.getOrDefault("modes", "platform,virtual").split(",");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "400"));
+        int users = Integer.parseInt(options.getOrDefault("users", "100"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration measured = Duration.ofSeconds(Long.parseLong(options.getOrDefault("seconds", "30")));
+        Path jar = Path.of(options.getOrDefault("jar", "../backend/target/gold-marketplace-backend-1.0.0-exec.jar"));
+        String defaultJava = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            String java = options.getOrDefault("java." + mode, options.getOrDefault("java", defaultJava));
+            System.out.printf("%n== %s threads: %d clients, %d users, %ds warmup, %ds measured%n", mode, clients,
+                    users, warmup.toSeconds(), measured.toSeconds());
+            try (BackendProcess backend = BackendProcess.start(java, jar, mode, backendArgs)) {
+                String runtime = get(backend.getBaseUrl() + "/api/test/runtime");
+                System.out.println("backend runtime: " + runtime);
+                if ("virtual".equals(mode) && !runtime.contains("\"virtualThreads\":true")) {
+                    System.out.println("WARNING: backend is not on virtual threads, pass java.virtual=<Java 21 java>");
+                }
+                results.add(run(mode, backend.getBaseUrl(), clients, users, warmup, measured));
+            }
+        }
+
+        System.out.printf("%n%-10s %10s %10s %10s %10s %10s %10s %8s %8s%n", "mode", "req/s", "p50 ms", "p90 ms",
+                "p99 ms", "p99.9 ms", "max ms", "503s", "errors");
+        for (Result r : results) {
+            System.out.printf("%-10s %10.0f %10.2f %10.2f %10.2f %10.2f %10.2f %8d %8d%n", r.mode, r.throughput,
+                    LatencyRecorder.percentileMillis(r.latencies, 50),
+                    LatencyRecorder.percentileMillis(r.latencies, 90),
+                    LatencyRecorder.percentileMillis(r.latencies, 99),
+                    LatencyRecorder.percentileMillis(r.latencies, 99.9),
+                    LatencyRecorder.percentileMillis(r.latencies, 100), r.busy, r.errors);
+        }
+    }
+
+    private static Result run(String mode, String baseUrl, int clients, int users, Duration warmup,
+            Duration measured) throws Exception {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10)).build();
+        String runId = Long.toString(System.nanoTime(), 36);
+        TraderSession[] sessions = new TraderSession[users];
+        for (int i = 0; i < users; i++) {
+            sessions[i] = TraderSession.signup(http, baseUrl, "load-" + runId + "-" + i + "@example.com");
+        }
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + measured.toNanos();
+        AtomicLong busy = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(clients);
+
+        for (int c = 0; c < clients; c++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            TraderSession session = sessions[c % users];
+            Thread client = new Thread(() -> {
+                try {
+                    boolean buy = true;
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (start >= measureUntil) {
+                            break;
+                        }
+                        int status = session.trade(buy, "0.001", false);
+                        long end = System.nanoTime();
+                        if (start >= measureFrom) {
+                            recorder.record(end - start);
+                            if (status == 503) {
+                                busy.incrementAndGet();
+                            } else if (status != 200) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                        // A rejected BUY leaves nothing to SELL, so only alternate on success
+                        if (status == 200) {
+                            buy = !buy;
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + c);
+            client.setDaemon(true);
+            client.start();
+        }
+        done.await();
+
+        Histogram latencies = LatencyRecorder.merge(recorders);
+        return new Result(mode, latencies, latencies.getTotalCount() / (double) measured.toSeconds(), busy.get(),
+                errors.get());
+    }
+
+    private static String get(String url) throws Exception {
+        return HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(url)).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private record Result(String mode, Histogram latencies, double throughput, long busy, long errors) {
+    }
+}
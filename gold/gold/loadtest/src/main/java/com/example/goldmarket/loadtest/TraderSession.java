@@ -0,0 +1,117 @@
+package com.example.goldmarket.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One signed-up user's session against the backend: the JSESSIONID cookie
+ * from signup, or the bearer access token when the backend runs with
+ * {@code --auth.mode=jwt}, plus the calls a trader makes. Every call returns
+ * the HTTP status, or -1 if the request failed without one.
+ */
+final class TraderSession {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final String authHeader;
+    private final String authValue;
+    private String pricesEtag;
+
+    private TraderSession(HttpClient http, String baseUrl, String authHeader, String authValue) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.authHeader = authHeader;
+        this.authValue = authValue;
+    }
+
+    /**
+     * Creates the user through {@code POST /api/auth/signup}, which also logs
+     * it in, and keeps the session.
+     */
+    static TraderSession signup(HttpClient http, String baseUrl, String email) throws Exception {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"load\",\"name\":\"Load Test\"}";
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/signup"))
+                .header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Signup failed: " + response.statusCode() + " " + response.body());
+        }
+        Matcher token = ACCESS_TOKEN.matcher(response.body());
+        if (token.find()) {
+            return new TraderSession(http, baseUrl, "Authorization", "Bearer " + token.group(1));
+        }
+        String cookie = response.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.substring(0, c.indexOf(';') > 0 ? c.indexOf(';') : c.length()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No session cookie or token from signup"));
+        return new TraderSession(http, baseUrl, "Cookie", cookie);
+    }
+
+    /**
+     * Polls prices the way the frontend does, revalidating with the last ETag;
+     * an unchanged tick answers 304.
+     */
+    int pollPrices() {
+        HttpRequest.Builder request = request("/api/market/prices").GET();
+        if (pricesEtag != null) {
+            request.header("If-None-Match", pricesEtag);
+        }
+        try {
+            HttpResponse<Void> response = http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            response.headers().firstValue("ETag").ifPresent(etag -> pricesEtag = etag);
+            return response.statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    int trade(boolean buy, String grams, boolean idempotent) {
+        String body = "{\"type\":\"" + (buy ? "BUY" : "SELL") + "\",\"symbol\":\"GOLD_24K\",\"amount\":\"" + grams
+                + "\"}";
+        HttpRequest.Builder request = request("/api/trade/execute").header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (idempotent) {
+            request.header("Idempotency-Key", UUID.randomUUID().toString());
+        }
+        return send(request);
+    }
+
+    int history(int limit) {
+        return send(request("/api/trade/history?limit=" + limit).GET());
+    }
+
+    int deposit(String rupees) {
+        return send(request("/api/payment/mock-deposit").header("Content-Type", "application/json")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":\"" + rupees + "\"}")));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header(authHeader, authValue).timeout(REQUEST_TIMEOUT);
+    }
+
+    private int send(HttpRequest.Builder request) {
+        try {
+            return http.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+}